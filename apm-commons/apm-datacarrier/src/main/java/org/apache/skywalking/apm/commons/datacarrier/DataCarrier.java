@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.commons.datacarrier;
 import java.util.Properties;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.RingBuffer;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumeDriver;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
@@ -49,10 +50,22 @@ public class DataCarrier<T> {
     }
 
     public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize, BufferStrategy strategy) {
+        this(name, envPrefix, channelSize, bufferSize, strategy, false);
+    }
+
+    /**
+     * @param ringBuffer true to use the lock-free {@link RingBuffer} as the buffer of every channel.
+     */
+    public DataCarrier(String name,
+                       String envPrefix,
+                       int channelSize,
+                       int bufferSize,
+                       BufferStrategy strategy,
+                       boolean ringBuffer) {
         this.name = name;
         bufferSize = EnvUtil.getInt(envPrefix + "_BUFFER_SIZE", bufferSize);
         channelSize = EnvUtil.getInt(envPrefix + "_CHANNEL_SIZE", channelSize);
-        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy);
+        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy, ringBuffer);
     }
 
     public DataCarrier(int channelSize, int bufferSize, BufferStrategy strategy) {
@@ -77,13 +90,20 @@ public class DataCarrier<T> {
      * @return false means produce data failure. The data will not be consumed.
      */
     public boolean produce(T data) {
+        final IDriver driver = this.driver;
         if (driver != null) {
             if (!driver.isRunning(channels)) {
                 return false;
             }
         }
 
-        return this.channels.save(data);
+        if (this.channels.save(data)) {
+            if (driver != null) {
+                driver.onProduced(channels);
+            }
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -123,10 +143,23 @@ public class DataCarrier<T> {
      * @param num      number of consumer threads
      */
     public DataCarrier consume(IConsumer<T> consumer, int num, long consumeCycle) {
+        return this.consume(consumer, num, consumeCycle, false);
+    }
+
+    /**
+     * set consumeDriver to this Carrier. consumer begin to run when {@link DataCarrier#produce} begin to work.
+     *
+     * @param consumer     single instance of consumer, all consumer threads will all use this instance.
+     * @param num          number of consumer threads
+     * @param consumeCycle the max wait time in millis when there is nothing to consume.
+     * @param adaptive     true to make the idle consumer spin, yield and park, and be woken up by the producers,
+     *                     rather than sleeping the whole consume cycle.
+     */
+    public DataCarrier consume(IConsumer<T> consumer, int num, long consumeCycle, boolean adaptive) {
         if (driver != null) {
             driver.close(channels);
         }
-        driver = new ConsumeDriver<T>(this.name, this.channels, consumer, num, consumeCycle);
+        driver = new ConsumeDriver<T>(this.name, this.channels, consumer, num, consumeCycle, adaptive);
         driver.begin(channels);
         return this;
     }
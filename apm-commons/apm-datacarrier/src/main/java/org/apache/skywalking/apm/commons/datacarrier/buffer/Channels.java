@@ -31,11 +31,24 @@ public class Channels<T> {
     private final long size;
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, false);
+    }
+
+    /**
+     * @param ringBuffer true to use {@link RingBuffer} for all channels, which supports both {@link BufferStrategy}s.
+     */
+    public Channels(int channelSize,
+                    int bufferSize,
+                    IDataPartitioner<T> partitioner,
+                    BufferStrategy strategy,
+                    boolean ringBuffer) {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
         bufferChannels = new QueueBuffer[channelSize];
         for (int i = 0; i < channelSize; i++) {
-            if (BufferStrategy.BLOCKING.equals(strategy)) {
+            if (ringBuffer) {
+                bufferChannels[i] = new RingBuffer<>(bufferSize, strategy);
+            } else if (BufferStrategy.BLOCKING.equals(strategy)) {
                 bufferChannels[i] = new ArrayBlockingQueueBuffer<>(bufferSize, strategy);
             } else {
                 bufferChannels[i] = new Buffer<>(bufferSize, strategy);
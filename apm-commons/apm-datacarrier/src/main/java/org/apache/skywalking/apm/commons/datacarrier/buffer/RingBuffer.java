@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * RingBuffer is a multi-producer/single-consumer queue based on claimed and published sequences.
+ * <p>
+ * Producers claim a sequence by CAS on the cursor, write the slot, then publish the sequence of the slot. The
+ * consumer only reads the continuous published range starting from its own sequence, so a claimed but not yet
+ * published slot is never read, and a slot is never reused before the consumer has released it.
+ * <p>
+ * The capacity is the buffer size rounded up to the next power of 2. Only one thread could call {@link #obtain(List)}
+ * at the same time, which is guaranteed by the consumer drivers, as each buffer is assigned to one consumer thread.
+ */
+public class RingBuffer<T> implements QueueBuffer<T> {
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private final Object[] entries;
+    /**
+     * The sequence published in each slot, -1 means never published.
+     */
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong cursor;
+    /**
+     * The next sequence to be read by the consumer. All sequences before it are free to be claimed again.
+     */
+    private volatile long consumerSequence;
+    /**
+     * Producer side cache of {@link #consumerSequence}, which the consumer writes on every obtain, so the claims don't
+     * read that field until the cached value says the buffer may be full. A stale value is safe, it only leads to a
+     * read of {@link #consumerSequence}. The field is volatile only to read and write the long atomically, as a torn
+     * value could be larger than the real sequence and let a producer overwrite an unconsumed slot. It is written on
+     * the slow path only, and only when it changes, so the claims of the other producers mostly hit a shared line.
+     */
+    private volatile long cachedConsumerSequence;
+    private BufferStrategy strategy;
+
+    RingBuffer(int bufferSize, BufferStrategy strategy) {
+        int capacity = tableSizeFor(bufferSize);
+        this.entries = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.lazySet(i, -1L);
+        }
+        this.mask = capacity - 1;
+        this.cursor = new AtomicLong(0);
+        this.consumerSequence = 0;
+        this.cachedConsumerSequence = 0;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public boolean save(T data) {
+        final int capacity = entries.length;
+        long sequence;
+        while (true) {
+            sequence = cursor.get();
+            long wrapPoint = sequence - capacity;
+            if (wrapPoint >= cachedConsumerSequence) {
+                long consumed = consumerSequence;
+                if (consumed != cachedConsumerSequence) {
+                    cachedConsumerSequence = consumed;
+                }
+                if (wrapPoint >= consumed) {
+                    if (BufferStrategy.IF_POSSIBLE.equals(strategy)) {
+                        return false;
+                    }
+                    // BLOCKING, wait for the consumer to release slots.
+                    LockSupport.parkNanos(1L);
+                    continue;
+                }
+            }
+            if (cursor.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        int index = (int) sequence & mask;
+        entries[index] = data;
+        // The volatile-ordered store makes the entry visible before the sequence is published.
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void obtain(List<T> consumeList) {
+        long sequence = consumerSequence;
+        final long limit = sequence + entries.length;
+        while (sequence < limit) {
+            int index = (int) sequence & mask;
+            if (published.get(index) != sequence) {
+                break;
+            }
+            consumeList.add((T) entries[index]);
+            entries[index] = null;
+            sequence++;
+        }
+        consumerSequence = sequence;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return entries.length;
+    }
+
+    private static int tableSizeFor(int bufferSize) {
+        if (bufferSize <= 1) {
+            return 1;
+        }
+        if (bufferSize >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Integer.highestOneBit(bufferSize - 1) << 1;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AdaptiveBackoff is the idle strategy of a consumer thread, when nothing is consumed in the last round. The consumer
+ * spins for the first rounds, then yields, and parks at last. A parked consumer is woken up by {@link #wakeup()} from
+ * the producers, or by the timeout(consume cycle), whichever comes first.
+ * <p>
+ * Before parking, the consumer is marked as parked and scans the buffers once more, so the data saved by a producer
+ * which has not seen the mark yet is usually consumed without waiting for the timeout. The timeout is still the upper
+ * bound of the latency, as the mark is only a hint.
+ */
+class AdaptiveBackoff {
+    private static final int SPIN_ROUNDS = 100;
+    private static final int YIELD_ROUNDS = 20;
+
+    private final Thread consumerThread;
+    private final long maxParkNanos;
+    private volatile boolean parked;
+    private int idleRounds;
+
+    AdaptiveBackoff(Thread consumerThread, long consumeCycle) {
+        this.consumerThread = consumerThread;
+        this.maxParkNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(consumeCycle, 1));
+    }
+
+    /**
+     * Called by the consumer thread, when nothing is consumed in the last round.
+     */
+    void idle() {
+        idleRounds++;
+        if (idleRounds <= SPIN_ROUNDS) {
+            return;
+        }
+        if (idleRounds <= SPIN_ROUNDS + YIELD_ROUNDS) {
+            Thread.yield();
+            return;
+        }
+        if (!parked) {
+            // Scan once more after being visible as parked.
+            parked = true;
+            return;
+        }
+        LockSupport.parkNanos(this, maxParkNanos);
+    }
+
+    /**
+     * Called by the consumer thread, when something is consumed in the last round.
+     */
+    void reset() {
+        idleRounds = 0;
+        if (parked) {
+            parked = false;
+        }
+    }
+
+    /**
+     * Called by the producers after the data is saved. Only the first producer after the consumer parked pays the
+     * unpark.
+     */
+    void wakeup() {
+        if (parked) {
+            parked = false;
+            LockSupport.unpark(consumerThread);
+        }
+    }
+}
@@ -19,7 +19,9 @@
 package org.apache.skywalking.apm.commons.datacarrier.consumer;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import org.apache.skywalking.apm.commons.datacarrier.EnvUtil;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
@@ -33,12 +35,27 @@ import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 public class BulkConsumePool implements ConsumerPool {
     private List<MultipleChannelsConsumer> allConsumers;
     private volatile boolean isStarted = false;
+    private final boolean adaptive;
+    /**
+     * The consumer of each channels, only used in the adaptive mode to wake up the right consumer. Recreated on every
+     * {@link #add(String, Channels, IConsumer)} to avoid locking in {@link #onProduced(Channels)}.
+     */
+    private volatile Map<Channels, MultipleChannelsConsumer> channelsConsumers = new IdentityHashMap<>();
 
     public BulkConsumePool(String name, int size, long consumeCycle) {
+        this(name, size, consumeCycle, false);
+    }
+
+    /**
+     * @param adaptive true to make the consumer threads spin, yield and park when idle, and be woken up by the
+     *                 producers, rather than sleeping a whole consume cycle.
+     */
+    public BulkConsumePool(String name, int size, long consumeCycle, boolean adaptive) {
         size = EnvUtil.getInt(name + "_THREAD", size);
+        this.adaptive = adaptive;
         allConsumers = new ArrayList<MultipleChannelsConsumer>(size);
         for (int i = 0; i < size; i++) {
-            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
+            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle, adaptive);
             multipleChannelsConsumer.setDaemon(true);
             allConsumers.add(multipleChannelsConsumer);
         }
@@ -48,6 +65,11 @@ public class BulkConsumePool implements ConsumerPool {
     public synchronized void add(String name, Channels channels, IConsumer consumer) {
         MultipleChannelsConsumer multipleChannelsConsumer = getLowestPayload();
         multipleChannelsConsumer.addNewTarget(channels, consumer);
+        if (adaptive) {
+            Map<Channels, MultipleChannelsConsumer> newMap = new IdentityHashMap<>(channelsConsumers);
+            newMap.put(channels, multipleChannelsConsumer);
+            channelsConsumers = newMap;
+        }
     }
 
     /**
@@ -74,6 +96,17 @@ public class BulkConsumePool implements ConsumerPool {
         return isStarted;
     }
 
+    @Override
+    public void onProduced(Channels channels) {
+        if (!adaptive) {
+            return;
+        }
+        MultipleChannelsConsumer consumer = channelsConsumers.get(channels);
+        if (consumer != null) {
+            consumer.wakeup();
+        }
+    }
+
     @Override
     public void close(Channels channels) {
         for (MultipleChannelsConsumer consumer : allConsumers) {
@@ -99,16 +132,22 @@ public class BulkConsumePool implements ConsumerPool {
         private String name;
         private int size;
         private long consumeCycle;
+        private boolean adaptive;
 
         public Creator(String name, int poolSize, long consumeCycle) {
+            this(name, poolSize, consumeCycle, false);
+        }
+
+        public Creator(String name, int poolSize, long consumeCycle, boolean adaptive) {
             this.name = name;
             this.size = poolSize;
             this.consumeCycle = consumeCycle;
+            this.adaptive = adaptive;
         }
 
         @Override
         public ConsumerPool call() {
-            return new BulkConsumePool(name, size, consumeCycle);
+            return new BulkConsumePool(name, size, consumeCycle, adaptive);
         }
 
         public static int recommendMaxSize() {
@@ -31,38 +31,66 @@ public class ConsumeDriver<T> implements IDriver {
     private ConsumerThread[] consumerThreads;
     private Channels<T> channels;
     private ReentrantLock lock;
+    private final boolean adaptive;
 
     public ConsumeDriver(String name,
                          Channels<T> channels, Class<? extends IConsumer<T>> consumerClass,
                          int num,
                          long consumeCycle,
                          Properties properties) {
-        this(channels, num);
+        this(name, channels, consumerClass, num, consumeCycle, properties, false);
+    }
+
+    /**
+     * @param adaptive true to make the consumer threads spin, yield and park when idle, and be woken up by the
+     *                 producers, rather than sleeping a whole consume cycle.
+     */
+    public ConsumeDriver(String name,
+                         Channels<T> channels, Class<? extends IConsumer<T>> consumerClass,
+                         int num,
+                         long consumeCycle,
+                         Properties properties,
+                         boolean adaptive) {
+        this(channels, num, adaptive);
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
                 "DataCarrier." + name + ".Consumer." + i + ".Thread", getNewConsumerInstance(consumerClass, properties),
-                consumeCycle
+                consumeCycle, adaptive
             );
             consumerThreads[i].setDaemon(true);
         }
     }
 
     public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle) {
-        this(channels, num);
+        this(name, channels, prototype, num, consumeCycle, false);
+    }
+
+    /**
+     * @param adaptive true to make the consumer threads spin, yield and park when idle, and be woken up by the
+     *                 producers, rather than sleeping a whole consume cycle.
+     */
+    public ConsumeDriver(String name,
+                         Channels<T> channels,
+                         IConsumer<T> prototype,
+                         int num,
+                         long consumeCycle,
+                         boolean adaptive) {
+        this(channels, num, adaptive);
         prototype.init(new Properties());
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
-                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle);
+                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle, adaptive);
             consumerThreads[i].setDaemon(true);
         }
 
     }
 
-    private ConsumeDriver(Channels<T> channels, int num) {
+    private ConsumeDriver(Channels<T> channels, int num, boolean adaptive) {
         running = false;
         this.channels = channels;
         consumerThreads = new ConsumerThread[num];
         lock = new ReentrantLock();
+        this.adaptive = adaptive;
     }
 
     private IConsumer<T> getNewConsumerInstance(Class<? extends IConsumer<T>> consumerClass, Properties properties) {
@@ -106,6 +134,16 @@ public class ConsumeDriver<T> implements IDriver {
         return running;
     }
 
+    @Override
+    public void onProduced(Channels channels) {
+        if (!adaptive) {
+            return;
+        }
+        for (ConsumerThread consumerThread : consumerThreads) {
+            consumerThread.wakeup();
+        }
+    }
+
     private void allocateBuffer2Thread() {
         int channelSize = this.channels.getChannelSize();
         /**
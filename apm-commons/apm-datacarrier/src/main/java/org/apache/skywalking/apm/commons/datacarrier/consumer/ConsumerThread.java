@@ -28,13 +28,22 @@ public class ConsumerThread<T> extends Thread {
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
     private long consumeCycle;
+    /**
+     * Not null means the adaptive mode, using spin, yield and park instead of sleeping a consume cycle.
+     */
+    private final AdaptiveBackoff backoff;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
+        this(threadName, consumer, consumeCycle, false);
+    }
+
+    ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle, boolean adaptive) {
         super(threadName);
         this.consumer = consumer;
         running = false;
         dataSources = new ArrayList<DataSource>(1);
         this.consumeCycle = consumeCycle;
+        this.backoff = adaptive ? new AdaptiveBackoff(this, consumeCycle) : null;
     }
 
     /**
@@ -50,7 +59,13 @@ public class ConsumerThread<T> extends Thread {
 
         final List<T> consumeList = new ArrayList<T>(1500);
         while (running) {
-            if (!consume(consumeList)) {
+            if (consume(consumeList)) {
+                if (backoff != null) {
+                    backoff.reset();
+                }
+            } else if (backoff != null) {
+                backoff.idle();
+            } else {
                 try {
                     Thread.sleep(consumeCycle);
                 } catch (InterruptedException e) {
@@ -86,6 +101,16 @@ public class ConsumerThread<T> extends Thread {
 
     void shutdown() {
         running = false;
+        wakeup();
+    }
+
+    /**
+     * Wake up the parked consumer in the adaptive mode, no-op otherwise.
+     */
+    void wakeup() {
+        if (backoff != null) {
+            backoff.wakeup();
+        }
     }
 
     /**
@@ -29,4 +29,11 @@ public interface IDriver {
     void close(Channels channels);
 
     void begin(Channels channels);
+
+    /**
+     * Notify the driver, after the data has been saved into the channels. The driver running in the adaptive mode
+     * wakes up the parked consumer.
+     */
+    default void onProduced(Channels channels) {
+    }
 }
@@ -33,11 +33,20 @@ public class MultipleChannelsConsumer extends Thread {
     @SuppressWarnings("NonAtomicVolatileUpdate")
     private volatile long size;
     private final long consumeCycle;
+    /**
+     * Not null means the adaptive mode, using spin, yield and park instead of sleeping a consume cycle.
+     */
+    private final AdaptiveBackoff backoff;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        this(threadName, consumeCycle, false);
+    }
+
+    public MultipleChannelsConsumer(String threadName, long consumeCycle, boolean adaptive) {
         super(threadName);
         this.consumeTargets = new ArrayList<Group>();
         this.consumeCycle = consumeCycle;
+        this.backoff = adaptive ? new AdaptiveBackoff(this, consumeCycle) : null;
     }
 
     @Override
@@ -52,7 +61,13 @@ public class MultipleChannelsConsumer extends Thread {
                 hasData = hasData || consume;
             }
 
-            if (!hasData) {
+            if (backoff != null) {
+                if (hasData) {
+                    backoff.reset();
+                } else {
+                    backoff.idle();
+                }
+            } else if (!hasData) {
                 try {
                     Thread.sleep(consumeCycle);
                 } catch (InterruptedException e) {
@@ -110,6 +125,16 @@ public class MultipleChannelsConsumer extends Thread {
 
     void shutdown() {
         running = false;
+        wakeup();
+    }
+
+    /**
+     * Wake up the parked consumer in the adaptive mode, no-op otherwise.
+     */
+    void wakeup() {
+        if (backoff != null) {
+            backoff.wakeup();
+        }
     }
 
     private static class Group {
@@ -18,9 +18,20 @@
 
 package org.apache.skywalking.apm.commons.datacarrier;
 
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -167,6 +178,97 @@ public class LinkedArrayBenchmark {
         }
     }
 
+    /**
+     * Buffer with IF_POSSIBLE strategy, ArrayBlockingQueueBuffer(only BLOCKING is supported) and RingBuffer.
+     */
+    @State(Scope.Thread)
+    public static class BatchBufferState {
+        @Param({
+            "BUFFER",
+            "ARRAY_BLOCKING_QUEUE",
+            "RING"
+        })
+        private String type;
+        private QueueBuffer<SampleData> buffer;
+        private final List<SampleData> consumeList = new ArrayList<SampleData>(1024);
+
+        @Setup(Level.Trial)
+        public void setup() {
+            buffer = createBuffer(type, 1024);
+        }
+    }
+
+    /**
+     * Produce a full buffer, then drain it by one obtain.
+     */
+    @Benchmark
+    public int testBufferSaveAndObtain1024(BatchBufferState state) {
+        SampleData data = new SampleData();
+        for (int i = 0; i < 1024; i++) {
+            state.buffer.save(data);
+        }
+        state.buffer.obtain(state.consumeList);
+        int size = state.consumeList.size();
+        state.consumeList.clear();
+        return size;
+    }
+
+    /**
+     * 4 producers and 1 consumer share one buffer. The ArrayBlockingQueueBuffer is not included, as its producers
+     * block forever once the consumer stops at the end of the iteration.
+     */
+    @State(Scope.Group)
+    public static class ContendedBufferState {
+        @Param({
+            "BUFFER",
+            "RING"
+        })
+        private String type;
+        private QueueBuffer<SampleData> buffer;
+        private final List<SampleData> consumeList = new ArrayList<SampleData>(10000);
+        private final SampleData data = new SampleData();
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            buffer = createBuffer(type, 10000);
+        }
+    }
+
+    @Benchmark
+    @Group("contendedBuffer")
+    @GroupThreads(4)
+    public boolean testContendedBufferProduce(ContendedBufferState state) {
+        return state.buffer.save(state.data);
+    }
+
+    @Benchmark
+    @Group("contendedBuffer")
+    @GroupThreads(1)
+    public int testContendedBufferConsume(ContendedBufferState state) {
+        state.buffer.obtain(state.consumeList);
+        int size = state.consumeList.size();
+        state.consumeList.clear();
+        return size;
+    }
+
+    private static QueueBuffer<SampleData> createBuffer(String type, int bufferSize) {
+        Channels<SampleData> channels;
+        switch (type) {
+            case "ARRAY_BLOCKING_QUEUE":
+                channels = new Channels<>(
+                    1, bufferSize, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.BLOCKING);
+                break;
+            case "RING":
+                channels = new Channels<>(
+                    1, bufferSize, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.IF_POSSIBLE, true);
+                break;
+            default:
+                channels = new Channels<>(
+                    1, bufferSize, new SimpleRollingPartitioner<SampleData>(), BufferStrategy.IF_POSSIBLE);
+        }
+        return channels.getBuffer(0);
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder().include(LinkedArrayBenchmark.class.getName())
                                           .addProfiler(GCProfiler.class)
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RingBufferTest {
+    @Test
+    public void testCapacity() {
+        Assert.assertEquals(128, new RingBuffer<Integer>(100, BufferStrategy.IF_POSSIBLE).getBufferSize());
+        Assert.assertEquals(128, new RingBuffer<Integer>(128, BufferStrategy.IF_POSSIBLE).getBufferSize());
+        Assert.assertEquals(1, new RingBuffer<Integer>(0, BufferStrategy.IF_POSSIBLE).getBufferSize());
+    }
+
+    @Test
+    public void testSaveAndObtainInOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(8, BufferStrategy.IF_POSSIBLE);
+        List<Integer> result = new ArrayList<>();
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 5; i++) {
+                Assert.assertTrue(buffer.save(round * 5 + i));
+            }
+            buffer.obtain(result);
+        }
+        Assert.assertEquals(25, result.size());
+        for (int i = 0; i < 25; i++) {
+            Assert.assertEquals(i, result.get(i).intValue());
+        }
+
+        result.clear();
+        buffer.obtain(result);
+        Assert.assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testIfPossibleWhenFull() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(8, BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 8; i++) {
+            Assert.assertTrue(buffer.save(i));
+        }
+        Assert.assertFalse(buffer.save(8));
+
+        List<Integer> result = new ArrayList<>();
+        buffer.obtain(result);
+        Assert.assertEquals(8, result.size());
+        Assert.assertTrue(buffer.save(8));
+    }
+
+    @Test
+    public void testBlockingWhenFull() throws InterruptedException {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(2, BufferStrategy.BLOCKING);
+        Assert.assertTrue(buffer.save(0));
+        Assert.assertTrue(buffer.save(1));
+
+        final CountDownLatch saved = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            buffer.save(2);
+            saved.countDown();
+        });
+        producer.start();
+        Thread.sleep(200);
+        Assert.assertEquals(1, saved.getCount());
+
+        List<Integer> result = new ArrayList<>();
+        buffer.obtain(result);
+        saved.await();
+        buffer.obtain(result);
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(2, result.get(2).intValue());
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final int producers = 8;
+        final int countPerProducer = 20000;
+        final RingBuffer<Integer> buffer = new RingBuffer<>(64, BufferStrategy.BLOCKING);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int base = p * countPerProducer;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < countPerProducer; i++) {
+                    buffer.save(base + i);
+                }
+            });
+            threads[p].start();
+        }
+
+        Set<Integer> consumed = new HashSet<>();
+        List<Integer> consumeList = new ArrayList<>();
+        while (consumed.size() < producers * countPerProducer) {
+            buffer.obtain(consumeList);
+            for (Integer value : consumeList) {
+                Assert.assertTrue("duplicated " + value, consumed.add(value));
+            }
+            consumeList.clear();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        buffer.obtain(consumeList);
+        Assert.assertTrue(consumeList.isEmpty());
+    }
+}
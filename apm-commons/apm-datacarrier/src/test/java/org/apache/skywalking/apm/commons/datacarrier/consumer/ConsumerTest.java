@@ -23,6 +23,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.FieldGetter;
 import org.apache.skywalking.apm.commons.datacarrier.SampleData;
@@ -99,6 +100,30 @@ public class ConsumerTest {
         Assert.assertTrue(IS_OCCUR_ERROR);
     }
 
+    @Test
+    public void testAdaptiveConsumerWakeup() throws InterruptedException {
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+        final LinkedBlockingQueue<SampleData> consumed = new LinkedBlockingQueue<SampleData>();
+        SampleConsumer2 consumer = new SampleConsumer2() {
+            @Override
+            public void consume(List<SampleData> data) {
+                consumed.addAll(data);
+            }
+        };
+        // The consume cycle is much longer than the test, only the wakeup from the producer could make it pass.
+        carrier.consume(consumer, 1, 60 * 1000L, true);
+
+        // Wait for the consumer to park.
+        Thread.sleep(500);
+        for (int round = 0; round < 3; round++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("data" + round)));
+            Assert.assertNotNull(consumed.poll(5, TimeUnit.SECONDS));
+            Thread.sleep(200);
+        }
+
+        carrier.shutdownConsumers();
+    }
+
     class SampleConsumer2 implements IConsumer<SampleData> {
         public int i = 1;
 
@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent.core.asyncprofiler;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import io.grpc.Channel;
 import io.grpc.stub.ClientCallStreamObserver;
 import io.grpc.stub.ClientResponseObserver;
@@ -29,6 +30,7 @@ import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.os.OSUtil;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelListener;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
@@ -39,18 +41,33 @@ import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfile
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerTaskGrpc;
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilingStatus;
 
+import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.AsyncProfiler.DATA_CHUNK_SIZE;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.GRPC_UPSTREAM_TIMEOUT;
 
+/**
+ * Upload the JFR dump file in chunks, after the backend accepts the content size in the meta data. The chunks are sent
+ * while the gRPC stream is ready, rather than being buffered in the stream all at once. The dump file is memory mapped,
+ * and the chunks wrap the mapped regions without copying, except on Windows, where a mapped file can't be deleted until
+ * it is unmapped by GC, so every chunk is read into a new array.
+ * <p>
+ * The mapping is unmapped explicitly once the call finishes, as every chunk has been copied by the gRPC framer in
+ * {@code onNext}. Otherwise, the deleted dump file keeps its disk blocks until GC unmaps it. If the JDK doesn't allow
+ * to unmap it, the mapping is left to GC.
+ */
 @DefaultImplementor
 public class AsyncProfilerDataSender implements BootService, GRPCChannelListener {
     private static final ILog LOGGER = LogManager.getLogger(AsyncProfilerDataSender.class);
+    private static final boolean MAP_DUMP_FILE = !OSUtil.getOsName().toLowerCase().startsWith("windows");
 
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
 
@@ -92,40 +109,72 @@ public class AsyncProfilerDataSender implements BootService, GRPCChannelListener
             return;
         }
 
-        try (FileInputStream fileInputStream = new FileInputStream(dumpFile)) {
-            long fileSize = Files.size(dumpFile.toPath());
-            int size = Math.toIntExact(fileSize);
+        try (FileChannel fileChannel = FileChannel.open(dumpFile.toPath(), StandardOpenOption.READ)) {
+            final int size = Math.toIntExact(fileChannel.size());
+            final ByteBuffer content = MAP_DUMP_FILE ? fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size) : null;
             final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<AsyncProfilerData> dataStreamObserver = asyncProfilerTaskStub.withDeadlineAfter(
+            AsyncProfilerTaskGrpc.AsyncProfilerTaskStub stub = asyncProfilerTaskStub.withDeadlineAfter(
                     GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-            ).collect(new ClientResponseObserver<AsyncProfilerData, AsyncProfilerCollectionResponse>() {
+            );
+            if (Config.AsyncProfiler.DATA_COMPRESSION) {
+                stub = stub.withCompression("gzip");
+            }
+            StreamObserver<AsyncProfilerData> dataStreamObserver = stub.collect(
+                    new ClientResponseObserver<AsyncProfilerData, AsyncProfilerCollectionResponse>() {
                 ClientCallStreamObserver<AsyncProfilerData> requestStream;
-                final byte[] buf = new byte[DATA_CHUNK_SIZE];
+                // the callbacks of a call are serialized, so the sending states are not shared among threads
+                boolean accepted;
+                boolean completed;
+                int position;
 
                 @Override
                 public void beforeStart(ClientCallStreamObserver<AsyncProfilerData> requestStream) {
                     this.requestStream = requestStream;
+                    requestStream.setOnReadyHandler(this::sendChunks);
                 }
 
                 @Override
                 public void onNext(AsyncProfilerCollectionResponse value) {
                     if (AsyncProfilingStatus.TERMINATED_BY_OVERSIZE.equals(value.getType())) {
                         LOGGER.warn("JFR is too large to be received by the oap server");
+                        complete();
                     } else {
-                        try {
-                            int bytesRead;
-                            while ((bytesRead = fileInputStream.read(buf)) != -1) {
-                                AsyncProfilerData asyncProfilerData = AsyncProfilerData.newBuilder()
-                                        .setContent(ByteString.copyFrom(buf, 0, bytesRead))
-                                        .build();
-                                requestStream.onNext(asyncProfilerData);
-                            }
-                        } catch (IOException e) {
-                            LOGGER.error("Failed to read JFR file and failed to upload to oap", e);
+                        accepted = true;
+                        sendChunks();
+                    }
+                }
+
+                /**
+                 * Send the chunks until the stream isn't ready, and continue when the stream is ready again.
+                 */
+                private void sendChunks() {
+                    if (!accepted || completed) {
+                        return;
+                    }
+                    try {
+                        while (position < size && requestStream.isReady()) {
+                            final int length = Math.min(DATA_CHUNK_SIZE, size - position);
+                            AsyncProfilerData asyncProfilerData = AsyncProfilerData.newBuilder()
+                                    .setContent(readChunk(fileChannel, content, position, length))
+                                    .build();
+                            requestStream.onNext(asyncProfilerData);
+                            position += length;
                         }
+                    } catch (IOException e) {
+                        LOGGER.error("Failed to read JFR file and failed to upload to oap", e);
+                        complete();
+                        return;
+                    }
+                    if (position >= size) {
+                        complete();
                     }
+                }
 
-                    requestStream.onCompleted();
+                private void complete() {
+                    if (!completed) {
+                        completed = true;
+                        requestStream.onCompleted();
+                    }
                 }
 
                 @Override
@@ -151,7 +200,59 @@ public class AsyncProfilerDataSender implements BootService, GRPCChannelListener
             dataStreamObserver.onNext(asyncProfilerData);
 
             status.wait4Finish();
+            if (content != null) {
+                // no chunk is read after the call finishes, as the stream is never ready again.
+                unmap(content);
+            }
+        }
+    }
+
+    /**
+     * Release the mapped file through its cleaner, by {@code Unsafe#invokeCleaner} since JDK 9, or by {@code
+     * DirectBuffer#cleaner} on JDK 8. The buffer and its slices must not be accessed anymore.
+     */
+    private static void unmap(ByteBuffer mappedBuffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (NoSuchMethodException e) {
+                Method cleanerMethod = mappedBuffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(mappedBuffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+                return;
+            }
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), mappedBuffer);
+        } catch (Throwable t) {
+            LOGGER.debug("The JFR file can't be unmapped, leave it to GC. {}", t.getMessage());
+        }
+    }
+
+    /**
+     * @param content the mapped dump file, or null to read the chunk from the file channel
+     * @return the chunk wrapping the mapped region or the read array, which are never changed after
+     */
+    static ByteString readChunk(FileChannel fileChannel, ByteBuffer content, int position,
+                                int length) throws IOException {
+        if (content != null) {
+            ByteBuffer chunk = content.duplicate();
+            chunk.position(position);
+            chunk.limit(position + length);
+            return UnsafeByteOperations.unsafeWrap(chunk.slice());
+        }
+        ByteBuffer chunk = ByteBuffer.allocate(length);
+        while (chunk.hasRemaining()) {
+            if (fileChannel.read(chunk, position + chunk.position()) < 0) {
+                throw new EOFException("The JFR file is truncated at " + (position + chunk.position()));
+            }
         }
+        return UnsafeByteOperations.unsafeWrap(chunk.array());
     }
 
     public void sendError(AsyncProfilerTask task, String errorMessage) {
@@ -21,9 +21,9 @@ package org.apache.skywalking.apm.agent.core.asyncprofiler;
 import io.grpc.Channel;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.commands.CommandService;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -37,7 +37,6 @@ import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfile
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerTaskGrpc;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -106,9 +105,8 @@ public class AsyncProfilerTaskChannelService implements BootService, Runnable, G
     public void boot() throws Throwable {
 
         if (Config.AsyncProfiler.ACTIVE) {
-            getTaskFuture = Executors.newSingleThreadScheduledExecutor(
-                    new DefaultNamedThreadFactory("AsyncProfilerGetTaskService")
-            ).scheduleWithFixedDelay(
+            getTaskFuture = AgentScheduler.INSTANCE.scheduleWithFixedDelay(
+                    "AsyncProfilerGetTaskService",
                     new RunnableWithExceptionProtection(
                             this,
                             t -> LOGGER.error("Query async profiler task list failure.", t)
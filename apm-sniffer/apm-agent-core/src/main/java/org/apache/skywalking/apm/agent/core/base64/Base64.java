@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent.core.base64;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * A wrapper of {@link java.util.Base64} with convenient conversion methods between {@code byte[]} and {@code String}
@@ -26,6 +27,15 @@ import java.nio.charset.StandardCharsets;
 public final class Base64 {
     private static final java.util.Base64.Decoder DECODER = java.util.Base64.getDecoder();
     private static final java.util.Base64.Encoder ENCODER = java.util.Base64.getEncoder();
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private static final int[] ALPHABET_INDEX = new int[128];
+
+    static {
+        Arrays.fill(ALPHABET_INDEX, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            ALPHABET_INDEX[ALPHABET[i]] = i;
+        }
+    }
 
     private Base64() {
     }
@@ -38,4 +48,95 @@ public final class Base64 {
         return ENCODER.encodeToString(text.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * @return the length of the Base64 encoding of the given text, or -1 if the text is not pure ASCII, which could
+     * not be encoded through {@link #encode(String, char[], int)}.
+     */
+    public static int encodedLength(String text) {
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) >= 0x80) {
+                return -1;
+            }
+        }
+        return (length + 2) / 3 * 4;
+    }
+
+    /**
+     * Encode the ASCII text into the given buffer directly, without the intermediate {@code byte[]} and {@code String}.
+     * The caller should make sure the text is pure ASCII and the buffer is large enough, see {@link
+     * #encodedLength(String)}.
+     *
+     * @return the offset in the buffer after the encoded text.
+     */
+    public static int encode(String text, char[] out, int offset) {
+        final int length = text.length();
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = text.charAt(i) << 16 | text.charAt(i + 1) << 8 | text.charAt(i + 2);
+            out[offset++] = ALPHABET[bits >>> 18 & 0x3f];
+            out[offset++] = ALPHABET[bits >>> 12 & 0x3f];
+            out[offset++] = ALPHABET[bits >>> 6 & 0x3f];
+            out[offset++] = ALPHABET[bits & 0x3f];
+        }
+        int remaining = length - i;
+        if (remaining > 0) {
+            int bits = text.charAt(i) << 16 | (remaining == 2 ? text.charAt(i + 1) << 8 : 0);
+            out[offset++] = ALPHABET[bits >>> 18 & 0x3f];
+            out[offset++] = ALPHABET[bits >>> 12 & 0x3f];
+            out[offset++] = remaining == 2 ? ALPHABET[bits >>> 6 & 0x3f] : '=';
+            out[offset++] = '=';
+        }
+        return offset;
+    }
+
+    /**
+     * Decode the range [from, to) of the given text, same as {@code decode2UTFString(in.substring(from, to))} but
+     * without copying the range.
+     *
+     * @throws IllegalArgumentException if the range is not a valid Base64 encoding.
+     */
+    public static String decode2UTFString(String in, int from, int to) {
+        int end = to;
+        if (end > from && in.charAt(end - 1) == '=') {
+            end--;
+            if (end > from && in.charAt(end - 1) == '=') {
+                end--;
+            }
+            if ((to - from) % 4 != 0) {
+                throw new IllegalArgumentException("Illegal Base64 padding");
+            }
+        }
+        final int chars = end - from;
+        if (chars % 4 == 1) {
+            throw new IllegalArgumentException("Illegal Base64 length " + (to - from));
+        }
+        byte[] bytes = new byte[chars / 4 * 3 + (chars % 4 == 0 ? 0 : chars % 4 - 1)];
+        int bits = 0;
+        int collected = 0;
+        int position = 0;
+        for (int i = from; i < end; i++) {
+            char c = in.charAt(i);
+            int value = c < 128 ? ALPHABET_INDEX[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Illegal Base64 character " + Integer.toString(c, 16));
+            }
+            bits = bits << 6 | value;
+            if (++collected == 4) {
+                bytes[position++] = (byte) (bits >> 16);
+                bytes[position++] = (byte) (bits >> 8);
+                bytes[position++] = (byte) bits;
+                bits = 0;
+                collected = 0;
+            }
+        }
+        if (collected == 3) {
+            bytes[position++] = (byte) (bits >> 10);
+            bytes[position] = (byte) (bits >> 2);
+        } else if (collected == 2) {
+            bytes[position] = (byte) (bits >> 4);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
 }
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.boot;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * The <code>AgentScheduler</code> is the agent wide scheduler of the periodic and delayed tasks of the {@link
+ * BootService}s, which used to own a single thread scheduled executor each.
+ * <p>
+ * A single timer thread only keeps the time, the due tasks are run by the worker threads, which are created on demand
+ * and released after idle for a while, or by a new virtual thread per run if {@link
+ * Config.Agent#SCHEDULER_VIRTUAL_THREADS} is true on JDK 21+. So a slow task, e.g. a blocking gRPC call, never delays
+ * the others. A periodic task never runs concurrently with itself, the runs due while its previous run is still going
+ * on are skipped, and an exception thrown by it is logged rather than suppressing its subsequent runs.
+ */
+public enum AgentScheduler {
+    INSTANCE;
+
+    private static final ILog LOGGER = LogManager.getLogger(AgentScheduler.class);
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 60;
+
+    private ScheduledThreadPoolExecutor timer;
+    private ExecutorService workers;
+
+    /**
+     * Run the task periodically at the fixed rate, like {@link java.util.concurrent.ScheduledExecutorService#scheduleAtFixedRate(Runnable,
+     * long, long, TimeUnit)}.
+     *
+     * @param name the name of the task, appended to the name of the worker thread while it is running.
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(String name, Runnable task, long initialDelay, long period,
+                                                  TimeUnit unit) {
+        ScheduledTask scheduledTask = new ScheduledTask(name, task, 0);
+        synchronized (this) {
+            start();
+            scheduledTask.bind(timer, workers);
+            scheduledTask.tick = timer.scheduleAtFixedRate(scheduledTask, initialDelay, period, unit);
+        }
+        return scheduledTask;
+    }
+
+    /**
+     * Run the task periodically with the fixed delay between the end of a run and the start of the next, like {@link
+     * java.util.concurrent.ScheduledExecutorService#scheduleWithFixedDelay(Runnable, long, long, TimeUnit)}.
+     *
+     * @param name the name of the task, appended to the name of the worker thread while it is running.
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(String name, Runnable task, long initialDelay, long delay,
+                                                     TimeUnit unit) {
+        ScheduledTask scheduledTask = new ScheduledTask(name, task, Math.max(1, unit.toNanos(delay)));
+        synchronized (this) {
+            start();
+            scheduledTask.bind(timer, workers);
+            scheduledTask.tick = timer.schedule(scheduledTask, initialDelay, unit);
+        }
+        return scheduledTask;
+    }
+
+    /**
+     * Run the task once after the delay.
+     *
+     * @param name the name of the task, appended to the name of the worker thread while it is running.
+     */
+    public ScheduledFuture<?> schedule(String name, Runnable task, long delay, TimeUnit unit) {
+        ScheduledTask scheduledTask = new ScheduledTask(name, task, -1);
+        synchronized (this) {
+            start();
+            scheduledTask.bind(timer, workers);
+            scheduledTask.tick = timer.schedule(scheduledTask, delay, unit);
+        }
+        return scheduledTask;
+    }
+
+    /**
+     * Cancel all the scheduled tasks and interrupt the running ones. The scheduler starts again at the next task
+     * scheduled.
+     */
+    public synchronized void shutdown() {
+        if (timer != null) {
+            timer.shutdownNow();
+            workers.shutdownNow();
+            timer = null;
+            workers = null;
+        }
+    }
+
+    private void start() {
+        if (timer != null) {
+            return;
+        }
+        timer = new ScheduledThreadPoolExecutor(1, new DefaultNamedThreadFactory("AgentScheduler"));
+        timer.setRemoveOnCancelPolicy(true);
+        if (Config.Agent.SCHEDULER_VIRTUAL_THREADS) {
+            workers = newVirtualThreadPerTaskExecutor();
+        }
+        if (workers == null) {
+            workers = new ThreadPoolExecutor(
+                0, Integer.MAX_VALUE, WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new DefaultNamedThreadFactory("AgentScheduler-worker")
+            );
+        }
+    }
+
+    /**
+     * Create the executor through reflection, as the agent is compiled for JDK 8.
+     *
+     * @return null if the virtual threads are not supported.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> virtualBuilderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = virtualBuilderClass.getMethod("name", String.class, long.class)
+                                         .invoke(builder, "SkywalkingAgent-AgentScheduler-virtual-", 0L);
+            ThreadFactory threadFactory = (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                                                               .getMethod("factory")
+                                                               .invoke(builder);
+            Method newExecutor = Executors.class.getMethod(
+                "newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newExecutor.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("The virtual threads are not supported by JDK {}, the scheduled tasks run on platform threads.",
+                        System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+    /**
+     * The task scheduled in the timer. Every time it is due in the timer, it is dispatched to the workers, unless its
+     * previous run is still going on.
+     */
+    private static class ScheduledTask implements ScheduledFuture<Object>, Runnable {
+        private final String name;
+        private final Runnable task;
+        /**
+         * Positive for the delay in nanoseconds of a task with fixed delay, zero for a task at fixed rate, and negative
+         * for a one-shot task.
+         */
+        private final long delayNanos;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile ScheduledThreadPoolExecutor timer;
+        private volatile ExecutorService workers;
+        private volatile ScheduledFuture<?> tick;
+        private volatile Future<?> execution;
+
+        private ScheduledTask(String name, Runnable task, long delayNanos) {
+            this.name = name;
+            this.task = task;
+            this.delayNanos = delayNanos;
+        }
+
+        private void bind(ScheduledThreadPoolExecutor timer, ExecutorService workers) {
+            this.timer = timer;
+            this.workers = workers;
+        }
+
+        /**
+         * Dispatch the task to the workers, runs in the timer thread.
+         */
+        @Override
+        public void run() {
+            if (result.isDone() || !running.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                execution = workers.submit(this::execute);
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+            }
+        }
+
+        private void execute() {
+            final Thread thread = Thread.currentThread();
+            final String threadName = thread.getName();
+            thread.setName(threadName + "-" + name);
+            try {
+                task.run();
+                if (delayNanos < 0) {
+                    result.complete(null);
+                }
+            } catch (Throwable t) {
+                if (delayNanos < 0) {
+                    result.completeExceptionally(t);
+                } else {
+                    LOGGER.error(t, "The scheduled task {} failure.", name);
+                }
+            } finally {
+                thread.setName(threadName);
+                running.set(false);
+                if (delayNanos > 0 && !result.isDone()) {
+                    try {
+                        tick = timer.schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+                    } catch (RejectedExecutionException ignored) {
+                        // the scheduler is shut down
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = result.cancel(false);
+            ScheduledFuture<?> tick = this.tick;
+            if (tick != null) {
+                tick.cancel(false);
+            }
+            Future<?> execution = this.execution;
+            if (execution != null) {
+                execution.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return result.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return result.isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            return result.get();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return result.get(timeout, unit);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            ScheduledFuture<?> tick = this.tick;
+            return tick == null ? 0 : tick.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -57,6 +57,7 @@ public enum ServiceManager {
                 LOGGER.error(e, "ServiceManager try to shutdown [{}] fail.", service.getClass().getName());
             }
         });
+        AgentScheduler.INSTANCE.shutdown();
     }
 
     private Map<Class, BootService> loadAllServices() {
@@ -20,6 +20,7 @@ package org.apache.skywalking.apm.agent.core.conf;
 
 import java.util.Arrays;
 import java.util.List;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.core.LogLevel;
 import org.apache.skywalking.apm.agent.core.logging.core.LogOutput;
@@ -86,6 +87,39 @@ public class Config {
          */
         public static int SAMPLE_N_PER_3_SECS = -1;
 
+        /**
+         * If true, the {@code #SAMPLE_N_PER_3_SECS} traces are sampled evenly in the 3 seconds, through a token bucket,
+         * rather than sampling the first N traces of every 3 seconds.
+         */
+        public static boolean SAMPLE_SMOOTHLY = false;
+
+        /**
+         * If true, every trace is traced, and the sampling is decided after the tracing context finishes. The trace is
+         * kept if any of its segments is slower than {@code #TAIL_SAMPLING_LATENCY_THRESHOLD}, or includes an error
+         * span, otherwise it is sampled by {@code #SAMPLE_N_PER_3_SECS}. The segment propagated from another process
+         * is decided in the same way, unless {@code #TAIL_SAMPLING_KEEP_PROPAGATED} is true.
+         */
+        public static boolean TAIL_SAMPLING = false;
+
+        /**
+         * The latency(ms) of a segment, from its creation to its finish, to keep the trace through the tail sampling.
+         */
+        public static long TAIL_SAMPLING_LATENCY_THRESHOLD = 1000;
+
+        /**
+         * The max size(bytes) of the segments held by the tail sampling, which are continued from another thread and
+         * finish before the segment they refer to. The size is the serialized size of the segments.
+         */
+        public static long TAIL_SAMPLING_BUFFER_SIZE = 4 * 1024 * 1024;
+
+        /**
+         * If true, the tail sampling keeps every segment propagated from another process, so a trace kept by the
+         * upstream service isn't broken here. But every service receiving its requests from the other traced
+         * services keeps all its traces then, and the upstream service may drop its half too, if it samples by the
+         * tail as well.
+         */
+        public static boolean TAIL_SAMPLING_KEEP_PROPAGATED = false;
+
         /**
          * If the operation name of the first span is included in this set, this segment should be ignored. Multiple
          * values should be separated by `,`.
@@ -131,6 +165,19 @@ public class Config {
          */
         public static int CAUSE_EXCEPTION_DEPTH = 5;
 
+        /**
+         * Max count of the exception stacks cached after they are converted to the logs, so the same stack thrown
+         * again isn't converted again. 0 or negative disables the cache.
+         */
+        public static int STACK_TRACE_CACHE_SIZE = 256;
+
+        /**
+         * If positive, the exception logged in full in the last N seconds is logged as its `stack.fingerprint` and
+         * `stack.occurrences` since it is logged in full, rather than the full stack. 0 or negative means the stack
+         * is always logged in full.
+         */
+        public static int STACK_TRACE_DEDUPLICATE_INTERVAL = 0;
+
         /**
          * Force reconnection period of grpc, based on grpc_channel_check_interval. If count of check grpc channel
          * status more than this number. The channel check will call channel.getState(true) to requestConnection.
@@ -179,6 +226,12 @@ public class Config {
          * Enable the agent kernel services and instrumentation.
          */
         public static boolean ENABLE = true;
+
+        /**
+         * Run the tasks scheduled by the agent services, e.g. the reporting and the polling of the backend, on virtual
+         * threads rather than the pooled platform threads of the {@link AgentScheduler}. Only works on JDK 21+.
+         */
+        public static boolean SCHEDULER_VIRTUAL_THREADS = false;
     }
 
     public static class OsInfo {
@@ -222,6 +275,12 @@ public class Config {
          * If true, skywalking agent will enable periodically resolving DNS to update receiver service addresses.
          */
         public static boolean IS_RESOLVE_DNS_PERIODICALLY = false;
+        /**
+         * The max age(seconds) of the long-lived trace segment stream. If it is positive, the trace segments are sent
+         * through one stream across batches, which is rotated after this period or on error. Otherwise, a new stream
+         * is created for every batch, and the consumer waits for the response of it.
+         */
+        public static int SEGMENT_STREAM_MAX_AGE = 0;
     }
 
     public static class Profile {
@@ -255,6 +314,13 @@ public class Config {
          * Snapshot transport to backend buffer size
          */
         public static int SNAPSHOT_TRANSPORT_BUFFER_SIZE = 500;
+
+        /**
+         * Max count of the distinct stack frames cached by a profile task, the code signature of a cached frame is
+         * built once, rather than once per thread dump. The least recently dumped frame is evicted once it is full. A value
+         * less than {@link #DUMP_MAX_STACK_DEPTH} is raised to it.
+         */
+        public static int FRAME_DICTIONARY_SIZE = 8192;
     }
 
     public static class AsyncProfiler {
@@ -282,6 +348,11 @@ public class Config {
          * The size of the chunk when uploading jfr
          */
         public static final int DATA_CHUNK_SIZE = 1024 * 1024;
+
+        /**
+         * If true, the jfr is uploaded with the gzip compression of gRPC.
+         */
+        public static boolean DATA_COMPRESSION = false;
     }
 
     public static class Meter {
@@ -299,6 +370,12 @@ public class Config {
          * Max size of the meter count, using {@link org.apache.skywalking.apm.agent.core.meter.MeterId} as identity
          */
         public static Integer MAX_METER_SIZE = 500;
+
+        /**
+         * The max number of the reports in a row to skip a meter, whose value didn't change since the last report.
+         * Zero means reporting all meters every time.
+         */
+        public static int MAX_SKIPPED_REPORTS = 0;
     }
 
     public static class Jvm {
@@ -310,6 +387,12 @@ public class Config {
          * The period in seconds of JVM metrics collection.
          */
         public static int METRICS_COLLECT_PERIOD = 1;
+        /**
+         * The max number of threads whose states are read at each JVM metrics collection. If there are more live
+         * threads, the sampled threads rotate among them across collections, and the counts of the thread states are
+         * extrapolated to all live threads. Not positive means reading the states of all threads.
+         */
+        public static int THREAD_STATE_SAMPLE_SIZE = 0;
     }
 
     public static class Log {
@@ -351,6 +434,11 @@ public class Config {
          */
         public static int MAX_HISTORY_FILES = -1;
 
+        /**
+         * Compress the history log files into gzip files in background, after the rollover happened.
+         */
+        public static boolean COMPRESS_HISTORY_FILES = false;
+
         /**
          * The log level. Default is debug.
          */
@@ -408,6 +496,28 @@ public class Config {
          * Mount the folders of the plugins. The folder path is relative to agent.jar.
          */
         public static List<String> MOUNT = Arrays.asList("plugins", "activations");
+
+        /**
+         * The path of the class cache file, relative to agent.jar if not absolute. The plugin jar index and the plugin
+         * classes loaded at the startup are saved in the file, the next startup reads them rather than scanning the
+         * plugin jars. Empty means off, by default.
+         */
+        public static String CLASS_CACHE_PATH = "";
+
+        /**
+         * The parallelism of loading the plugins at the startup. If bigger than 1, the plugin definition files are read,
+         * and the plugin classes are loaded and instantiated on a fork-join pool of this size. Otherwise, they are
+         * loaded one by one in the premain thread, by default.
+         */
+        public static int BOOTSTRAP_PARALLELISM = 1;
+
+        /**
+         * The path of the transformation cache file, relative to agent.jar if not absolute. The classes which are not
+         * matched by any plugin are saved in the file, by their names and class file digests, the next startup skips
+         * matching them. The cache is dropped once the agent jars, the plugin jars or the plugin settings change. Only
+         * enable it when the application is the same across restarts. Empty means off, by default.
+         */
+        public static String TRANSFORMATION_CACHE_PATH = "";
     }
 
     public static class Correlation {
@@ -29,6 +29,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.Enumeration;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
@@ -192,6 +194,22 @@ public class SnifferConfigInitializer {
         return IS_INIT_COMPLETED;
     }
 
+    /**
+     * @param prefix of the setting keys, such as `plugin.`
+     * @return the settings of which key starts with the prefix, sorted by the keys.
+     */
+    public static SortedMap<String, String> getSettings(String prefix) {
+        SortedMap<String, String> settings = new TreeMap<>();
+        if (AGENT_SETTINGS != null) {
+            for (String key : AGENT_SETTINGS.stringPropertyNames()) {
+                if (key.startsWith(prefix)) {
+                    settings.put(key, AGENT_SETTINGS.getProperty(key));
+                }
+            }
+        }
+        return settings;
+    }
+
     /**
      * Override the config by system properties. The property key must start with `skywalking`, the result should be as
      * same as in `agent.config`
@@ -113,6 +113,19 @@ public class ContextCarrier implements Serializable {
      */
     String serialize(HeaderVersion version) {
         if (this.isValid(version)) {
+            String header = SW8HeaderCodec.encode(
+                this.getTraceId(),
+                this.getTraceSegmentId(),
+                this.getSpanId(),
+                this.getParentService(),
+                this.getParentServiceInstance(),
+                this.getParentEndpoint(),
+                this.getAddressUsedAtClient()
+            );
+            if (header != null) {
+                return header;
+            }
+            // Some parts are not pure ASCII.
             return StringUtil.join(
                 '-',
                 "1",
@@ -138,21 +151,7 @@ public class ContextCarrier implements Serializable {
             return this;
         }
         if (HeaderVersion.v3.equals(version)) {
-            String[] parts = text.split("-", 8);
-            if (parts.length == 8) {
-                try {
-                    // parts[0] is sample flag, always trace if header exists.
-                    this.traceId = Base64.decode2UTFString(parts[1]);
-                    this.traceSegmentId = Base64.decode2UTFString(parts[2]);
-                    this.spanId = Integer.parseInt(parts[3]);
-                    this.parentService = Base64.decode2UTFString(parts[4]);
-                    this.parentServiceInstance = Base64.decode2UTFString(parts[5]);
-                    this.parentEndpoint = Base64.decode2UTFString(parts[6]);
-                    this.addressUsedAtClient = Base64.decode2UTFString(parts[7]);
-                } catch (IllegalArgumentException ignored) {
-
-                }
-            }
+            SW8HeaderCodec.decode(text, this);
         }
         return this;
     }
@@ -24,7 +24,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import org.apache.skywalking.apm.agent.core.base64.Base64;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.tag.StringTag;
@@ -35,9 +35,22 @@ import org.apache.skywalking.apm.util.StringUtil;
  * Correlation context, use to propagation user custom data.
  */
 public class CorrelationContext {
+    private static final AtomicIntegerFieldUpdater<CorrelationContext> VERSION_UPDATER =
+        AtomicIntegerFieldUpdater.newUpdater(CorrelationContext.class, "version");
 
     private final Map<String, String> data;
 
+    /**
+     * Increased on every change of {@link #data}, to tell whether the {@link #serialized} header is still up to date.
+     */
+    private volatile int version;
+
+    /**
+     * The header serialized from {@link #data}. The same correlation data is usually propagated by every exit span of
+     * the trace, so the header is only encoded again after the data changed.
+     */
+    private volatile Serialized serialized;
+
     private static final List<String> AUTO_TAG_KEYS;
 
     static {
@@ -67,7 +80,11 @@ public class CorrelationContext {
 
         // remove and return previous value when value is empty
         if (StringUtil.isEmpty(value)) {
-            return Optional.ofNullable(data.remove(key));
+            final String previousValue = data.remove(key);
+            if (previousValue != null) {
+                modified();
+            }
+            return Optional.ofNullable(previousValue);
         }
 
         // check value length
@@ -78,6 +95,9 @@ public class CorrelationContext {
         // already contain key
         if (data.containsKey(key)) {
             final String previousValue = data.put(key, value);
+            if (!value.equals(previousValue)) {
+                modified();
+            }
             return Optional.of(previousValue);
         }
 
@@ -90,6 +110,7 @@ public class CorrelationContext {
         }
         // setting
         data.put(key, value);
+        modified();
         return Optional.empty();
     }
 
@@ -115,38 +136,91 @@ public class CorrelationContext {
             return "";
         }
 
-        return data.entrySet().stream()
-                   .map(entry -> Base64.encode(entry.getKey()) + ":" + Base64.encode(entry.getValue()))
-                   .collect(Collectors.joining(","));
+        final int currentVersion = version;
+        final Serialized cached = serialized;
+        if (cached != null && cached.version == currentVersion) {
+            return cached.value;
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(Base64.encode(entry.getKey())).append(':').append(Base64.encode(entry.getValue()));
+        }
+        final String value = builder.toString();
+        serialized = new Serialized(currentVersion, value);
+        return value;
     }
 
     /**
-     * Deserialize data from {@link String}
+     * Deserialize data from {@link String}. The elements are located by index, and accepted by the same rules as
+     * splitting the value by ',' and then ':', which drops the trailing empty parts.
      */
     void deserialize(String value) {
         if (StringUtil.isEmpty(value)) {
             return;
         }
 
-        for (String perData : value.split(",")) {
+        final int length = value.length();
+        int start = 0;
+        while (start <= length) {
             // Only data with limited count of elements can be added
             if (data.size() >= Config.Correlation.ELEMENT_MAX_NUMBER) {
                 break;
             }
-            final String[] parts = perData.split(":");
-            if (parts.length != 2) {
-                continue;
+            int end = value.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            final int keyEnd = value.indexOf(':', start);
+            if (keyEnd >= 0 && keyEnd < end) {
+                int valueEnd = value.indexOf(':', keyEnd + 1);
+                if (valueEnd < 0 || valueEnd > end) {
+                    valueEnd = end;
+                }
+                if (valueEnd > keyEnd + 1 && isAll(value, ':', valueEnd, end)) {
+                    data.put(
+                        Base64.decode2UTFString(value, start, keyEnd),
+                        Base64.decode2UTFString(value, keyEnd + 1, valueEnd)
+                    );
+                    modified();
+                }
             }
-            data.put(Base64.decode2UTFString(parts[0]), Base64.decode2UTFString(parts[1]));
+            start = end + 1;
         }
     }
 
+    private static boolean isAll(String value, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (value.charAt(i) != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Prepare for the cross-process propagation. Inject the {@link #data} into {@link
      * ContextCarrier#getCorrelationContext()}
      */
     void inject(ContextCarrier carrier) {
-        carrier.getCorrelationContext().data.putAll(this.data);
+        final CorrelationContext target = carrier.getCorrelationContext();
+        if (!target.data.isEmpty() || this.data.isEmpty()) {
+            target.data.putAll(this.data);
+            target.modified();
+            return;
+        }
+
+        // The carrier holds the same data as this context, share the serialized header rather than encoding it again.
+        final int currentVersion = this.version;
+        final String value = this.serialize();
+        target.data.putAll(this.data);
+        target.modified();
+        if (currentVersion == this.version) {
+            target.serialized = new Serialized(target.version, value);
+        }
     }
 
     /**
@@ -161,6 +235,7 @@ public class CorrelationContext {
             }
 
             this.data.put(entry.getKey(), entry.getValue());
+            modified();
         }
     }
 
@@ -190,6 +265,11 @@ public class CorrelationContext {
      */
     void continued(ContextSnapshot snapshot) {
         this.data.putAll(snapshot.getCorrelationContext().data);
+        modified();
+    }
+
+    private void modified() {
+        VERSION_UPDATER.incrementAndGet(this);
     }
 
     @Override
@@ -206,4 +286,14 @@ public class CorrelationContext {
     public int hashCode() {
         return Objects.hash(data);
     }
+
+    private static final class Serialized {
+        private final int version;
+        private final String value;
+
+        private Serialized(int version, String value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
 }
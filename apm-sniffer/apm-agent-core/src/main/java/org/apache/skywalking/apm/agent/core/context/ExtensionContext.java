@@ -42,6 +42,11 @@ public class ExtensionContext {
      * The default value of extendable fields.
      */
     private static final String PLACEHOLDER = " ";
+    /**
+     * The serialized values without the sending timestamp, which are the most common ones.
+     */
+    private static final String SKIP_ANALYSIS_WITHOUT_TIMESTAMP = "1" + SEPARATOR + PLACEHOLDER;
+    private static final String NOT_SKIP_ANALYSIS_WITHOUT_TIMESTAMP = "0" + SEPARATOR + PLACEHOLDER;
     /**
      * Tracing Mode. If true means represents all spans generated in this context should skip analysis.
      */
@@ -60,10 +65,10 @@ public class ExtensionContext {
      * @return the serialization string.
      */
     String serialize() {
-        String res = skipAnalysis ? "1" : "0";
-        res += SEPARATOR;
-        res += Objects.isNull(sendingTimestamp) ? PLACEHOLDER : sendingTimestamp;
-        return res;
+        if (Objects.isNull(sendingTimestamp)) {
+            return skipAnalysis ? SKIP_ANALYSIS_WITHOUT_TIMESTAMP : NOT_SKIP_ANALYSIS_WITHOUT_TIMESTAMP;
+        }
+        return (skipAnalysis ? "1" : "0") + SEPARATOR + sendingTimestamp;
     }
 
     /**
@@ -73,25 +78,39 @@ public class ExtensionContext {
         if (StringUtil.isEmpty(value)) {
             return;
         }
-        String[] extensionParts = value.split(SEPARATOR);
-        String extensionPart;
         // All parts of the extension header are optional.
         // only try to read it when it exist.
-        if (extensionParts.length > 0) {
-            extensionPart = extensionParts[0];
-            this.skipAnalysis = Objects.equals(extensionPart, "1");
+        final int firstEnd = value.indexOf(SEPARATOR);
+        if (firstEnd < 0) {
+            this.skipAnalysis = "1".equals(value);
+            return;
         }
+        this.skipAnalysis = firstEnd == 1 && value.charAt(0) == '1';
 
-        if (extensionParts.length > 1) {
-            extensionPart = extensionParts[1];
-            if (StringUtil.isNotBlank(extensionPart)) {
-                try {
-                    this.sendingTimestamp = Long.parseLong(extensionPart);
-                } catch (NumberFormatException e) {
-                    LOGGER.error(e, "the downstream sending timestamp is illegal:[{}]", extensionPart);
-                }
+        int secondEnd = value.indexOf(SEPARATOR, firstEnd + 1);
+        if (secondEnd < 0) {
+            secondEnd = value.length();
+        }
+        if (!isBlank(value, firstEnd + 1, secondEnd)) {
+            final String extensionPart = value.substring(firstEnd + 1, secondEnd);
+            try {
+                this.sendingTimestamp = Long.parseLong(extensionPart);
+            } catch (NumberFormatException e) {
+                LOGGER.error(e, "the downstream sending timestamp is illegal:[{}]", extensionPart);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link StringUtil#isBlank(String)} on the range [from, to).
+     */
+    private static boolean isBlank(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
             }
         }
+        return true;
     }
 
     /**
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+
+/**
+ * The codec of the sw8 header value, {@code 1-TRACEID-SEGMENTID-SPANID-SERVICE-INSTANCE-ENDPOINT-ADDRESS}, where all
+ * the parts except the sample flag and the span id are Base64 encoded.
+ * <p>
+ * The serialization computes the exact length first, and encodes all parts into one {@code char[]}, so the header value
+ * is the only {@code String} created. The deserialization scans the separators by index and decodes each range in
+ * place, rather than splitting the header into sub strings.
+ * <p>
+ * The parent service and instance of the outgoing headers are always the service and instance of this agent, so their
+ * encodings are cached, only for the outgoing headers. The incoming headers come from the other services, and are
+ * decoded without cache.
+ */
+final class SW8HeaderCodec {
+    private static final int PARTS = 8;
+    private static final char SEPARATOR = '-';
+
+    private static final LocalEncoding SERVICE = new LocalEncoding();
+    private static final LocalEncoding SERVICE_INSTANCE = new LocalEncoding();
+
+    private SW8HeaderCodec() {
+    }
+
+    /**
+     * @return the sw8 header value, or null if any part is not pure ASCII, which should fall back to the {@link
+     * java.util.Base64} based serialization.
+     */
+    static String encode(String traceId, String traceSegmentId, int spanId, String parentService,
+                         String parentServiceInstance, String parentEndpoint, String addressUsedAtClient) {
+        final String service = SERVICE.encode(parentService);
+        final String serviceInstance = SERVICE_INSTANCE.encode(parentServiceInstance);
+        final int traceIdLength = Base64.encodedLength(traceId);
+        final int traceSegmentIdLength = Base64.encodedLength(traceSegmentId);
+        final int parentEndpointLength = Base64.encodedLength(parentEndpoint);
+        final int addressLength = Base64.encodedLength(addressUsedAtClient);
+        if (traceIdLength < 0 || traceSegmentIdLength < 0 || parentEndpointLength < 0 || addressLength < 0) {
+            return null;
+        }
+
+        final char[] buffer = new char[
+            1 + traceIdLength + traceSegmentIdLength + stringSize(spanId) + service.length()
+                + serviceInstance.length() + parentEndpointLength + addressLength + PARTS - 1];
+        int offset = 0;
+        buffer[offset++] = '1';
+        buffer[offset++] = SEPARATOR;
+        offset = Base64.encode(traceId, buffer, offset);
+        buffer[offset++] = SEPARATOR;
+        offset = Base64.encode(traceSegmentId, buffer, offset);
+        buffer[offset++] = SEPARATOR;
+        offset = writeInt(spanId, buffer, offset);
+        buffer[offset++] = SEPARATOR;
+        service.getChars(0, service.length(), buffer, offset);
+        offset += service.length();
+        buffer[offset++] = SEPARATOR;
+        serviceInstance.getChars(0, serviceInstance.length(), buffer, offset);
+        offset += serviceInstance.length();
+        buffer[offset++] = SEPARATOR;
+        offset = Base64.encode(parentEndpoint, buffer, offset);
+        buffer[offset++] = SEPARATOR;
+        Base64.encode(addressUsedAtClient, buffer, offset);
+        return new String(buffer);
+    }
+
+    /**
+     * Decode the sw8 header value into the carrier. The header is ignored if it doesn't have 8 parts, and the decoding
+     * stops at the first illegal part, same as the {@code split} based implementation.
+     */
+    static void decode(String text, ContextCarrier carrier) {
+        final int[] separators = new int[PARTS - 1];
+        int from = 0;
+        for (int i = 0; i < separators.length; i++) {
+            int index = text.indexOf(SEPARATOR, from);
+            if (index < 0) {
+                return;
+            }
+            separators[i] = index;
+            from = index + 1;
+        }
+
+        try {
+            // part 0 is sample flag, always trace if header exists.
+            carrier.setTraceId(Base64.decode2UTFString(text, separators[0] + 1, separators[1]));
+            carrier.setTraceSegmentId(Base64.decode2UTFString(text, separators[1] + 1, separators[2]));
+            carrier.setSpanId(parseInt(text, separators[2] + 1, separators[3]));
+            carrier.setParentService(Base64.decode2UTFString(text, separators[3] + 1, separators[4]));
+            carrier.setParentServiceInstance(Base64.decode2UTFString(text, separators[4] + 1, separators[5]));
+            carrier.setParentEndpoint(Base64.decode2UTFString(text, separators[5] + 1, separators[6]));
+            carrier.setAddressUsedAtClient(Base64.decode2UTFString(text, separators[6] + 1, text.length()));
+        } catch (IllegalArgumentException ignored) {
+
+        }
+    }
+
+    /**
+     * @return the count of digits of the non-negative value, as the span id of a valid carrier is never negative.
+     */
+    private static int stringSize(int value) {
+        int size = 1;
+        for (long bound = 10; bound <= value; bound *= 10) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeInt(int value, char[] buffer, int offset) {
+        int end = offset + stringSize(value);
+        int position = end;
+        do {
+            buffer[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        while (value != 0);
+        return end;
+    }
+
+    /**
+     * Same as {@link Integer#parseInt(String)} on the range [from, to), without the sub string.
+     */
+    private static int parseInt(String text, int from, int to) {
+        if (from >= to) {
+            throw new NumberFormatException("Empty span id");
+        }
+        boolean negative = text.charAt(from) == '-' || text.charAt(from) == '+';
+        int i = negative ? from + 1 : from;
+        if (i >= to) {
+            throw new NumberFormatException("Illegal span id " + text.substring(from, to));
+        }
+        negative = negative && text.charAt(from) == '-';
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Illegal span id " + text.substring(from, to));
+            }
+            result = result * 10 + digit;
+            if (result > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Span id out of range " + text.substring(from, to));
+            }
+        }
+        result = negative ? -result : result;
+        if (result > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Span id out of range " + text.substring(from, to));
+        }
+        return (int) result;
+    }
+
+    /**
+     * The encoding of the local service or instance name. The pair is replaced as a whole, so the readers always see a
+     * consistent pair, and it is replaced only if the name is changed.
+     */
+    private static final class LocalEncoding {
+        private volatile String[] pair = new String[] {
+            "",
+            ""
+        };
+
+        String encode(String value) {
+            String[] current = pair;
+            if (current[0].equals(value)) {
+                return current[1];
+            }
+            String encoded = Base64.encode(value);
+            pair = new String[] {
+                value,
+                encoded
+            };
+            return encoded;
+        }
+    }
+}
@@ -18,8 +18,7 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.ReentrantLock;
 import lombok.AccessLevel;
@@ -43,6 +42,7 @@ import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.profile.ProfileStatusContext;
 import org.apache.skywalking.apm.agent.core.profile.ProfileTaskExecutionService;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 import org.apache.skywalking.apm.util.StringUtil;
 
@@ -61,6 +61,7 @@ import static org.apache.skywalking.apm.agent.core.conf.Config.Agent.CLUSTER;
  */
 public class TracingContext implements AbstractTracerContext {
     private static final ILog LOGGER = LogManager.getLogger(TracingContext.class);
+    private static final int INITIAL_STACK_CAPACITY = 8;
     private long lastWarningTimestamp = 0;
 
     /**
@@ -74,11 +75,16 @@ public class TracingContext implements AbstractTracerContext {
     private TraceSegment segment;
 
     /**
-     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link LinkedList} is the in-memory
-     * storage-structure. <p> I use {@link LinkedList#removeLast()}, {@link LinkedList#addLast(Object)} and {@link
-     * LinkedList#getLast()} instead of {@link #pop()}, {@link #push(AbstractSpan)}, {@link #peek()}
+     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This array is the in-memory storage-structure,
+     * with {@link #activeSpanDepth} spans from the bottom, and grows by doubling when it is full. <p> Use {@link
+     * #pop()}, {@link #push(AbstractSpan)} and {@link #peek()} to access it.
      */
-    private LinkedList<AbstractSpan> activeSpanStack = new LinkedList<>();
+    private AbstractSpan[] activeSpanStack = new AbstractSpan[INITIAL_STACK_CAPACITY];
+
+    /**
+     * The number of spans in {@link #activeSpanStack}.
+     */
+    private int activeSpanDepth;
 
     /**
      * @since 8.10.0 replace the removed "firstSpan"(before 8.10.0) reference. see {@link PrimaryEndpoint} for more details.
@@ -386,7 +392,7 @@ public class TracingContext implements AbstractTracerContext {
 
         finish();
 
-        return activeSpanStack.isEmpty();
+        return activeSpanDepth == 0;
     }
 
     @Override
@@ -422,10 +428,10 @@ public class TracingContext implements AbstractTracerContext {
 
     @Override
     public AbstractTracerContext forceIgnoring() {
-        for (AbstractSpan span: activeSpanStack) {
-            span.forceIgnoring();
+        for (int i = 0; i < activeSpanDepth; i++) {
+            activeSpanStack[i].forceIgnoring();
         }
-        return new IgnoredTracerContext(activeSpanStack.size());
+        return new IgnoredTracerContext(activeSpanDepth);
     }
 
     /**
@@ -452,7 +458,7 @@ public class TracingContext implements AbstractTracerContext {
             asyncFinishLock.lock();
         }
         try {
-            boolean isFinishedInMainThread = activeSpanStack.isEmpty() && running;
+            boolean isFinishedInMainThread = activeSpanDepth == 0 && running;
             if (isFinishedInMainThread) {
                 /*
                  * Notify after tracing finished in the main thread.
@@ -467,7 +473,12 @@ public class TracingContext implements AbstractTracerContext {
                 }
                 AgentSo11y.measureTracingContextCompletion(false);
                 TraceSegment finishedSegment = segment.finish(limitMechanismWorking);
-                TracingContext.ListenerManager.notifyFinish(finishedSegment);
+                if (Config.Agent.TAIL_SAMPLING) {
+                    ServiceManager.INSTANCE.findService(SamplingService.class)
+                                           .tailSample(finishedSegment, TracingContext.ListenerManager::notifyFinish);
+                } else {
+                    TracingContext.ListenerManager.notifyFinish(finishedSegment);
+                }
                 running = false;
             }
         } finally {
@@ -482,7 +493,11 @@ public class TracingContext implements AbstractTracerContext {
      * when the <code>TracingContext</code> finished, and {@link #segment} is ready for further process.
      */
     public static class ListenerManager {
-        private static List<TracingContextListener> LISTENERS = new LinkedList<>();
+        /**
+         * The registered listeners, replaced by a new array on every change, so the finished segments are notified
+         * without lock.
+         */
+        private static volatile TracingContextListener[] LISTENERS = new TracingContextListener[0];
 
         /**
          * Add the given {@link TracingContextListener} to {@link #LISTENERS} list.
@@ -490,18 +505,25 @@ public class TracingContext implements AbstractTracerContext {
          * @param listener the new listener.
          */
         public static synchronized void add(TracingContextListener listener) {
-            LISTENERS.add(listener);
+            final TracingContextListener[] listeners = Arrays.copyOf(LISTENERS, LISTENERS.length + 1);
+            listeners[listeners.length - 1] = listener;
+            LISTENERS = listeners;
         }
 
         /**
          * Notify the {@link TracingContext.ListenerManager} about the given {@link TraceSegment} have finished. And
          * trigger {@link TracingContext.ListenerManager} to notify all {@link #LISTENERS} 's {@link
-         * TracingContextListener#afterFinished(TraceSegment)}
+         * TracingContextListener#afterFinished(TraceSegment)}. The segment marked ignore is not notified to the
+         * listeners not interested in it.
          *
          * @param finishedSegment the segment that has finished
          */
         static void notifyFinish(TraceSegment finishedSegment) {
+            final boolean ignore = finishedSegment.isIgnore();
             for (TracingContextListener listener : LISTENERS) {
+                if (ignore && !listener.isInterestedInIgnoredSegment()) {
+                    continue;
+                }
                 listener.afterFinished(finishedSegment);
             }
         }
@@ -510,7 +532,7 @@ public class TracingContext implements AbstractTracerContext {
          * Clear the given {@link TracingContextListener}
          */
         public static synchronized void remove(TracingContextListener listener) {
-            LISTENERS.remove(listener);
+            LISTENERS = removeFrom(LISTENERS, listener);
         }
 
     }
@@ -519,10 +541,12 @@ public class TracingContext implements AbstractTracerContext {
      * The <code>ListenerManager</code> represents an event notify for every registered listener, which are notified
      */
     public static class TracingThreadListenerManager {
-        private static List<TracingThreadListener> LISTENERS = new LinkedList<>();
+        private static volatile TracingThreadListener[] LISTENERS = new TracingThreadListener[0];
 
         public static synchronized void add(TracingThreadListener listener) {
-            LISTENERS.add(listener);
+            final TracingThreadListener[] listeners = Arrays.copyOf(LISTENERS, LISTENERS.length + 1);
+            listeners[listeners.length - 1] = listener;
+            LISTENERS = listeners;
         }
 
         static void notifyFinish(TracingContext finishedContext) {
@@ -532,15 +556,32 @@ public class TracingContext implements AbstractTracerContext {
         }
 
         public static synchronized void remove(TracingThreadListener listener) {
-            LISTENERS.remove(listener);
+            LISTENERS = removeFrom(LISTENERS, listener);
         }
     }
 
+    /**
+     * @return a copy of the given listeners without the first occurrence of the given listener, or the listeners
+     * themselves if it is not included.
+     */
+    private static <T> T[] removeFrom(T[] listeners, T listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i].equals(listener)) {
+                final T[] removed = Arrays.copyOf(listeners, listeners.length - 1);
+                System.arraycopy(listeners, i + 1, removed, i, listeners.length - i - 1);
+                return removed;
+            }
+        }
+        return listeners;
+    }
+
     /**
      * @return the top element of 'ActiveSpanStack', and remove it.
      */
     private AbstractSpan pop() {
-        return activeSpanStack.removeLast();
+        final AbstractSpan span = activeSpanStack[--activeSpanDepth];
+        activeSpanStack[activeSpanDepth] = null;
+        return span;
     }
 
     /**
@@ -554,7 +595,10 @@ public class TracingContext implements AbstractTracerContext {
         } else {
             primaryEndpoint.set(span);
         }
-        activeSpanStack.addLast(span);
+        if (activeSpanDepth == activeSpanStack.length) {
+            activeSpanStack = Arrays.copyOf(activeSpanStack, activeSpanDepth << 1);
+        }
+        activeSpanStack[activeSpanDepth++] = span;
         this.extensionContext.handle(span);
         return span;
     }
@@ -563,10 +607,10 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack' only.
      */
     private AbstractSpan peek() {
-        if (activeSpanStack.isEmpty()) {
+        if (activeSpanDepth == 0) {
             return null;
         }
-        return activeSpanStack.getLast();
+        return activeSpanStack[activeSpanDepth - 1];
     }
 
     private boolean isLimitMechanismWorking() {
@@ -22,4 +22,11 @@ import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 
 public interface TracingContextListener {
     void afterFinished(TraceSegment traceSegment);
+
+    /**
+     * @return false if the segments marked ignore should not be notified to this listener.
+     */
+    default boolean isInterestedInIgnoredSegment() {
+        return true;
+    }
 }
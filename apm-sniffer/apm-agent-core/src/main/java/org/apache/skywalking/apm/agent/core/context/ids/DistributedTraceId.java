@@ -18,10 +18,7 @@
 
 package org.apache.skywalking.apm.agent.core.context.ids;
 
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import lombok.ToString;
+import java.util.Objects;
 
 /**
  * The <code>DistributedTraceId</code> presents a distributed call chain.
@@ -32,12 +29,40 @@ import lombok.ToString;
  * executions, are using the same <code>DistributedTraceId</code> even in different JVM.
  * <p>
  * The <code>DistributedTraceId</code> contains only one string, and can NOT be reset, creating a new instance is the
- * only option.
+ * only option. A generated id is kept as {@link GlobalId}, and rendered to the string only when it is read.
  */
-@RequiredArgsConstructor
-@ToString
-@EqualsAndHashCode
 public abstract class DistributedTraceId {
-    @Getter
-    private final String id;
+    private final Object id;
+
+    public DistributedTraceId(String id) {
+        this.id = id;
+    }
+
+    DistributedTraceId(GlobalId id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id == null ? null : id.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "DistributedTraceId(id=" + getId() + ")";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof DistributedTraceId))
+            return false;
+        DistributedTraceId that = (DistributedTraceId) o;
+        return Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+/**
+ * The id generated by {@link GlobalIdGenerator}. It keeps the thread id and the sequence as primitives, and renders
+ * the string form, {@code PROCESS_ID.THREAD_ID.SEQ}, only when it is read for the first time. Many generated ids are
+ * never read, such as the trace id of a segment continuing a propagated trace.
+ */
+public final class GlobalId {
+    private final long threadId;
+    private final long seq;
+    /**
+     * The rendered string form. Rendering is idempotent, so a racy render by another thread is harmless.
+     */
+    private String text;
+
+    GlobalId(long threadId, long seq) {
+        this.threadId = threadId;
+        this.seq = seq;
+    }
+
+    @Override
+    public String toString() {
+        String rendered = text;
+        if (rendered == null) {
+            rendered = GlobalIdGenerator.render(threadId, seq);
+            text = rendered;
+        }
+        return rendered;
+    }
+}
@@ -20,10 +20,9 @@ package org.apache.skywalking.apm.agent.core.context.ids;
 
 import java.util.UUID;
 
-import org.apache.skywalking.apm.util.StringUtil;
-
 public final class GlobalIdGenerator {
     private static final String PROCESS_ID = UUID.randomUUID().toString().replaceAll("-", "");
+    private static final char[] PROCESS_ID_CHARS = PROCESS_ID.toCharArray();
     private static final ThreadLocal<IDContext> THREAD_ID_SEQUENCE = ThreadLocal.withInitial(
         () -> new IDContext(System.currentTimeMillis(), (short) 0));
 
@@ -43,12 +42,52 @@ public final class GlobalIdGenerator {
      * @return unique id to represent a trace or segment
      */
     public static String generate() {
-        return StringUtil.join(
-            '.',
-            PROCESS_ID,
-            String.valueOf(Thread.currentThread().getId()),
-            String.valueOf(THREAD_ID_SEQUENCE.get().nextSeq())
-        );
+        return generateId().toString();
+    }
+
+    /**
+     * Generate a new id, same as {@link #generate()}, but the string form is not rendered until it is read.
+     *
+     * @return unique id to represent a trace or segment
+     */
+    public static GlobalId generateId() {
+        return new GlobalId(Thread.currentThread().getId(), THREAD_ID_SEQUENCE.get().nextSeq());
+    }
+
+    /**
+     * Render the id to {@code PROCESS_ID.THREAD_ID.SEQ} in one pass into an exactly sized char array.
+     */
+    static String render(long threadId, long seq) {
+        final int threadIdSize = stringSize(threadId);
+        final int seqSize = stringSize(seq);
+        final char[] buffer = new char[PROCESS_ID_CHARS.length + threadIdSize + seqSize + 2];
+        System.arraycopy(PROCESS_ID_CHARS, 0, buffer, 0, PROCESS_ID_CHARS.length);
+        int offset = PROCESS_ID_CHARS.length;
+        buffer[offset++] = '.';
+        writeLong(threadId, buffer, offset, threadIdSize);
+        offset += threadIdSize;
+        buffer[offset++] = '.';
+        writeLong(seq, buffer, offset, seqSize);
+        return new String(buffer);
+    }
+
+    /**
+     * @return the count of chars of the value, both the thread id and the sequence are never negative.
+     */
+    private static int stringSize(long value) {
+        int size = 1;
+        while (value >= 10) {
+            value /= 10;
+            size++;
+        }
+        return size;
+    }
+
+    private static void writeLong(long value, char[] buffer, int offset, int size) {
+        for (int i = offset + size - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
     }
 
     private static class IDContext {
@@ -18,8 +18,9 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -105,6 +106,12 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     protected boolean ignored;
 
+    /**
+     * The size of the {@link SpanObject} written by {@link #writeTo(CodedOutputStream)}, computed once the span is
+     * serialized, as it is finished then.
+     */
+    private int serializedSize = -1;
+
     protected AbstractTracingSpan(int spanId, int parentSpanId, String operationName, TracingContext owner) {
         this.operationName = operationName;
         this.spanId = spanId;
@@ -170,7 +177,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     @Override
     public AbstractTracingSpan log(Throwable t) {
         if (logs == null) {
-            logs = new LinkedList<>();
+            logs = new ArrayList<>(2);
         }
         if (!errorOccurred && ServiceManager.INSTANCE.findService(StatusCheckService.class).isError(t)) {
             errorOccurred();
@@ -178,14 +185,22 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         if (logs.size() >= Config.Agent.LOG_LIMIT_PER_SPAN) {
             return this;
         }
-        logs.add(new LogDataEntity.Builder().add(new KeyValuePair("event", "error"))
-                                            .add(new KeyValuePair("error.kind", t.getClass().getName()))
-                                            .add(new KeyValuePair("message", t.getMessage()))
-                                            .add(new KeyValuePair(
-                                                "stack",
-                                                ThrowableTransformer.INSTANCE.convert2String(t, 4000)
-                                            ))
-                                            .build(System.currentTimeMillis()));
+        final LogDataEntity.Builder builder = new LogDataEntity.Builder()
+            .add(new KeyValuePair("event", "error"))
+            .add(new KeyValuePair("error.kind", t.getClass().getName()))
+            .add(new KeyValuePair("message", t.getMessage()));
+        if (Config.Agent.STACK_TRACE_DEDUPLICATE_INTERVAL > 0) {
+            final long fingerprint = ThrowableTransformer.INSTANCE.fingerprint(t);
+            final int occurrences = ThrowableTransformer.INSTANCE.countOccurrence(fingerprint);
+            builder.add(new KeyValuePair("stack.fingerprint", Long.toHexString(fingerprint)));
+            if (occurrences > 0) {
+                builder.add(new KeyValuePair("stack.occurrences", String.valueOf(occurrences)));
+                logs.add(builder.build(System.currentTimeMillis()));
+                return this;
+            }
+        }
+        logs.add(builder.add(new KeyValuePair("stack", ThrowableTransformer.INSTANCE.convert2String(t, 4000)))
+                        .build(System.currentTimeMillis()));
         return this;
     }
 
@@ -197,7 +212,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     @Override
     public AbstractTracingSpan log(long timestampMicroseconds, Map<String, ?> fields) {
         if (logs == null) {
-            logs = new LinkedList<>();
+            logs = new ArrayList<>(2);
         }
         if (logs.size() >= Config.Agent.LOG_LIMIT_PER_SPAN) {
             return this;
@@ -309,10 +324,140 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         return spanBuilder;
     }
 
+    /**
+     * @return the peer of the exit span, written as {@link SpanObject#getPeer()}
+     */
+    protected String getPeer() {
+        return null;
+    }
+
+    /**
+     * @return the size of the {@link SpanObject} written by {@link #writeTo(CodedOutputStream)}
+     */
+    public int getSerializedSize() {
+        int size = serializedSize;
+        if (size >= 0) {
+            return size;
+        }
+        size = 0;
+        if (spanId != 0) {
+            size += CodedOutputStream.computeInt32Size(SpanObject.SPANID_FIELD_NUMBER, spanId);
+        }
+        if (parentSpanId != 0) {
+            size += CodedOutputStream.computeInt32Size(SpanObject.PARENTSPANID_FIELD_NUMBER, parentSpanId);
+        }
+        if (startTime != 0) {
+            size += CodedOutputStream.computeInt64Size(SpanObject.STARTTIME_FIELD_NUMBER, startTime);
+        }
+        if (endTime != 0) {
+            size += CodedOutputStream.computeInt64Size(SpanObject.ENDTIME_FIELD_NUMBER, endTime);
+        }
+        if (this.refs != null) {
+            for (TraceSegmentRef ref : this.refs) {
+                size += MessageFields.computeMessageSize(SpanObject.REFS_FIELD_NUMBER, ref.getSerializedSize());
+            }
+        }
+        size += MessageFields.computeStringSize(SpanObject.OPERATIONNAME_FIELD_NUMBER, operationName);
+        size += MessageFields.computeStringSize(SpanObject.PEER_FIELD_NUMBER, getPeer());
+        final int spanType = spanTypeValue();
+        if (spanType != 0) {
+            size += CodedOutputStream.computeEnumSize(SpanObject.SPANTYPE_FIELD_NUMBER, spanType);
+        }
+        if (this.layer != null && this.layer.getCode() != 0) {
+            size += CodedOutputStream.computeEnumSize(SpanObject.SPANLAYER_FIELD_NUMBER, this.layer.getCode());
+        }
+        if (componentId != 0) {
+            size += CodedOutputStream.computeInt32Size(SpanObject.COMPONENTID_FIELD_NUMBER, componentId);
+        }
+        if (errorOccurred) {
+            size += CodedOutputStream.computeBoolSize(SpanObject.ISERROR_FIELD_NUMBER, true);
+        }
+        if (this.tags != null) {
+            for (TagValuePair tag : this.tags) {
+                size += MessageFields.computeMessageSize(SpanObject.TAGS_FIELD_NUMBER, tag.getSerializedSize());
+            }
+        }
+        if (this.logs != null) {
+            for (LogDataEntity log : this.logs) {
+                size += MessageFields.computeMessageSize(SpanObject.LOGS_FIELD_NUMBER, log.getSerializedSize());
+            }
+        }
+        if (skipAnalysis) {
+            size += CodedOutputStream.computeBoolSize(SpanObject.SKIPANALYSIS_FIELD_NUMBER, true);
+        }
+        serializedSize = size;
+        return size;
+    }
+
+    /**
+     * Write this span as a {@link SpanObject}, the same as the serialized {@link #transform()}, without building the
+     * messages of the span, its tags, logs and refs.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        if (spanId != 0) {
+            output.writeInt32(SpanObject.SPANID_FIELD_NUMBER, spanId);
+        }
+        if (parentSpanId != 0) {
+            output.writeInt32(SpanObject.PARENTSPANID_FIELD_NUMBER, parentSpanId);
+        }
+        if (startTime != 0) {
+            output.writeInt64(SpanObject.STARTTIME_FIELD_NUMBER, startTime);
+        }
+        if (endTime != 0) {
+            output.writeInt64(SpanObject.ENDTIME_FIELD_NUMBER, endTime);
+        }
+        if (this.refs != null) {
+            for (TraceSegmentRef ref : this.refs) {
+                MessageFields.writeMessageHeader(output, SpanObject.REFS_FIELD_NUMBER, ref.getSerializedSize());
+                ref.writeTo(output);
+            }
+        }
+        MessageFields.writeString(output, SpanObject.OPERATIONNAME_FIELD_NUMBER, operationName);
+        MessageFields.writeString(output, SpanObject.PEER_FIELD_NUMBER, getPeer());
+        final int spanType = spanTypeValue();
+        if (spanType != 0) {
+            output.writeEnum(SpanObject.SPANTYPE_FIELD_NUMBER, spanType);
+        }
+        if (this.layer != null && this.layer.getCode() != 0) {
+            output.writeEnum(SpanObject.SPANLAYER_FIELD_NUMBER, this.layer.getCode());
+        }
+        if (componentId != 0) {
+            output.writeInt32(SpanObject.COMPONENTID_FIELD_NUMBER, componentId);
+        }
+        if (errorOccurred) {
+            output.writeBool(SpanObject.ISERROR_FIELD_NUMBER, true);
+        }
+        if (this.tags != null) {
+            for (TagValuePair tag : this.tags) {
+                MessageFields.writeMessageHeader(output, SpanObject.TAGS_FIELD_NUMBER, tag.getSerializedSize());
+                tag.writeTo(output);
+            }
+        }
+        if (this.logs != null) {
+            for (LogDataEntity log : this.logs) {
+                MessageFields.writeMessageHeader(output, SpanObject.LOGS_FIELD_NUMBER, log.getSerializedSize());
+                log.writeTo(output);
+            }
+        }
+        if (skipAnalysis) {
+            output.writeBool(SpanObject.SKIPANALYSIS_FIELD_NUMBER, true);
+        }
+    }
+
+    private int spanTypeValue() {
+        if (isEntry()) {
+            return SpanType.Entry_VALUE;
+        } else if (isExit()) {
+            return SpanType.Exit_VALUE;
+        } else {
+            return SpanType.Local_VALUE;
+        }
+    }
+
     @Override
     public void ref(TraceSegmentRef ref) {
         if (refs == null) {
-            refs = new LinkedList<>();
+            refs = new ArrayList<>(1);
         }
         /*
          * Provide the OOM protection if the entry span hosts too many references.
@@ -18,8 +18,10 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
 import org.apache.skywalking.apm.network.language.agent.v3.Log;
@@ -45,7 +47,7 @@ public class LogDataEntity {
         protected List<KeyValuePair> logs;
 
         public Builder() {
-            logs = new LinkedList<>();
+            logs = new ArrayList<>(4);
         }
 
         public Builder add(KeyValuePair... fields) {
@@ -66,4 +68,31 @@ public class LogDataEntity {
         logMessageBuilder.setTime(timestamp);
         return logMessageBuilder.build();
     }
+
+    /**
+     * @return the size of the {@link Log} written by {@link #writeTo(CodedOutputStream)}
+     */
+    public int getSerializedSize() {
+        int size = 0;
+        if (timestamp != 0) {
+            size += CodedOutputStream.computeInt64Size(Log.TIME_FIELD_NUMBER, timestamp);
+        }
+        for (KeyValuePair log : logs) {
+            size += MessageFields.computeMessageSize(Log.DATA_FIELD_NUMBER, log.getSerializedSize());
+        }
+        return size;
+    }
+
+    /**
+     * Write this log as a {@link Log}, the same as the serialized {@link #transform()}.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        if (timestamp != 0) {
+            output.writeInt64(Log.TIME_FIELD_NUMBER, timestamp);
+        }
+        for (KeyValuePair log : logs) {
+            MessageFields.writeMessageHeader(output, Log.DATA_FIELD_NUMBER, log.getSerializedSize());
+            log.writeTo(output);
+        }
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+
+/**
+ * The fields written by the <code>writeTo</code> methods of the finished segment, which skip the empty strings and
+ * write the nested messages with the sizes computed ahead, the same as the messages built by the
+ * <code>transform</code> methods.
+ */
+final class MessageFields {
+    private MessageFields() {
+    }
+
+    static int computeStringSize(int fieldNumber, String value) {
+        return value == null || value.isEmpty() ? 0 : CodedOutputStream.computeStringSize(fieldNumber, value);
+    }
+
+    static void writeString(CodedOutputStream output, int fieldNumber, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            output.writeString(fieldNumber, value);
+        }
+    }
+
+    static int computeMessageSize(int fieldNumber, int messageSize) {
+        return CodedOutputStream.computeTagSize(fieldNumber)
+            + CodedOutputStream.computeUInt32SizeNoTag(messageSize) + messageSize;
+    }
+
+    static void writeMessageHeader(CodedOutputStream output, int fieldNumber, int messageSize) throws IOException {
+        output.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(messageSize);
+    }
+}
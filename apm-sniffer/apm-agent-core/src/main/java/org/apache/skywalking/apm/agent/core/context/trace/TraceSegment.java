@@ -18,10 +18,13 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
-import java.util.LinkedList;
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
+import org.apache.skywalking.apm.agent.core.context.ids.GlobalId;
 import org.apache.skywalking.apm.agent.core.context.ids.GlobalIdGenerator;
 import org.apache.skywalking.apm.agent.core.context.ids.NewDistributedTraceId;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
@@ -35,7 +38,7 @@ public class TraceSegment {
     /**
      * The id of this trace segment. Every segment has its unique-global-id.
      */
-    private String traceSegmentId;
+    private final GlobalId traceSegmentId;
 
     /**
      * The refs of parent trace segments, except the primary one. For most RPC call, {@link #ref} contains only one
@@ -69,8 +72,8 @@ public class TraceSegment {
      * Create a default/empty trace segment, with current time as start time, and generate a new segment id.
      */
     public TraceSegment() {
-        this.traceSegmentId = GlobalIdGenerator.generate();
-        this.spans = new LinkedList<>();
+        this.traceSegmentId = GlobalIdGenerator.generateId();
+        this.spans = new ArrayList<>();
         this.relatedGlobalTraceId = new NewDistributedTraceId();
         this.createTime = System.currentTimeMillis();
     }
@@ -112,7 +115,7 @@ public class TraceSegment {
     }
 
     public String getTraceSegmentId() {
-        return traceSegmentId;
+        return traceSegmentId.toString();
     }
 
     /**
@@ -126,6 +129,18 @@ public class TraceSegment {
         return relatedGlobalTraceId;
     }
 
+    /**
+     * @return true if any span of this segment is marked as error.
+     */
+    public boolean hasErrorSpan() {
+        for (AbstractTracingSpan span : this.spans) {
+            if (span.errorOccurred) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public boolean isSingleSpanSegment() {
         return this.spans != null && this.spans.size() == 1;
     }
@@ -149,7 +164,7 @@ public class TraceSegment {
         /*
          * Trace Segment
          */
-        traceSegmentBuilder.setTraceSegmentId(this.traceSegmentId);
+        traceSegmentBuilder.setTraceSegmentId(getTraceSegmentId());
         // Don't serialize TraceSegmentReference
 
         // SpanObject
@@ -163,6 +178,56 @@ public class TraceSegment {
         return traceSegmentBuilder.build();
     }
 
+    /**
+     * @return the size of the {@link SegmentObject} written by {@link #writeTo(CodedOutputStream)}
+     */
+    public int getSerializedSize() {
+        int size = MessageFields.computeStringSize(SegmentObject.TRACEID_FIELD_NUMBER, getRelatedGlobalTrace().getId());
+        size += MessageFields.computeStringSize(SegmentObject.TRACESEGMENTID_FIELD_NUMBER, getTraceSegmentId());
+        for (AbstractTracingSpan span : this.spans) {
+            size += MessageFields.computeMessageSize(SegmentObject.SPANS_FIELD_NUMBER, span.getSerializedSize());
+        }
+        size += MessageFields.computeStringSize(SegmentObject.SERVICE_FIELD_NUMBER, Config.Agent.SERVICE_NAME);
+        size += MessageFields.computeStringSize(SegmentObject.SERVICEINSTANCE_FIELD_NUMBER, Config.Agent.INSTANCE_NAME);
+        if (this.isSizeLimited) {
+            size += CodedOutputStream.computeBoolSize(SegmentObject.ISSIZELIMITED_FIELD_NUMBER, true);
+        }
+        return size;
+    }
+
+    /**
+     * Write the segment as a {@link SegmentObject} straightly, the same as the serialized {@link #transform()}, which
+     * is a high CPU cost method too, but doesn't build the messages of the spans, tags, logs and refs.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        MessageFields.writeString(output, SegmentObject.TRACEID_FIELD_NUMBER, getRelatedGlobalTrace().getId());
+        MessageFields.writeString(output, SegmentObject.TRACESEGMENTID_FIELD_NUMBER, getTraceSegmentId());
+        for (AbstractTracingSpan span : this.spans) {
+            MessageFields.writeMessageHeader(output, SegmentObject.SPANS_FIELD_NUMBER, span.getSerializedSize());
+            span.writeTo(output);
+        }
+        MessageFields.writeString(output, SegmentObject.SERVICE_FIELD_NUMBER, Config.Agent.SERVICE_NAME);
+        MessageFields.writeString(output, SegmentObject.SERVICEINSTANCE_FIELD_NUMBER, Config.Agent.INSTANCE_NAME);
+        if (this.isSizeLimited) {
+            output.writeBool(SegmentObject.ISSIZELIMITED_FIELD_NUMBER, true);
+        }
+    }
+
+    /**
+     * @return the serialized {@link SegmentObject}, the same as the serialized {@link #transform()}
+     */
+    public byte[] toByteArray() {
+        final byte[] bytes = new byte[getSerializedSize()];
+        final CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            writeTo(output);
+        } catch (IOException e) {
+            throw new IllegalStateException("Serializing the segment to a byte array threw an IOException.", e);
+        }
+        output.checkNoSpaceLeft();
+        return bytes;
+    }
+
     @Override
     public String toString() {
         return "TraceSegment{" + "traceSegmentId='" + traceSegmentId + '\'' + ", ref=" + ref + ", spans=" + spans + "}";
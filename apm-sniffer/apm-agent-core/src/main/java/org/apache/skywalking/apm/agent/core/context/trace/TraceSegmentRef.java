@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import lombok.Getter;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
@@ -87,6 +89,46 @@ public class TraceSegmentRef {
         return refBuilder.build();
     }
 
+    /**
+     * @return the size of the {@link SegmentReference} written by {@link #writeTo(CodedOutputStream)}
+     */
+    public int getSerializedSize() {
+        int size = 0;
+        if (!SegmentRefType.CROSS_PROCESS.equals(type)) {
+            size += CodedOutputStream.computeEnumSize(SegmentReference.REFTYPE_FIELD_NUMBER, RefType.CrossThread_VALUE);
+        }
+        size += MessageFields.computeStringSize(SegmentReference.TRACEID_FIELD_NUMBER, traceId);
+        size += MessageFields.computeStringSize(SegmentReference.PARENTTRACESEGMENTID_FIELD_NUMBER, traceSegmentId);
+        if (spanId != 0) {
+            size += CodedOutputStream.computeInt32Size(SegmentReference.PARENTSPANID_FIELD_NUMBER, spanId);
+        }
+        size += MessageFields.computeStringSize(SegmentReference.PARENTSERVICE_FIELD_NUMBER, parentService);
+        size += MessageFields.computeStringSize(
+            SegmentReference.PARENTSERVICEINSTANCE_FIELD_NUMBER, parentServiceInstance);
+        size += MessageFields.computeStringSize(SegmentReference.PARENTENDPOINT_FIELD_NUMBER, parentEndpoint);
+        size += MessageFields.computeStringSize(
+            SegmentReference.NETWORKADDRESSUSEDATPEER_FIELD_NUMBER, addressUsedAtClient);
+        return size;
+    }
+
+    /**
+     * Write this ref as a {@link SegmentReference}, the same as the serialized {@link #transform()}.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        if (!SegmentRefType.CROSS_PROCESS.equals(type)) {
+            output.writeEnum(SegmentReference.REFTYPE_FIELD_NUMBER, RefType.CrossThread_VALUE);
+        }
+        MessageFields.writeString(output, SegmentReference.TRACEID_FIELD_NUMBER, traceId);
+        MessageFields.writeString(output, SegmentReference.PARENTTRACESEGMENTID_FIELD_NUMBER, traceSegmentId);
+        if (spanId != 0) {
+            output.writeInt32(SegmentReference.PARENTSPANID_FIELD_NUMBER, spanId);
+        }
+        MessageFields.writeString(output, SegmentReference.PARENTSERVICE_FIELD_NUMBER, parentService);
+        MessageFields.writeString(output, SegmentReference.PARENTSERVICEINSTANCE_FIELD_NUMBER, parentServiceInstance);
+        MessageFields.writeString(output, SegmentReference.PARENTENDPOINT_FIELD_NUMBER, parentEndpoint);
+        MessageFields.writeString(output, SegmentReference.NETWORKADDRESSUSEDATPEER_FIELD_NUMBER, addressUsedAtClient);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache keyed by the fingerprints of the exception stacks. It is split into the stripes by the
+ * fingerprint, each of them is a LinkedHashMap in access order guarded by its own lock, so the threads logging the
+ * different exceptions don't contend, and the least recently used entry of a stripe is evicted once it is full.
+ */
+final class FingerprintCache<V> {
+    private static final int STRIPE_COUNT = 8;
+
+    private final Stripe<V>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    FingerprintCache(int capacity) {
+        final int stripeCapacity = Math.max(1, (capacity + STRIPE_COUNT - 1) / STRIPE_COUNT);
+        stripes = new Stripe[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe<>(stripeCapacity);
+        }
+    }
+
+    V get(long fingerprint) {
+        final Stripe<V> stripe = stripe(fingerprint);
+        synchronized (stripe) {
+            return stripe.get(fingerprint);
+        }
+    }
+
+    void put(long fingerprint, V value) {
+        final Stripe<V> stripe = stripe(fingerprint);
+        synchronized (stripe) {
+            stripe.put(fingerprint, value);
+        }
+    }
+
+    private Stripe<V> stripe(long fingerprint) {
+        return stripes[(int) (fingerprint ^ fingerprint >>> 32) & (STRIPE_COUNT - 1)];
+    }
+
+    private static class Stripe<V> extends LinkedHashMap<Long, V> {
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
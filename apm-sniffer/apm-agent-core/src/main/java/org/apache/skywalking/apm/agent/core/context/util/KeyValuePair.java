@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.apm.agent.core.context.util;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
 
 /**
@@ -48,4 +50,38 @@ public class KeyValuePair {
         }
         return keyValueBuilder.build();
     }
+
+    /**
+     * @return the size of the {@link KeyStringValuePair} written by {@link #writeTo(CodedOutputStream)}
+     */
+    public int getSerializedSize() {
+        return getSerializedSize(key, value);
+    }
+
+    /**
+     * Write this pair as a {@link KeyStringValuePair}, the same as the serialized {@link #transform()}.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        writeTo(output, key, value);
+    }
+
+    static int getSerializedSize(String key, String value) {
+        int size = 0;
+        if (key != null && !key.isEmpty()) {
+            size += CodedOutputStream.computeStringSize(KeyStringValuePair.KEY_FIELD_NUMBER, key);
+        }
+        if (value != null && !value.isEmpty()) {
+            size += CodedOutputStream.computeStringSize(KeyStringValuePair.VALUE_FIELD_NUMBER, value);
+        }
+        return size;
+    }
+
+    static void writeTo(CodedOutputStream output, String key, String value) throws IOException {
+        if (key != null && !key.isEmpty()) {
+            output.writeString(KeyStringValuePair.KEY_FIELD_NUMBER, key);
+        }
+        if (value != null && !value.isEmpty()) {
+            output.writeString(KeyStringValuePair.VALUE_FIELD_NUMBER, value);
+        }
+    }
 }
@@ -17,6 +17,8 @@
 
 package org.apache.skywalking.apm.agent.core.context.util;
 
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import java.util.Objects;
 import org.apache.skywalking.apm.agent.core.context.tag.AbstractTag;
 import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
@@ -47,6 +49,20 @@ public class TagValuePair {
         return keyValueBuilder.build();
     }
 
+    /**
+     * @return the size of the {@link KeyStringValuePair} written by {@link #writeTo(CodedOutputStream)}
+     */
+    public int getSerializedSize() {
+        return KeyValuePair.getSerializedSize(key.key(), value);
+    }
+
+    /**
+     * Write this tag as a {@link KeyStringValuePair}, the same as the serialized {@link #transform()}.
+     */
+    public void writeTo(CodedOutputStream output) throws IOException {
+        KeyValuePair.writeTo(output, key.key(), value);
+    }
+
     public boolean sameWith(AbstractTag tag) {
         return key.isCanOverwrite() && key.getId() == tag.getId();
     }
@@ -18,17 +18,151 @@
 
 package org.apache.skywalking.apm.agent.core.context.util;
 
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
 import static org.apache.skywalking.apm.agent.core.conf.Config.Agent.CAUSE_EXCEPTION_DEPTH;
 
 /**
  * {@link ThrowableTransformer} is responsible for transferring stack trace of throwable.
+ * <p>
+ * The stack frames of every cause are converted once, and cached by their fingerprint, the length and the top frames
+ * of the stack, in a LRU cache of {@link Config.Agent#STACK_TRACE_CACHE_SIZE} stacks. The same exception thrown again
+ * only converts its {@link Throwable#toString()}.
  */
 public enum ThrowableTransformer {
     INSTANCE;
 
     private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
+    /**
+     * The count of the top frames in the fingerprint of a stack.
+     */
+    private static final int FINGERPRINT_FRAME_COUNT = 16;
+    private static final long FINGERPRINT_PRIME = 0x100000001B3L;
+
+    private volatile FingerprintCache<ConvertedFrames> convertedFrames;
+    private volatile FingerprintCache<Occurrence> occurrences;
+
     public String convert2String(Throwable throwable, final int maxLength) {
+        final FingerprintCache<ConvertedFrames> cache = convertedFrames();
+        if (cache == null) {
+            return convert2StringWithoutCache(throwable, maxLength);
+        }
+        final StringBuilder stackMessage = new StringBuilder();
+        Throwable causeException = throwable;
+
+        int depth = CAUSE_EXCEPTION_DEPTH;
+        while (causeException != null && depth != 0) {
+            stackMessage.append(printExceptionInfo(causeException));
+
+            final StackTraceElement[] stackTrace = causeException.getStackTrace();
+            if (stackTrace.length == 0) {
+                break;
+            }
+            if (convertFrames(cache, stackTrace).appendTo(stackMessage, maxLength)) {
+                break;
+            }
+
+            causeException = causeException.getCause();
+            depth--;
+        }
+
+        return stackMessage.toString();
+    }
+
+    /**
+     * @return the fingerprint of the classes and the stacks of the cause chain, the same for the exceptions thrown
+     * again through the same code.
+     */
+    public long fingerprint(Throwable throwable) {
+        long fingerprint = 0;
+        Throwable causeException = throwable;
+        int depth = CAUSE_EXCEPTION_DEPTH;
+        while (causeException != null && depth != 0) {
+            fingerprint = (fingerprint * FINGERPRINT_PRIME ^ causeException.getClass().getName().hashCode())
+                * FINGERPRINT_PRIME ^ fingerprint(causeException.getStackTrace());
+            causeException = causeException.getCause();
+            depth--;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Count an occurrence of the exception with the fingerprint, so the exception thrown again in {@link
+     * Config.Agent#STACK_TRACE_DEDUPLICATE_INTERVAL} seconds could be logged as the fingerprint and the occurrences.
+     *
+     * @return 0 if the exception should be logged in full, as it isn't logged in full in the interval, otherwise the
+     * occurrences since it is logged in full.
+     */
+    public int countOccurrence(long fingerprint) {
+        return countOccurrence(fingerprint, System.currentTimeMillis());
+    }
+
+    int countOccurrence(long fingerprint, long now) {
+        if (Config.Agent.STACK_TRACE_DEDUPLICATE_INTERVAL <= 0) {
+            return 0;
+        }
+        FingerprintCache<Occurrence> cache = occurrences;
+        if (cache == null) {
+            synchronized (this) {
+                if (occurrences == null) {
+                    occurrences = new FingerprintCache<>(Math.max(Config.Agent.STACK_TRACE_CACHE_SIZE, 1));
+                }
+                cache = occurrences;
+            }
+        }
+        final Occurrence occurrence = cache.get(fingerprint);
+        if (occurrence == null) {
+            cache.put(fingerprint, new Occurrence(now));
+            return 0;
+        }
+        return occurrence.count(now, TimeUnit.SECONDS.toMillis(Config.Agent.STACK_TRACE_DEDUPLICATE_INTERVAL));
+    }
+
+    /**
+     * Drop the cached stacks and occurrences, and create the caches by the current config on the next conversion.
+     */
+    synchronized void reset() {
+        convertedFrames = null;
+        occurrences = null;
+    }
+
+    private FingerprintCache<ConvertedFrames> convertedFrames() {
+        FingerprintCache<ConvertedFrames> cache = convertedFrames;
+        if (cache == null && Config.Agent.STACK_TRACE_CACHE_SIZE > 0) {
+            synchronized (this) {
+                if (convertedFrames == null) {
+                    convertedFrames = new FingerprintCache<>(Config.Agent.STACK_TRACE_CACHE_SIZE);
+                }
+                cache = convertedFrames;
+            }
+        }
+        return cache;
+    }
+
+    private ConvertedFrames convertFrames(FingerprintCache<ConvertedFrames> cache, StackTraceElement[] stackTrace) {
+        final long fingerprint = fingerprint(stackTrace);
+        ConvertedFrames frames = cache.get(fingerprint);
+        if (frames != null && Arrays.equals(frames.stackTrace, stackTrace)) {
+            return frames;
+        }
+        frames = new ConvertedFrames(stackTrace);
+        cache.put(fingerprint, frames);
+        return frames;
+    }
+
+    private static long fingerprint(StackTraceElement[] stackTrace) {
+        long fingerprint = stackTrace.length;
+        final int count = Math.min(stackTrace.length, FINGERPRINT_FRAME_COUNT);
+        for (int i = 0; i < count; i++) {
+            fingerprint = fingerprint * FINGERPRINT_PRIME ^ stackTrace[i].hashCode();
+        }
+        return fingerprint;
+    }
+
+    private String convert2StringWithoutCache(Throwable throwable, final int maxLength) {
         final StringBuilder stackMessage = new StringBuilder();
         Throwable causeException = throwable;
 
@@ -86,4 +220,68 @@ public enum ThrowableTransformer {
 
         boolean overMaxLength();
     }
+
+    /**
+     * The converted frames of a stack, with the end of every line, to append the lines up to the max length.
+     */
+    private static class ConvertedFrames {
+        private final StackTraceElement[] stackTrace;
+        private final String text;
+        private final int[] lineEnds;
+
+        private ConvertedFrames(StackTraceElement[] stackTrace) {
+            this.stackTrace = stackTrace;
+            this.lineEnds = new int[stackTrace.length];
+            final StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < stackTrace.length; i++) {
+                builder.append("at ").append(stackTrace[i]).append(LINE_SEPARATOR);
+                lineEnds[i] = builder.length();
+            }
+            this.text = builder.toString();
+        }
+
+        /**
+         * Append the lines until the one making the message over the max length, the same as the lines appended
+         * one by one.
+         *
+         * @return true if the message is over the max length.
+         */
+        private boolean appendTo(StringBuilder stackMessage, int maxLength) {
+            final int budget = maxLength - stackMessage.length();
+            int low = 0;
+            int high = lineEnds.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (lineEnds[mid] > budget) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            if (low == lineEnds.length) {
+                stackMessage.append(text);
+                return false;
+            }
+            stackMessage.append(text, 0, lineEnds[low]);
+            return true;
+        }
+    }
+
+    private static class Occurrence {
+        private long loggedTime;
+        private int count;
+
+        private Occurrence(long loggedTime) {
+            this.loggedTime = loggedTime;
+        }
+
+        private synchronized int count(long now, long interval) {
+            if (now - loggedTime >= interval) {
+                loggedTime = now;
+                count = 0;
+                return 0;
+            }
+            return ++count;
+        }
+    }
 }
@@ -18,12 +18,11 @@
 
 package org.apache.skywalking.apm.agent.core.jvm;
 
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.jvm.clazz.ClassProvider;
@@ -57,28 +56,28 @@ public class JVMService implements BootService, Runnable {
 
     @Override
     public void boot() throws Throwable {
-        collectMetricFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("JVMService-produce"))
-                                       .scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                                           this,
-                                           new RunnableWithExceptionProtection.CallbackWhenException() {
-                                               @Override
-                                               public void handle(Throwable t) {
-                                                   LOGGER.error("JVMService produces metrics failure.", t);
-                                               }
-                                           }
-                                       ), 0, Config.Jvm.METRICS_COLLECT_PERIOD, TimeUnit.SECONDS);
-        sendMetricFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("JVMService-consume"))
-                                    .scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                                        sender,
-                                        new RunnableWithExceptionProtection.CallbackWhenException() {
-                                            @Override
-                                            public void handle(Throwable t) {
-                                                LOGGER.error("JVMService consumes and upload failure.", t);
-                                            }
-                                        }
-                                    ), 0, 1, TimeUnit.SECONDS);
+        collectMetricFuture = AgentScheduler.INSTANCE.scheduleAtFixedRate(
+            "JVMService-produce",
+            new RunnableWithExceptionProtection(
+                this,
+                new RunnableWithExceptionProtection.CallbackWhenException() {
+                    @Override
+                    public void handle(Throwable t) {
+                        LOGGER.error("JVMService produces metrics failure.", t);
+                    }
+                }
+            ), 0, Config.Jvm.METRICS_COLLECT_PERIOD, TimeUnit.SECONDS);
+        sendMetricFuture = AgentScheduler.INSTANCE.scheduleAtFixedRate(
+            "JVMService-consume",
+            new RunnableWithExceptionProtection(
+                sender,
+                new RunnableWithExceptionProtection.CallbackWhenException() {
+                    @Override
+                    public void handle(Throwable t) {
+                        LOGGER.error("JVMService consumes and upload failure.", t);
+                    }
+                }
+            ), 0, 1, TimeUnit.SECONDS);
     }
 
     @Override
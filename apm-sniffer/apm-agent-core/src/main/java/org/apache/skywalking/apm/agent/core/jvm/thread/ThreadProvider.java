@@ -21,28 +21,45 @@ package org.apache.skywalking.apm.agent.core.jvm.thread;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.network.language.agent.v3.Thread;
 
 public enum ThreadProvider {
     INSTANCE;
     private final ThreadMXBean threadMXBean;
+    /**
+     * The number of the sampling collections, which moves the offset of the sampled threads.
+     */
+    private int sampleCursor;
 
     ThreadProvider() {
         this.threadMXBean = ManagementFactory.getThreadMXBean();
     }
 
     public Thread getThreadMetrics() {
+        return getThreadMetrics(Config.Jvm.THREAD_STATE_SAMPLE_SIZE);
+    }
+
+    /**
+     * @param sampleSize the max number of threads whose states are read, the counts of the thread states are
+     *                   extrapolated from them to all live threads. All threads are read if it is not positive.
+     */
+    Thread getThreadMetrics(int sampleSize) {
         int runnableStateThreadCount = 0;
         int blockedStateThreadCount = 0;
         int waitingStateThreadCount = 0;
         int timedWaitingStateThreadCount = 0;
+        int sampledThreadCount = 0;
 
-        ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds(), 0);
+        long[] threadIds = threadMXBean.getAllThreadIds();
+        long[] sampledThreadIds = sample(threadIds, sampleSize);
+        ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(sampledThreadIds, 0);
         if (threadInfos != null) {
             for (ThreadInfo threadInfo : threadInfos) {
                 if (threadInfo == null) {
                     continue;
                 }
+                sampledThreadCount++;
                 switch (threadInfo.getThreadState()) {
                     case RUNNABLE:
                         runnableStateThreadCount++;
@@ -62,6 +79,14 @@ public enum ThreadProvider {
             }
         }
 
+        if (sampledThreadIds != threadIds && sampledThreadCount > 0) {
+            double scale = (double) threadIds.length / sampledThreadCount;
+            runnableStateThreadCount = (int) Math.round(runnableStateThreadCount * scale);
+            blockedStateThreadCount = (int) Math.round(blockedStateThreadCount * scale);
+            waitingStateThreadCount = (int) Math.round(waitingStateThreadCount * scale);
+            timedWaitingStateThreadCount = (int) Math.round(timedWaitingStateThreadCount * scale);
+        }
+
         int threadCount = threadMXBean.getThreadCount();
         int daemonThreadCount = threadMXBean.getDaemonThreadCount();
         int peakThreadCount = threadMXBean.getPeakThreadCount();
@@ -75,4 +100,25 @@ public enum ThreadProvider {
                 .build();
     }
 
+    /**
+     * Sample every {@code step}th thread, so the threads of a pool, which are usually adjacent in the ids, are sampled in
+     * proportion. The offset of the first sampled thread moves by one at each collection, so every thread is sampled in
+     * turn.
+     *
+     * @return the ids of {@code sampleSize} threads evenly spaced among all threads, or all ids if there are not more
+     * threads than the sample size.
+     */
+    long[] sample(long[] threadIds, int sampleSize) {
+        if (sampleSize <= 0 || threadIds.length <= sampleSize) {
+            return threadIds;
+        }
+        int step = threadIds.length / sampleSize;
+        int offset = Math.floorMod(sampleCursor++, threadIds.length - (sampleSize - 1) * step);
+        long[] sampledThreadIds = new long[sampleSize];
+        for (int i = 0; i < sampleSize; i++) {
+            sampledThreadIds[i] = threadIds[offset + i * step];
+        }
+        return sampledThreadIds;
+    }
+
 }
@@ -18,35 +18,68 @@
 
 package org.apache.skywalking.apm.agent.core.logging.core;
 
+import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.Constants;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * The <code>FileWriter</code> support async file output, by using a queue as buffer.
+ * <p>
+ * The flusher thread wakes up as soon as logs are queued, encodes them in batch into a reused direct buffer, and writes
+ * the buffer through a {@link FileChannel}. The file size is counted in bytes written, so the file is switched exactly
+ * after {@link Config.Logging#MAX_FILE_SIZE} bytes. The logs offered to a full queue are dropped and counted, the
+ * count is written into the file once the queue is available again.
  */
 public class FileWriter implements IWriter {
+    private static final int QUEUE_SIZE = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String COMPRESSED_SUFFIX = ".gz";
+    private static final byte[] LINE_SEPARATOR = Constants.LINE_SEPARATOR.getBytes(StandardCharsets.UTF_8);
+
     private static FileWriter INSTANCE;
     private static final Object CREATE_LOCK = new Object();
-    private FileOutputStream fileOutputStream;
-    private ArrayBlockingQueue logBuffer;
-    private volatile int fileSize;
-    private Pattern filenamePattern = Pattern.compile(Config.Logging.FILE_NAME + "\\.\\d{4}_\\d{2}_\\d{2}_\\d{2}_\\d{2}_\\d{2}");
+    private final ArrayBlockingQueue<String> logBuffer;
+    private final AtomicLong droppedLines = new AtomicLong();
+    private final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                                                                 .onMalformedInput(CodingErrorAction.REPLACE)
+                                                                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private FileChannel fileChannel;
+    private long fileSize;
+    private long reportedDroppedLines;
+    private ExecutorService compressExecutor;
+    private Pattern filenamePattern = Pattern.compile(
+        Config.Logging.FILE_NAME + "\\.\\d{4}_\\d{2}_\\d{2}_\\d{2}_\\d{2}_\\d{2}(" + Pattern.quote(COMPRESSED_SUFFIX) + ")?");
 
     public static FileWriter get() {
         if (INSTANCE == null) {
@@ -60,98 +93,185 @@ public class FileWriter implements IWriter {
     }
 
     private FileWriter() {
-        logBuffer = new ArrayBlockingQueue(1024);
-        final ArrayList<String> outputLogs = new ArrayList<String>(200);
-        Thread logFlusherThread = new Thread(new RunnableWithExceptionProtection(new Runnable() {
-
-            @Override
-            public void run() {
-                while (true) {
-                    // flush log to file
-                    try {
-                        logBuffer.drainTo(outputLogs);
-                        for (String log : outputLogs) {
-                            writeToFile(log + Constants.LINE_SEPARATOR);
-                        }
-                        try {
-                            if (fileOutputStream != null) {
-                                fileOutputStream.flush();
-                            }
-                        } catch (IOException e) {
-                            e.printStackTrace();
-                        }
-                    } finally {
-                        outputLogs.clear();
-                    }
+        this(true);
+    }
 
-                    // flush log once per second
-                    try {
-                        TimeUnit.SECONDS.sleep(1);
-                    } catch (InterruptedException e) {
+    /**
+     * @param startFlusher false to write the queued logs by {@link #flush(List)} only, which is for the tests.
+     */
+    FileWriter(boolean startFlusher) {
+        logBuffer = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        if (!startFlusher) {
+            return;
+        }
+        final ArrayList<String> outputLogs = new ArrayList<>(QUEUE_SIZE);
+        Thread logFlusherThread = new Thread(new RunnableWithExceptionProtection(() -> {
+            while (true) {
+                try {
+                    // wait for the first log, then flush all queued logs to file in batch
+                    String log = logBuffer.poll(1, TimeUnit.SECONDS);
+                    if (log != null) {
+                        outputLogs.add(log);
                     }
+                    flush(outputLogs);
+                } catch (InterruptedException e) {
+                } finally {
+                    outputLogs.clear();
                 }
-
-            }
-        }, new RunnableWithExceptionProtection.CallbackWhenException() {
-            @Override
-            public void handle(Throwable t) {
             }
+        }, t -> {
         }), "SkywalkingAgent-LogFileWriter");
         logFlusherThread.setDaemon(true);
         logFlusherThread.start();
     }
 
     /**
+     * Write the given logs and the queued logs into the file.
+     *
+     * @param outputLogs the logs taken from the queue already, the queued logs are drained into it.
+     */
+    void flush(List<String> outputLogs) {
+        logBuffer.drainTo(outputLogs);
+        writeDroppedLines();
+        for (String outputLog : outputLogs) {
+            writeToFile(outputLog);
+        }
+        flushBuffer();
+    }
+
+    /**
+     * @return the count of the logs dropped, as the queue was full.
+     */
+    public long getDroppedLines() {
+        return droppedLines.get();
+    }
+
+    private void writeDroppedLines() {
+        final long dropped = droppedLines.get();
+        if (dropped > reportedDroppedLines) {
+            writeToFile((dropped - reportedDroppedLines) + " agent log lines were dropped, as the log queue was full.");
+            reportedDroppedLines = dropped;
+        }
+    }
+
+    /**
+     * Encode the message and the line separator into the buffer, the buffer is written into the file when it is full,
+     * or the file is going to be switched.
+     *
      * @param message to be written into the file.
      */
     private void writeToFile(String message) {
-        if (prepareWriteStream()) {
-            try {
-                fileOutputStream.write(message.getBytes());
-                fileSize += message.length();
-            } catch (IOException e) {
-                e.printStackTrace();
-            } finally {
-                switchFile();
+        if (!prepareWriteChannel()) {
+            return;
+        }
+        final CharBuffer chars = CharBuffer.wrap(message);
+        encoder.reset();
+        while (encoder.encode(chars, byteBuffer, true).isOverflow()) {
+            if (!flushBuffer()) {
+                return;
             }
         }
+        while (encoder.flush(byteBuffer).isOverflow()) {
+            if (!flushBuffer()) {
+                return;
+            }
+        }
+        if (byteBuffer.remaining() < LINE_SEPARATOR.length && !flushBuffer()) {
+            return;
+        }
+        byteBuffer.put(LINE_SEPARATOR);
+
+        if (fileSize + byteBuffer.position() > Config.Logging.MAX_FILE_SIZE) {
+            flushBuffer();
+            switchFile();
+        }
     }
 
-    private void switchFile() {
-        if (fileSize > Config.Logging.MAX_FILE_SIZE) {
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    fileOutputStream.flush();
-                    return null;
-                }
-            });
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    fileOutputStream.close();
-                    return null;
-                }
-            });
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    new File(Config.Logging.DIR, Config.Logging.FILE_NAME).renameTo(new File(Config.Logging.DIR, Config.Logging.FILE_NAME + new SimpleDateFormat(".yyyy_MM_dd_HH_mm_ss")
-                        .format(new Date())));
-                    return null;
-                }
-            });
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    fileOutputStream = null;
-                    return null;
-                }
+    /**
+     * Write the buffer into the file.
+     *
+     * @return false if the buffer could not be written, and the encoded logs are discarded.
+     */
+    private boolean flushBuffer() {
+        if (byteBuffer.position() == 0) {
+            return true;
+        }
+        byteBuffer.flip();
+        try {
+            while (byteBuffer.hasRemaining()) {
+                fileSize += fileChannel.write(byteBuffer);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            forceExecute(() -> {
+                fileChannel.close();
+                return null;
             });
+            fileChannel = null;
+            return false;
+        } finally {
+            byteBuffer.clear();
+        }
+    }
 
-            if (Config.Logging.MAX_HISTORY_FILES > 0) {
-                deleteExpiredFiles();
+    private void switchFile() {
+        if (fileChannel == null) {
+            return;
+        }
+        forceExecute(() -> {
+            fileChannel.close();
+            return null;
+        });
+        final File historyFile = new File(
+            Config.Logging.DIR,
+            Config.Logging.FILE_NAME + new SimpleDateFormat(".yyyy_MM_dd_HH_mm_ss").format(new Date())
+        );
+        forceExecute(() -> {
+            new File(Config.Logging.DIR, Config.Logging.FILE_NAME).renameTo(historyFile);
+            return null;
+        });
+        fileChannel = null;
+
+        if (Config.Logging.COMPRESS_HISTORY_FILES) {
+            if (compressExecutor == null) {
+                compressExecutor = Executors.newSingleThreadExecutor(
+                    new DefaultNamedThreadFactory("LogFileCompressor"));
             }
+            compressExecutor.execute(new RunnableWithExceptionProtection(
+                () -> compress(historyFile), Throwable::printStackTrace));
+        }
+        if (Config.Logging.MAX_HISTORY_FILES > 0) {
+            deleteExpiredFiles();
+        }
+    }
+
+    /**
+     * Compress the history file into the gzip file, and delete the history file.
+     */
+    static void compress(File historyFile) {
+        if (!historyFile.exists()) {
+            // Switched more than once in the same second, the file has been compressed by the former task.
+            return;
+        }
+        final File compressingFile = new File(historyFile.getPath() + COMPRESSED_SUFFIX + ".tmp");
+        try (InputStream input = new FileInputStream(historyFile);
+             OutputStream output = new GZIPOutputStream(new FileOutputStream(compressingFile), BUFFER_SIZE)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int length;
+            while ((length = input.read(buffer)) > 0) {
+                output.write(buffer, 0, length);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            compressingFile.delete();
+            return;
+        }
+        // Delete the history file first, to never count both files as history files.
+        if (historyFile.delete()) {
+            compressingFile.renameTo(new File(historyFile.getPath() + COMPRESSED_SUFFIX));
+        } else {
+            compressingFile.delete();
         }
     }
 
@@ -202,10 +322,10 @@ public class FileWriter implements IWriter {
     }
 
     /**
-     * @return true if stream is prepared ready.
+     * @return true if the channel is prepared ready.
      */
-    private boolean prepareWriteStream() {
-        if (fileOutputStream != null) {
+    private boolean prepareWriteChannel() {
+        if (fileChannel != null) {
             return true;
         }
         File logFilePath = new File(Config.Logging.DIR);
@@ -215,13 +335,16 @@ public class FileWriter implements IWriter {
             System.err.println("Log dir(" + Config.Logging.DIR + ") is not a directory.");
         }
         try {
-            fileOutputStream = new FileOutputStream(new File(logFilePath, Config.Logging.FILE_NAME), true);
-            fileSize = Long.valueOf(new File(logFilePath, Config.Logging.FILE_NAME).length()).intValue();
-        } catch (FileNotFoundException e) {
+            fileChannel = FileChannel.open(
+                new File(logFilePath, Config.Logging.FILE_NAME).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND
+            );
+            fileSize = fileChannel.size();
+        } catch (IOException e) {
             e.printStackTrace();
         }
 
-        return fileOutputStream != null;
+        return fileChannel != null;
     }
 
     /**
@@ -231,6 +354,8 @@ public class FileWriter implements IWriter {
      */
     @Override
     public void write(String message) {
-        logBuffer.offer(message);
+        if (!logBuffer.offer(message)) {
+            droppedLines.incrementAndGet();
+        }
     }
 }
@@ -20,8 +20,10 @@ package org.apache.skywalking.apm.agent.core.meter;
 
 import java.util.List;
 import java.util.Objects;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.network.language.agent.v3.Label;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterSingleValue;
 
 /**
  * BaseMeter is the basic class of all available meter implementations.
@@ -30,6 +32,15 @@ import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
 public abstract class BaseMeter {
     protected final MeterId meterId;
 
+    /**
+     * The number of the reports skipped in a row, as the meter didn't change.
+     */
+    private int skippedReports;
+    /**
+     * The builder of the single value message with the name and labels, which is reused by the reports.
+     */
+    private MeterSingleValue.Builder singleValueBuilder;
+
     public BaseMeter(MeterId meterId) {
         this.meterId = meterId;
     }
@@ -59,6 +70,32 @@ public abstract class BaseMeter {
      */
     public abstract MeterData.Builder transform();
 
+    /**
+     * Decide whether to skip the report of the meter, which is only called by the meter report task.
+     *
+     * @param changed whether the meter changed since the last report
+     * @return true if the meter didn't change, and has been skipped less than {@link Config.Meter#MAX_SKIPPED_REPORTS}
+     * times in a row
+     */
+    protected boolean skipReport(boolean changed) {
+        if (changed || skippedReports >= Config.Meter.MAX_SKIPPED_REPORTS) {
+            skippedReports = 0;
+            return false;
+        }
+        skippedReports++;
+        return true;
+    }
+
+    /**
+     * Transform the single value to gRPC message, reusing the name and labels of the last report
+     */
+    protected MeterData.Builder transformSingleValue(double value) {
+        if (singleValueBuilder == null) {
+            singleValueBuilder = MeterSingleValue.newBuilder().setName(getName()).addAllLabels(transformTags());
+        }
+        return MeterData.newBuilder().setSingleValue(singleValueBuilder.setValue(value));
+    }
+
     /**
      * Transform all tags to gRPC message
      */
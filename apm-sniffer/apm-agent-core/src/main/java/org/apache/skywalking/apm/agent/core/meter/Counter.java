@@ -19,7 +19,6 @@
 package org.apache.skywalking.apm.agent.core.meter;
 
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
-import org.apache.skywalking.apm.network.language.agent.v3.MeterSingleValue;
 
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
@@ -33,6 +32,7 @@ public class Counter extends BaseMeter {
     protected final DoubleAdder count;
     protected final CounterMode mode;
     private final AtomicReference<Double> previous = new AtomicReference();
+    private double reportedCount = Double.NaN;
 
     public Counter(MeterId meterId, CounterMode mode) {
         super(meterId);
@@ -53,26 +53,28 @@ public class Counter extends BaseMeter {
         // using rate mode or increase
         final double currentValue = get();
         double count;
+        boolean changed;
         if (Objects.equals(mode, CounterMode.RATE)) {
             final Double previousValue = previous.getAndSet(currentValue);
 
             // calculate the add count
             if (previousValue == null) {
                 count = currentValue;
+                changed = true;
             } else {
                 count = currentValue - previousValue;
+                changed = count != 0;
             }
         } else {
             count = currentValue;
+            changed = Double.compare(count, reportedCount) != 0;
         }
 
-        final MeterData.Builder builder = MeterData.newBuilder();
-        builder.setSingleValue(MeterSingleValue.newBuilder()
-            .setName(getName())
-            .addAllLabels(transformTags())
-            .setValue(count).build());
-
-        return builder;
+        if (skipReport(changed)) {
+            return null;
+        }
+        reportedCount = count;
+        return transformSingleValue(count);
     }
 
     /**
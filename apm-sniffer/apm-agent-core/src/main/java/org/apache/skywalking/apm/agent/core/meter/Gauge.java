@@ -21,7 +21,6 @@ package org.apache.skywalking.apm.agent.core.meter;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
-import org.apache.skywalking.apm.network.language.agent.v3.MeterSingleValue;
 
 import java.util.function.Supplier;
 
@@ -31,6 +30,7 @@ import java.util.function.Supplier;
 public class Gauge extends BaseMeter {
     private static final ILog LOGGER = LogManager.getLogger(Gauge.class);
     protected Supplier<Double> getter;
+    private double reportedValue = Double.NaN;
 
     public Gauge(MeterId meterId, Supplier<Double> getter) {
         super(meterId);
@@ -55,13 +55,11 @@ public class Gauge extends BaseMeter {
             return null;
         }
 
-        final MeterData.Builder builder = MeterData.newBuilder();
-        builder.setSingleValue(MeterSingleValue.newBuilder()
-            .setName(getName())
-            .addAllLabels(transformTags())
-            .setValue(count).build());
-
-        return builder;
+        if (skipReport(Double.compare(count, reportedValue) != 0)) {
+            return null;
+        }
+        reportedValue = count;
+        return transformSingleValue(count);
     }
 
     public static class Builder extends AbstractBuilder<Builder, Gauge> {
@@ -19,10 +19,8 @@
 package org.apache.skywalking.apm.agent.core.meter;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
@@ -34,7 +32,39 @@ import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
  * infinitive. They can be set through the constructor and immutable after that.
  */
 public class Histogram extends BaseMeter {
+    /**
+     * The max bits of the sub buckets in every power of two of the exponential buckets.
+     */
+    public static final int MAX_PRECISION = 10;
+    private static final int MANTISSA_BITS = 52;
+    private static final long MANTISSA_MASK = (1L << MANTISSA_BITS) - 1;
+
     protected final Bucket[] buckets;
+    /**
+     * The minimal values of the buckets, as a flat array to search.
+     */
+    private final double[] steps;
+    /**
+     * The counts of the buckets, striped among the threads adding values.
+     */
+    private final StripedLongArray counts;
+    /**
+     * The index of the first exponential bucket, or -1 if the buckets are not exponential.
+     */
+    private final int exponentialIndex;
+    /**
+     * The exponent of the first exponential bucket.
+     */
+    private final int lowestExponent;
+    /**
+     * The bits of the sub buckets in every power of two of the exponential buckets.
+     */
+    private final int precision;
+    /**
+     * The builder of the histogram message with the name and labels, which is reused by the reports.
+     */
+    private MeterHistogram.Builder histogramBuilder;
+    private long reportedCount = -1;
 
     /**
      * @param meterId as the unique id of this meter instance
@@ -43,60 +73,133 @@ public class Histogram extends BaseMeter {
     public Histogram(MeterId meterId, List<Double> steps) {
         super(meterId);
         this.buckets = initBuckets(steps);
+        this.steps = steps.stream().mapToDouble(Double::doubleValue).toArray();
+        this.counts = new StripedLongArray(this.steps.length);
+
+        int exponentialIndex = -1;
+        int precision = 0;
+        // the min value may be the first bucket before the exponential buckets
+        for (int start = 0; start < 2 && exponentialIndex < 0; start++) {
+            precision = exponentialPrecision(this.steps, start);
+            if (precision >= 0) {
+                exponentialIndex = start;
+            }
+        }
+        this.exponentialIndex = exponentialIndex;
+        this.lowestExponent = exponentialIndex < 0 ? 0 : Math.getExponent(this.steps[exponentialIndex]);
+        this.precision = precision;
     }
 
     /**
      * Add value into the histogram, automatic analyze what bucket count need to be increment [step1, step2)
      */
     public void addValue(double value) {
-        Bucket bucket = findBucket(value);
-        if (bucket == null) {
+        final int index = findBucket(value);
+        if (index < 0) {
             return;
         }
 
-        bucket.increment(1L);
+        counts.increment(index);
     }
 
     /**
-     * Using binary search the bucket
+     * Compute the bucket of the exponential buckets, otherwise using binary search the bucket
+     *
+     * @return the index of the bucket, or -1 if the value is less than all buckets
      */
-    private Bucket findBucket(double value) {
+    private int findBucket(double value) {
+        if (exponentialIndex >= 0 && value >= steps[exponentialIndex]) {
+            // the exponent and the highest bits of the mantissa of the value locate the bucket
+            final int index = exponentialIndex + ((Math.getExponent(value) - lowestExponent) << precision)
+                + (int) ((Double.doubleToRawLongBits(value) & MANTISSA_MASK) >>> (MANTISSA_BITS - precision));
+            return Math.min(index, steps.length - 1);
+        }
+
         int low = 0;
-        int high = buckets.length - 1;
+        int high = steps.length - 1;
 
         while (low <= high) {
-            int mid = (low + high) / 2;
-            if (buckets[mid].bucket < value)
+            int mid = (low + high) >>> 1;
+            if (steps[mid] < value)
                 low = mid + 1;
-            else if (buckets[mid].bucket > value)
+            else if (steps[mid] > value)
                 high = mid - 1;
             else
-                return buckets[mid];
+                return mid;
         }
 
         // because using min value as bucket, need using previous bucket
-        low -= 1;
+        return low - 1;
+    }
 
-        return low < buckets.length && low >= 0 ? buckets[low] : null;
+    /**
+     * Get the counts of all buckets, merged from all threads
+     */
+    public long[] getCounts() {
+        return counts.sum();
     }
 
     private Bucket[] initBuckets(List<Double> steps) {
         return steps.stream().map(Bucket::new).toArray(Bucket[]::new);
     }
 
+    /**
+     * Check whether the steps from the start are exponential, which begin with a power of two, and split every power
+     * of two into the sub buckets of the same width.
+     *
+     * @return the bits of the sub buckets, or -1 if the steps are not exponential
+     */
+    static int exponentialPrecision(double[] steps, int start) {
+        if (steps.length - start < 2) {
+            return -1;
+        }
+        final double lowest = steps[start];
+        final int exponent = Math.getExponent(lowest);
+        if (lowest <= 0 || exponent < Double.MIN_EXPONENT || lowest != Math.scalb(1.0, exponent)) {
+            return -1;
+        }
+        final double width = steps[start + 1] - lowest;
+        final int precision = exponent - Math.getExponent(width);
+        if (precision < 0 || precision > MAX_PRECISION || width != Math.scalb(lowest, -precision)) {
+            return -1;
+        }
+        for (int i = start + 2; i < steps.length; i++) {
+            if (steps[i] != exponentialStep(exponent, precision, i - start)) {
+                return -1;
+            }
+        }
+        return precision;
+    }
+
+    /**
+     * @return the minimal value of the exponential bucket of the index, from the bucket of 2^exponent.
+     */
+    static double exponentialStep(int exponent, int precision, int index) {
+        final int subBuckets = 1 << precision;
+        return Math.scalb(1.0 + (double) (index & (subBuckets - 1)) / subBuckets, exponent + (index >> precision));
+    }
+
     @Override
     public MeterData.Builder transform() {
-        final MeterData.Builder builder = MeterData.newBuilder();
-
-        // get all values
-        List<MeterBucketValue> values = Arrays.stream(buckets)
-                                              .map(Histogram.Bucket::transform).collect(Collectors.toList());
+        final long[] values = getCounts();
+        // the counts only increase, so any bucket changed if the total count changed
+        long count = 0;
+        for (long value : values) {
+            count += value;
+        }
+        if (skipReport(count != reportedCount)) {
+            return null;
+        }
+        reportedCount = count;
 
-        return builder.setHistogram(MeterHistogram.newBuilder()
-                                                  .setName(getName())
-                                                  .addAllLabels(transformTags())
-                                                  .addAllValues(values)
-                                                  .build());
+        if (histogramBuilder == null) {
+            histogramBuilder = MeterHistogram.newBuilder().setName(getName()).addAllLabels(transformTags());
+        }
+        histogramBuilder.clearValues();
+        for (int i = 0; i < buckets.length; i++) {
+            histogramBuilder.addValues(buckets[i].transform(values[i]));
+        }
+        return MeterData.newBuilder().setHistogram(histogramBuilder);
     }
 
     public static class Builder extends AbstractBuilder<Builder, Histogram> {
@@ -118,6 +221,34 @@ public class Histogram extends BaseMeter {
             return this;
         }
 
+        /**
+         * Set exponential bucket steps from the lowest to the highest, like HdrHistogram, every power of two is split
+         * into 2^precision buckets of the same width. The bucket of a value is computed from its exponent and mantissa,
+         * rather than searched.
+         *
+         * @param lowest    the minimal value of the first exponential bucket, rounded down to a power of two
+         * @param highest   the max minimal value of the buckets
+         * @param precision the bits of the sub buckets in every power of two, between 0 and {@link #MAX_PRECISION}
+         */
+        public Builder exponentialSteps(double lowest, double highest, int precision) {
+            if (!(lowest > 0 && highest >= lowest) || Double.isInfinite(highest)) {
+                throw new IllegalArgumentException("Exponential steps must be positive and from low to high");
+            }
+            if (precision < 0 || precision > MAX_PRECISION) {
+                throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION);
+            }
+            final int exponent = Math.max(Math.getExponent(lowest), Double.MIN_EXPONENT);
+            this.steps = new ArrayList<>();
+            for (int i = 0; ; i++) {
+                final double step = exponentialStep(exponent, precision, i);
+                if (step > highest) {
+                    break;
+                }
+                this.steps.add(step);
+            }
+            return this;
+        }
+
         /**
          * Set min value, default is zero
          */
@@ -157,21 +288,23 @@ public class Histogram extends BaseMeter {
      */
     protected static class Bucket {
         protected double bucket;
-        protected AtomicLong count = new AtomicLong();
+        private MeterBucketValue transformed;
 
         public Bucket(double bucket) {
             this.bucket = bucket;
         }
 
-        public void increment(long count) {
-            this.count.addAndGet(count);
-        }
-
-        public MeterBucketValue transform() {
-            return MeterBucketValue.newBuilder()
-                                   .setBucket(bucket)
-                                   .setCount(count.get())
-                                   .build();
+        /**
+         * Transform the bucket to gRPC message, the message of the last report is reused if the count didn't change
+         */
+        public MeterBucketValue transform(long count) {
+            if (transformed == null || transformed.getCount() != count) {
+                transformed = MeterBucketValue.newBuilder()
+                                              .setBucket(bucket)
+                                              .setCount(count)
+                                              .build();
+            }
+            return transformed;
         }
 
         @Override
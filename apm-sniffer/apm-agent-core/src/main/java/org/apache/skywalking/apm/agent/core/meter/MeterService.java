@@ -19,12 +19,11 @@
 package org.apache.skywalking.apm.agent.core.meter;
 
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
@@ -73,9 +72,8 @@ public class MeterService implements BootService, Runnable {
     @Override
     public void boot() {
         if (Config.Meter.ACTIVE) {
-            reportMeterFuture = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("MeterReportService")
-            ).scheduleWithFixedDelay(new RunnableWithExceptionProtection(
+            reportMeterFuture = AgentScheduler.INSTANCE.scheduleWithFixedDelay(
+                "MeterReportService", new RunnableWithExceptionProtection(
                 this,
                 t -> LOGGER.error("Report meters failure.", t)
             ), 0, Config.Meter.REPORT_INTERVAL, TimeUnit.SECONDS);
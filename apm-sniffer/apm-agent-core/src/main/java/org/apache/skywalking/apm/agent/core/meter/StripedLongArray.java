@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * StripedLongArray is an array of counters incremented by many threads. The counters are kept in a flat array per
+ * stripe, one stripe at the beginning, and the stripes are doubled when the increments contend, up to the number of
+ * the processors, like a {@link java.util.concurrent.atomic.LongAdder} of arrays. The counters are merged from all
+ * stripes when they are read.
+ */
+class StripedLongArray {
+    /**
+     * The longs of a cache line, appended to every stripe, so the counters of different stripes are not in the same
+     * cache line.
+     */
+    private static final int PADDING = 8;
+    private static final int MAX_STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+    private static final AtomicReferenceFieldUpdater<StripedLongArray, AtomicLongArray[]> STRIPES_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(StripedLongArray.class, AtomicLongArray[].class, "stripes");
+    /**
+     * The hash of the current thread to pick a stripe, which is changed once the increment of the thread contends.
+     */
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(
+        () -> new int[] {(int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 32) | 1});
+
+    private final int length;
+    private final int maxStripes;
+    private volatile AtomicLongArray[] stripes;
+
+    StripedLongArray(int length) {
+        this(length, MAX_STRIPES);
+    }
+
+    StripedLongArray(int length, int maxStripes) {
+        this.length = length;
+        this.maxStripes = maxStripes;
+        this.stripes = new AtomicLongArray[] {new AtomicLongArray(length + PADDING)};
+    }
+
+    int length() {
+        return length;
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    void increment(int index) {
+        final AtomicLongArray[] current = stripes;
+        if (current.length == 1) {
+            final AtomicLongArray stripe = current[0];
+            final long value = stripe.get(index);
+            if (!stripe.compareAndSet(index, value, value + 1)) {
+                stripe.incrementAndGet(index);
+                expand(current);
+            }
+            return;
+        }
+
+        final int[] probe = PROBE.get();
+        final AtomicLongArray stripe = current[probe[0] & (current.length - 1)];
+        final long value = stripe.get(index);
+        if (!stripe.compareAndSet(index, value, value + 1)) {
+            stripe.incrementAndGet(index);
+            // move to another stripe by xorshift, and add stripes if all of them may contend
+            int hash = probe[0];
+            hash ^= hash << 13;
+            hash ^= hash >>> 17;
+            hash ^= hash << 5;
+            probe[0] = hash;
+            expand(current);
+        }
+    }
+
+    private void expand(AtomicLongArray[] current) {
+        if (current.length >= maxStripes) {
+            return;
+        }
+        final AtomicLongArray[] expanded = Arrays.copyOf(current, current.length * 2);
+        for (int i = current.length; i < expanded.length; i++) {
+            expanded[i] = new AtomicLongArray(length + PADDING);
+        }
+        STRIPES_UPDATER.compareAndSet(this, current, expanded);
+    }
+
+    /**
+     * @return the counters merged from all stripes.
+     */
+    long[] sum() {
+        final long[] sum = new long[length];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < length; i++) {
+                sum[i] += stripe.get(i);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return the power of two not less than the processors
+     */
+    static int stripes(int processors) {
+        return processors <= 1 ? 1 : Integer.highestOneBit(processors - 1) << 1;
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.logical.LogicalAndMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.logical.LogicalOrMatch;
+
+/**
+ * The <code>ClassMatchIndex</code> compiles the {@link IndirectMatch}es of the plugins into indexes, so a type is
+ * checked against all of them at once, rather than by the matchers of the plugins one by one.
+ * <p>
+ * The {@link MultiClassNameMatch}es are indexed by a hash map of the class names. The {@link PrefixMatch}es and the
+ * literal prefixes of the {@link RegexMatch}es are indexed by a char trie, which is walked along the type name once.
+ * The super types required by the {@link HierarchyMatch}es and the annotations required by the {@link
+ * ClassAnnotationMatch}es are numbered, the hierarchy and the annotations of a type are collected once, and only the
+ * matches whose required ones are all present are satisfied. The super types under <code>java.</code>, which can only
+ * be defined by the bootstrap class loader, are cached by name with what they contribute, which is nothing for most of
+ * them, so their class files are not parsed again for every type extending them.
+ * <p>
+ * A {@link LogicalOrMatch} is indexed by all of its operands, and a {@link LogicalAndMatch} is guarded by its cheapest
+ * indexable operand and verified by its own matcher. Other matches, e.g. the method annotation matches, are checked one
+ * by one as before.
+ */
+final class ClassMatchIndex {
+    private static final int NAME_COST = 0;
+    private static final int ANNOTATION_COST = 1;
+    private static final int HIERARCHY_COST = 2;
+    private static final int NOT_INDEXABLE = Integer.MAX_VALUE;
+
+    private final ElementMatcher[] junctions;
+    private final Map<String, List<Target>> exactNames = new HashMap<>();
+    private final Node root;
+    private final Map<String, Integer> annotationIds = new HashMap<>();
+    private final List<Requirement> annotationMatches = new ArrayList<>();
+    private final Map<String, Integer> superTypeIds = new HashMap<>();
+    private final List<Requirement> hierarchyMatches = new ArrayList<>();
+    private final List<Target> others = new ArrayList<>();
+    /**
+     * The bootstrap super type name to the ids of the required super types it has, including itself.
+     */
+    private final Map<String, BitSet> bootstrapSuperTypes = new ConcurrentHashMap<>();
+
+    /**
+     * @param matches the class matches of the plugins, indexed by the position of the plugin.
+     */
+    ClassMatchIndex(List<ClassMatch> matches) {
+        junctions = new ElementMatcher[matches.size()];
+        final Builder trie = new Builder();
+        for (int i = 0; i < matches.size(); i++) {
+            ClassMatch match = matches.get(i);
+            if (!(match instanceof IndirectMatch)) {
+                continue;
+            }
+            IndirectMatch indirectMatch = (IndirectMatch) match;
+            if (cost(indirectMatch) == NOT_INDEXABLE) {
+                junctions[i] = indirectMatch.buildJunction();
+                others.add(new Target(i, false));
+            } else if (!index(indirectMatch, new Target(i, true), trie)) {
+                junctions[i] = indirectMatch.buildJunction();
+            }
+        }
+        root = trie.build();
+    }
+
+    /**
+     * @return true if the type matches any of the indexed matches.
+     */
+    boolean matches(TypeDescription typeDescription) {
+        return find(typeDescription, null);
+    }
+
+    /**
+     * @return the positions of the plugins which may match the type, their matches have to be checked by {@link
+     * IndirectMatch#isMatch(TypeDescription)}.
+     */
+    BitSet candidates(TypeDescription typeDescription) {
+        BitSet candidates = new BitSet(junctions.length);
+        find(typeDescription, candidates);
+        return candidates;
+    }
+
+    /**
+     * Walk through the indexes. If the candidates is null, return true once a match is found, otherwise collect all the
+     * plugins hit into the candidates without verifying them.
+     */
+    private boolean find(TypeDescription typeDescription, BitSet candidates) {
+        String name = typeDescription.getName();
+        List<Target> targets = exactNames.get(name);
+        if (targets != null) {
+            for (Target target : targets) {
+                if (hit(target, typeDescription, candidates)) {
+                    return true;
+                }
+            }
+        }
+        Node node = root;
+        int position = 0;
+        while (node != null) {
+            for (Target target : node.prefixes) {
+                if (hit(target, typeDescription, candidates)) {
+                    return true;
+                }
+            }
+            for (RegexTarget target : node.regexes) {
+                if ((candidates != null || target.pattern.matcher(name).matches())
+                    && hit(target, typeDescription, candidates)) {
+                    return true;
+                }
+            }
+            node = position < name.length() ? node.child(name.charAt(position++)) : null;
+        }
+        if (!annotationMatches.isEmpty()
+            && hit(annotationMatches, declaredAnnotations(typeDescription), typeDescription, candidates)) {
+            return true;
+        }
+        if (!hierarchyMatches.isEmpty()
+            && hit(hierarchyMatches, superTypes(typeDescription), typeDescription, candidates)) {
+            return true;
+        }
+        for (Target target : others) {
+            if (hit(target, typeDescription, candidates)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hit(List<Requirement> requirements,
+                        BitSet present,
+                        TypeDescription typeDescription,
+                        BitSet candidates) {
+        if (present.isEmpty()) {
+            return false;
+        }
+        for (Requirement requirement : requirements) {
+            if (requirement.isSatisfied(present) && hit(requirement.target, typeDescription, candidates)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean hit(Target target, TypeDescription typeDescription, BitSet candidates) {
+        if (candidates != null) {
+            candidates.set(target.plugin);
+            return false;
+        }
+        return target.exact || junctions[target.plugin].matches(typeDescription);
+    }
+
+    private BitSet declaredAnnotations(TypeDescription typeDescription) {
+        BitSet present = new BitSet(annotationIds.size());
+        for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+            Integer id = annotationIds.get(annotation.getAnnotationType().getActualName());
+            if (id != null) {
+                present.set(id);
+            }
+        }
+        return present;
+    }
+
+    /**
+     * @return the ids of the required super types the type has, including itself, as matched by
+     * {@link net.bytebuddy.matcher.ElementMatchers#hasSuperType(ElementMatcher)}.
+     */
+    private BitSet superTypes(TypeDescription typeDescription) {
+        BitSet present = new BitSet(superTypeIds.size());
+        collectSuperTypes(typeDescription, present);
+        return present;
+    }
+
+    private void collectSuperTypes(TypeDefinition type, BitSet present) {
+        String name = type.asErasure().getName();
+        if (!name.startsWith("java.")) {
+            collectDeclaredSuperTypes(type, name, present);
+            return;
+        }
+        BitSet bootstrapPresent = bootstrapSuperTypes.get(name);
+        if (bootstrapPresent == null) {
+            bootstrapPresent = new BitSet(superTypeIds.size());
+            collectDeclaredSuperTypes(type, name, bootstrapPresent);
+            bootstrapSuperTypes.put(name, bootstrapPresent);
+        }
+        present.or(bootstrapPresent);
+    }
+
+    private void collectDeclaredSuperTypes(TypeDefinition type, String name, BitSet present) {
+        Integer id = superTypeIds.get(name);
+        if (id != null) {
+            present.set(id);
+        }
+        TypeDescription.Generic superClass = type.getSuperClass();
+        if (superClass != null) {
+            collectSuperTypes(superClass, present);
+        }
+        for (TypeDescription.Generic superInterface : type.getInterfaces()) {
+            collectSuperTypes(superInterface, present);
+        }
+    }
+
+    /**
+     * @return true if the match is fully represented by the indexes, false if it is only guarded by them.
+     */
+    private boolean index(IndirectMatch match, Target target, Builder trie) {
+        if (match instanceof MultiClassNameMatch) {
+            for (String className : ((MultiClassNameMatch) match).getMatchClassNames()) {
+                exactNames.computeIfAbsent(className, key -> new ArrayList<>(1)).add(target);
+            }
+        } else if (match instanceof PrefixMatch) {
+            for (String prefix : ((PrefixMatch) match).getPrefixes()) {
+                trie.node(prefix).prefixes.add(target);
+            }
+        } else if (match instanceof RegexMatch) {
+            for (String regex : ((RegexMatch) match).getRegexExpressions()) {
+                trie.node(literalPrefix(regex)).regexes.add(new RegexTarget(target, Pattern.compile(regex)));
+            }
+        } else if (match instanceof ClassAnnotationMatch) {
+            annotationMatches.add(new Requirement(
+                target, ids(((ClassAnnotationMatch) match).getAnnotations(), annotationIds)));
+        } else if (match instanceof HierarchyMatch) {
+            hierarchyMatches.add(new Requirement(
+                target, ids(((HierarchyMatch) match).getParentTypes(), superTypeIds)));
+        } else if (match instanceof LogicalOrMatch) {
+            boolean exact = true;
+            for (IndirectMatch operand : ((LogicalOrMatch) match).getIndirectMatches()) {
+                exact &= index(operand, target, trie);
+            }
+            return exact;
+        } else if (match instanceof LogicalAndMatch) {
+            IndirectMatch guard = null;
+            for (IndirectMatch operand : ((LogicalAndMatch) match).getIndirectMatches()) {
+                if (guard == null || cost(operand) < cost(guard)) {
+                    guard = operand;
+                }
+            }
+            index(guard, new Target(target.plugin, false), trie);
+            return false;
+        }
+        return target.exact;
+    }
+
+    /**
+     * @return the cost to check the match through the indexes, or {@link #NOT_INDEXABLE}.
+     */
+    private static int cost(IndirectMatch match) {
+        if (match instanceof MultiClassNameMatch || match instanceof PrefixMatch || match instanceof RegexMatch) {
+            return NAME_COST;
+        } else if (match instanceof ClassAnnotationMatch) {
+            return ANNOTATION_COST;
+        } else if (match instanceof HierarchyMatch) {
+            return HIERARCHY_COST;
+        } else if (match instanceof LogicalOrMatch) {
+            int cost = NAME_COST;
+            for (IndirectMatch operand : ((LogicalOrMatch) match).getIndirectMatches()) {
+                cost = Math.max(cost, cost(operand));
+            }
+            return cost;
+        } else if (match instanceof LogicalAndMatch) {
+            int cost = NOT_INDEXABLE;
+            for (IndirectMatch operand : ((LogicalAndMatch) match).getIndirectMatches()) {
+                cost = Math.min(cost, cost(operand));
+            }
+            return cost;
+        }
+        return NOT_INDEXABLE;
+    }
+
+    private static int[] ids(String[] names, Map<String, Integer> ids) {
+        int[] result = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            result[i] = ids.computeIfAbsent(names[i], key -> ids.size());
+        }
+        return result;
+    }
+
+    /**
+     * @return the chars every string matched by the regular expression starts with, as far as it can be told simply.
+     */
+    static String literalPrefix(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        int position = regex.startsWith("^") ? 1 : 0;
+        while (position < regex.length()) {
+            char c = regex.charAt(position);
+            int next = position + 1;
+            if (c == '\\') {
+                if (next == regex.length() || Character.isLetterOrDigit(regex.charAt(next))) {
+                    break;
+                }
+                c = regex.charAt(next++);
+            } else if (".[](){}*+?^$".indexOf(c) >= 0) {
+                break;
+            }
+            if (next < regex.length() && "?*{".indexOf(regex.charAt(next)) >= 0) {
+                break;
+            }
+            prefix.append(c);
+            if (next < regex.length() && regex.charAt(next) == '+') {
+                break;
+            }
+            position = next;
+        }
+        return prefix.toString();
+    }
+
+    private static class Target {
+        private final int plugin;
+        /**
+         * True if the plugin matches once the target is hit, false if its matcher has to be checked.
+         */
+        private final boolean exact;
+
+        private Target(int plugin, boolean exact) {
+            this.plugin = plugin;
+            this.exact = exact;
+        }
+    }
+
+    private static class RegexTarget extends Target {
+        private final Pattern pattern;
+
+        private RegexTarget(Target target, Pattern pattern) {
+            super(target.plugin, target.exact);
+            this.pattern = pattern;
+        }
+    }
+
+    private static class Requirement {
+        private final Target target;
+        private final int[] ids;
+
+        private Requirement(Target target, int[] ids) {
+            this.target = target;
+            this.ids = ids;
+        }
+
+        private boolean isSatisfied(BitSet present) {
+            for (int id : ids) {
+                if (!present.get(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final Target[] prefixes;
+        private final RegexTarget[] regexes;
+
+        private Node(char[] keys, Node[] children, Target[] prefixes, RegexTarget[] regexes) {
+            this.keys = keys;
+            this.children = children;
+            this.prefixes = prefixes;
+            this.regexes = regexes;
+        }
+
+        private Node child(char c) {
+            final int index = Arrays.binarySearch(keys, c);
+            return index < 0 ? null : children[index];
+        }
+    }
+
+    private static final class Builder {
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+        private final List<Target> prefixes = new ArrayList<>();
+        private final List<RegexTarget> regexes = new ArrayList<>();
+
+        private Builder node(String prefix) {
+            Builder node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Builder());
+            }
+            return node;
+        }
+
+        private Node build() {
+            final char[] keys = new char[children.size()];
+            final Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+            return new Node(keys, nodes, prefixes.toArray(new Target[0]), regexes.toArray(new RegexTarget[0]));
+        }
+    }
+}
@@ -20,8 +20,15 @@ package org.apache.skywalking.apm.agent.core.plugin;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
@@ -58,27 +65,26 @@ public class PluginBootstrap {
             return new ArrayList<AbstractClassEnhancePluginDefine>();
         }
 
-        for (URL pluginUrl : resources) {
+        List<AbstractClassEnhancePluginDefine> plugins;
+        final int parallelism = Config.Plugin.BOOTSTRAP_PARALLELISM;
+        if (parallelism > 1) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("SkywalkingAgent-PluginBootstrap-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
             try {
-                PluginCfg.INSTANCE.load(pluginUrl.openStream());
-            } catch (Throwable t) {
-                LOGGER.error(t, "plugin file [{}] init failure.", pluginUrl);
+                List<List<PluginDefine>> pluginDefines = inParallel(pool, resources, PluginBootstrap::loadPluginCfg);
+                pluginDefines.forEach(PluginCfg.INSTANCE::load);
+                plugins = loadPlugins(PluginCfg.INSTANCE.getPluginClassList(), AgentClassLoader.getDefault(), pool);
+            } finally {
+                pool.shutdown();
             }
-        }
-
-        List<PluginDefine> pluginClassList = PluginCfg.INSTANCE.getPluginClassList();
-
-        List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<AbstractClassEnhancePluginDefine>();
-        for (PluginDefine pluginDefine : pluginClassList) {
-            try {
-                LOGGER.debug("loading plugin class {}.", pluginDefine.getDefineClass());
-                AbstractClassEnhancePluginDefine plugin = (AbstractClassEnhancePluginDefine) Class.forName(pluginDefine.getDefineClass(), true, AgentClassLoader
-                    .getDefault()).newInstance();
-                plugin.setPluginName(pluginDefine.getName());
-                plugins.add(plugin);
-            } catch (Throwable t) {
-                LOGGER.error(t, "load plugin [{}] failure.", pluginDefine.getDefineClass());
+        } else {
+            for (URL pluginUrl : resources) {
+                PluginCfg.INSTANCE.load(loadPluginCfg(pluginUrl));
             }
+            plugins = loadPlugins(PluginCfg.INSTANCE.getPluginClassList(), AgentClassLoader.getDefault(), null);
         }
 
         plugins.addAll(DynamicPluginLoader.INSTANCE.load(AgentClassLoader.getDefault()));
@@ -87,4 +93,54 @@ public class PluginBootstrap {
 
     }
 
+    /**
+     * Instantiate the plugins in the order of the definitions, one by one if the pool is null, or in parallel on the
+     * pool. The plugins failed to load are skipped.
+     */
+    static List<AbstractClassEnhancePluginDefine> loadPlugins(List<PluginDefine> pluginDefines,
+                                                              ClassLoader classLoader,
+                                                              ForkJoinPool pool) {
+        List<AbstractClassEnhancePluginDefine> plugins;
+        if (pool == null) {
+            plugins = new ArrayList<AbstractClassEnhancePluginDefine>(pluginDefines.size());
+            for (PluginDefine pluginDefine : pluginDefines) {
+                plugins.add(loadPlugin(pluginDefine, classLoader));
+            }
+        } else {
+            plugins = new ArrayList<AbstractClassEnhancePluginDefine>(
+                inParallel(pool, pluginDefines, pluginDefine -> loadPlugin(pluginDefine, classLoader)));
+        }
+        plugins.removeIf(Objects::isNull);
+        return plugins;
+    }
+
+    private static List<PluginDefine> loadPluginCfg(URL pluginUrl) {
+        try {
+            return PluginCfg.parse(pluginUrl.openStream());
+        } catch (Throwable t) {
+            LOGGER.error(t, "plugin file [{}] init failure.", pluginUrl);
+            return Collections.emptyList();
+        }
+    }
+
+    private static AbstractClassEnhancePluginDefine loadPlugin(PluginDefine pluginDefine, ClassLoader classLoader) {
+        try {
+            LOGGER.debug("loading plugin class {}.", pluginDefine.getDefineClass());
+            AbstractClassEnhancePluginDefine plugin = (AbstractClassEnhancePluginDefine) Class.forName(
+                pluginDefine.getDefineClass(), true, classLoader).newInstance();
+            plugin.setPluginName(pluginDefine.getName());
+            return plugin;
+        } catch (Throwable t) {
+            LOGGER.error(t, "load plugin [{}] failure.", pluginDefine.getDefineClass());
+            return null;
+        }
+    }
+
+    /**
+     * Map the items on the pool, the results keep the order of the items.
+     */
+    private static <T, R> List<R> inParallel(ForkJoinPool pool, List<T> items, Function<T, R> function) {
+        // The parallel stream runs on the pool which it is submitted to.
+        return pool.submit(() -> items.parallelStream().map(function).collect(Collectors.toList())).join();
+    }
 }
@@ -38,6 +38,18 @@ public enum PluginCfg {
     private PluginSelector pluginSelector = new PluginSelector();
 
     void load(InputStream input) throws IOException {
+        pluginClassList.addAll(parse(input));
+    }
+
+    void load(List<PluginDefine> pluginDefines) {
+        pluginClassList.addAll(pluginDefines);
+    }
+
+    /**
+     * Parse the plugin definitions, without adding them into this config. Thread safe.
+     */
+    static List<PluginDefine> parse(InputStream input) throws IOException {
+        List<PluginDefine> pluginDefines = new ArrayList<PluginDefine>();
         try {
             BufferedReader reader = new BufferedReader(new InputStreamReader(input));
             String pluginDefine;
@@ -47,7 +59,7 @@ public enum PluginCfg {
                         continue;
                     }
                     PluginDefine plugin = PluginDefine.build(pluginDefine);
-                    pluginClassList.add(plugin);
+                    pluginDefines.add(plugin);
                 } catch (IllegalPluginDefineException e) {
                     LOGGER.error(e, "Failed to format plugin({}) define.", pluginDefine);
                 }
@@ -55,6 +67,7 @@ public enum PluginCfg {
         } finally {
             input.close();
         }
+        return pluginDefines;
     }
 
     public List<PluginDefine> getPluginClassList() {
@@ -19,11 +19,11 @@
 package org.apache.skywalking.apm.agent.core.plugin;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import net.bytebuddy.description.NamedElement;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
 import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
@@ -43,9 +43,11 @@ public class PluginFinder {
     private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> nameMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
     private final List<AbstractClassEnhancePluginDefine> signatureMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
     private final List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
+    private final ClassMatchIndex signatureMatchIndex;
     private static boolean IS_PLUGIN_INIT_COMPLETED = false;
 
     public PluginFinder(List<AbstractClassEnhancePluginDefine> plugins) {
+        List<ClassMatch> signatureMatches = new ArrayList<ClassMatch>();
         for (AbstractClassEnhancePluginDefine plugin : plugins) {
             ClassMatch match = plugin.enhanceClass();
 
@@ -63,12 +65,14 @@ public class PluginFinder {
                 pluginDefines.add(plugin);
             } else {
                 signatureMatchDefine.add(plugin);
+                signatureMatches.add(match);
             }
 
             if (plugin.isBootstrapInstrumentation()) {
                 bootstrapClassMatchDefine.add(plugin);
             }
         }
+        signatureMatchIndex = new ClassMatchIndex(signatureMatches);
     }
 
     public List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription) {
@@ -78,7 +82,9 @@ public class PluginFinder {
             matchedPlugins.addAll(nameMatchDefine.get(typeName));
         }
 
-        for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefine) {
+        BitSet candidates = signatureMatchIndex.candidates(typeDescription);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            AbstractClassEnhancePluginDefine pluginDefine = signatureMatchDefine.get(i);
             IndirectMatch match = (IndirectMatch) pluginDefine.enhanceClass();
             if (match.isMatch(typeDescription)) {
                 matchedPlugins.add(pluginDefine);
@@ -89,18 +95,12 @@ public class PluginFinder {
     }
 
     public ElementMatcher<? super TypeDescription> buildMatch() {
-        ElementMatcher.Junction judge = new AbstractJunction<NamedElement>() {
+        ElementMatcher.Junction judge = new AbstractJunction<TypeDescription>() {
             @Override
-            public boolean matches(NamedElement target) {
-                return nameMatchDefine.containsKey(target.getActualName());
+            public boolean matches(TypeDescription target) {
+                return nameMatchDefine.containsKey(target.getActualName()) || signatureMatchIndex.matches(target);
             }
         };
-        for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
-            ClassMatch match = define.enhanceClass();
-            if (match instanceof IndirectMatch) {
-                judge = judge.or(((IndirectMatch) match).buildJunction());
-            }
-        }
         // Filter out all matchers returns to exclude pure interface types.
         judge = not(isInterface()).and(judge);
         return new ProtectiveShieldMatcher(judge);
@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.utility.JavaModule;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.SnifferConfigInitializer;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * The <code>TransformationCache</code> remembers the classes which are not matched by any plugin, by the class names
+ * and the digests of the class files, and saves them in {@link Config.Plugin#TRANSFORMATION_CACHE_PATH}. At the next
+ * startup, a class with the same name and digest is ignored as the first ignore matcher, before its type description
+ * is parsed and its type hierarchy is resolved by the plugin matchers.
+ * <p>
+ * Only the verdict of no match is cached. The enhanced classes delegate to the interceptors through the static fields
+ * initialized by ByteBuddy at runtime, so their bytecode can't be reused across JVMs. The cache is keyed by the
+ * fingerprint of the agent jars, the plugin jars and the plugin settings, and is dropped once any of them changes.
+ * <p>
+ * The verdict of a class also depends on its super types, which may be defined in the other jars. So only the classes
+ * of the bootstrap and the system class loaders are cached, whose super types are in the JDK or the application class
+ * path, and the fingerprint includes the JDK version and the jars of the application class path. The classes of the
+ * other class loaders, such as the web applications and the fat jars, are always matched by the plugins.
+ */
+public enum TransformationCache implements AgentBuilder.RawMatcher {
+    INSTANCE;
+
+    private static final ILog LOGGER = LogManager.getLogger(TransformationCache.class);
+    private static final int CACHE_VERSION = 1;
+
+    /**
+     * The class name to the class file digest of the classes not matched by any plugin.
+     */
+    private final Map<String, Long> ignoredClasses = new ConcurrentHashMap<>();
+    /**
+     * The class being transformed in the current thread.
+     */
+    private final ThreadLocal<Lookup> currentLookup = ThreadLocal.withInitial(Lookup::new);
+    /**
+     * The system class loader and its parents, whose classes are cached.
+     */
+    private volatile ClassLoader[] cachedClassLoaders = new ClassLoader[0];
+    private volatile File cacheFile;
+    private long fingerprint;
+    private volatile boolean changed;
+
+    /**
+     * Read the cache file, if {@link Config.Plugin#TRANSFORMATION_CACHE_PATH} is set.
+     */
+    public void init() {
+        if (StringUtil.isBlank(Config.Plugin.TRANSFORMATION_CACHE_PATH)) {
+            return;
+        }
+        try {
+            File agentDirectory = AgentPackagePath.getPath();
+            File file = new File(Config.Plugin.TRANSFORMATION_CACHE_PATH);
+            init(file.isAbsolute() ? file : new File(agentDirectory, Config.Plugin.TRANSFORMATION_CACHE_PATH),
+                 fingerprint(agentDirectory));
+        } catch (AgentPackageNotFoundException e) {
+            LOGGER.warn(e, "The transformation cache is disabled, as the agent package is not found.");
+        }
+    }
+
+    void init(File cacheFile, long fingerprint) {
+        this.fingerprint = fingerprint;
+        this.cachedClassLoaders = systemClassLoaders();
+        ignoredClasses.clear();
+        changed = false;
+        if (cacheFile.exists()) {
+            try {
+                if (readCache(cacheFile)) {
+                    LOGGER.info("{} ignored classes are read from the transformation cache {}.",
+                                ignoredClasses.size(), cacheFile
+                    );
+                } else {
+                    LOGGER.info("The transformation cache {} is expired, rebuild it.", cacheFile);
+                }
+            } catch (IOException | RuntimeException e) {
+                ignoredClasses.clear();
+                LOGGER.warn(e, "The transformation cache {} can't be read, rebuild it.", cacheFile);
+            }
+        }
+        this.cacheFile = cacheFile;
+    }
+
+    public boolean isEnabled() {
+        return cacheFile != null;
+    }
+
+    /**
+     * @return the strategy to digest the class files before they are transformed.
+     */
+    public AgentBuilder.ClassFileBufferStrategy classFileBufferStrategy() {
+        return new DigestingClassFileBufferStrategy(AgentBuilder.ClassFileBufferStrategy.Default.RETAINING);
+    }
+
+    /**
+     * @return the listener to record the ignored classes.
+     */
+    public AgentBuilder.Listener listener() {
+        return new IgnoredClassRecorder();
+    }
+
+    /**
+     * Ignore the class being loaded at the first time, if it is ignored with the same class file digest before.
+     */
+    @Override
+    public boolean matches(TypeDescription typeDescription,
+                           ClassLoader classLoader,
+                           JavaModule module,
+                           Class<?> classBeingRedefined,
+                           ProtectionDomain protectionDomain) {
+        if (classBeingRedefined != null) {
+            return false;
+        }
+        Lookup lookup = currentLookup.get();
+        return lookup.hit && typeDescription.getName().equals(lookup.name);
+    }
+
+    /**
+     * Save the ignored classes into the cache file, if anything changed since the cache is read.
+     */
+    public void save() {
+        final File file = cacheFile;
+        if (file == null || !changed) {
+            return;
+        }
+        changed = false;
+        File parent = file.getAbsoluteFile().getParentFile();
+        File tempFile = null;
+        try {
+            if (!parent.exists()) {
+                parent.mkdirs();
+            }
+            tempFile = File.createTempFile(file.getName(), ".tmp", parent);
+            try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tempFile), 64 * 1024))) {
+                output.writeInt(CACHE_VERSION);
+                output.writeLong(fingerprint);
+                Map<String, Long> classes = new HashMap<>(ignoredClasses);
+                output.writeInt(classes.size());
+                for (Map.Entry<String, Long> entry : classes.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeLong(entry.getValue());
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.info("{} ignored classes are saved in the transformation cache {}.", ignoredClasses.size(), file);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn(e, "The transformation cache {} can't be saved.", file);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private boolean readCache(File file) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())));
+        if (input.readInt() != CACHE_VERSION || input.readLong() != fingerprint) {
+            return false;
+        }
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            ignoredClasses.put(input.readUTF(), input.readLong());
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the verdicts of the classes defined by the given class loader are cached.
+     */
+    private boolean isCached(ClassLoader classLoader) {
+        if (classLoader == null) {
+            return true;
+        }
+        for (ClassLoader cachedClassLoader : cachedClassLoaders) {
+            if (cachedClassLoader == classLoader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ClassLoader[] systemClassLoaders() {
+        List<ClassLoader> classLoaders = new ArrayList<>(3);
+        for (ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+             classLoader != null; classLoader = classLoader.getParent()) {
+            classLoaders.add(classLoader);
+        }
+        return classLoaders.toArray(new ClassLoader[0]);
+    }
+
+    /**
+     * @return the fingerprint of the jars in the agent directory and the mounted plugin folders, the plugin settings,
+     * the JDK version and the entries of the application class path.
+     */
+    static long fingerprint(File agentDirectory) {
+        StringBuilder fingerprint = new StringBuilder();
+        appendJars(fingerprint, agentDirectory);
+        for (String mountFolder : Config.Plugin.MOUNT) {
+            appendJars(fingerprint, new File(agentDirectory, mountFolder));
+        }
+        SnifferConfigInitializer.getSettings("plugin.").forEach(
+            (key, value) -> fingerprint.append(key).append('=').append(value).append('\n'));
+        fingerprint.append(System.getProperty("java.vm.version")).append('\n');
+        String classPath = System.getProperty("java.class.path");
+        if (StringUtil.isNotEmpty(classPath)) {
+            for (String path : classPath.split(File.pathSeparator)) {
+                appendFile(fingerprint, new File(path));
+            }
+        }
+        return digest(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendJars(StringBuilder fingerprint, File folder) {
+        String[] jarFileNames = folder.list((dir, name) -> name.endsWith(".jar"));
+        if (jarFileNames == null) {
+            return;
+        }
+        Arrays.sort(jarFileNames);
+        for (String fileName : jarFileNames) {
+            appendFile(fingerprint, new File(folder, fileName));
+        }
+    }
+
+    private static void appendFile(StringBuilder fingerprint, File file) {
+        fingerprint.append(file.getAbsolutePath())
+                   .append(':').append(file.length())
+                   .append(':').append(file.lastModified())
+                   .append('\n');
+    }
+
+    /**
+     * @return the 64 bits digest combined by the CRC32 and the Adler32 checksums of the bytes.
+     */
+    static long digest(byte[] bytes) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, bytes.length);
+        Adler32 adler32 = new Adler32();
+        adler32.update(bytes, 0, bytes.length);
+        return crc32.getValue() << 32 | adler32.getValue();
+    }
+
+    private static class Lookup {
+        private String name;
+        private long digest;
+        private boolean hit;
+    }
+
+    /**
+     * Digest the class file, and look up the cache, before the type description of the class is resolved.
+     */
+    private static class DigestingClassFileBufferStrategy implements AgentBuilder.ClassFileBufferStrategy {
+        private final AgentBuilder.ClassFileBufferStrategy delegate;
+
+        private DigestingClassFileBufferStrategy(AgentBuilder.ClassFileBufferStrategy delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ClassFileLocator resolve(String name,
+                                        byte[] binaryRepresentation,
+                                        ClassLoader classLoader,
+                                        JavaModule module,
+                                        ProtectionDomain protectionDomain) {
+            Lookup lookup = INSTANCE.currentLookup.get();
+            if (INSTANCE.isCached(classLoader)) {
+                lookup.name = name;
+                lookup.digest = digest(binaryRepresentation);
+                Long ignoredDigest = INSTANCE.ignoredClasses.get(name);
+                lookup.hit = ignoredDigest != null && ignoredDigest == lookup.digest;
+            } else {
+                lookup.name = null;
+                lookup.hit = false;
+            }
+            return delegate.resolve(name, binaryRepresentation, classLoader, module, protectionDomain);
+        }
+
+        @Override
+        public TypePool typePool(AgentBuilder.PoolStrategy poolStrategy,
+                                 ClassFileLocator classFileLocator,
+                                 ClassLoader classLoader,
+                                 String name) {
+            return delegate.typePool(poolStrategy, classFileLocator, classLoader, name);
+        }
+    }
+
+    /**
+     * Record the classes loaded at the first time and ignored by all plugins.
+     */
+    private static class IgnoredClassRecorder extends AgentBuilder.Listener.Adapter {
+        @Override
+        public void onIgnored(TypeDescription typeDescription,
+                              ClassLoader classLoader,
+                              JavaModule module,
+                              boolean loaded) {
+            Lookup lookup = INSTANCE.currentLookup.get();
+            if (loaded || lookup.hit || !typeDescription.getName().equals(lookup.name)) {
+                return;
+            }
+            Long previous = INSTANCE.ignoredClasses.put(lookup.name, lookup.digest);
+            if (previous == null || previous != lookup.digest) {
+                INSTANCE.changed = true;
+            }
+        }
+
+        @Override
+        public void onComplete(String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
+            Lookup lookup = INSTANCE.currentLookup.get();
+            lookup.name = null;
+            lookup.hit = false;
+        }
+    }
+}
@@ -75,13 +75,14 @@ public class InstanceMethodInterWithOverrideArgsTemplate {
         EnhancedInstance targetObject = (EnhancedInstance) obj;
 
         prepare();
+        Class<?>[] argumentsTypes = method.getParameterTypes();
 
         long interceptorTimeCost = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
         MethodInterceptResult result = new MethodInterceptResult();
         try {
             if (INTERCEPTOR != null) {
-                INTERCEPTOR.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(), result);
+                INTERCEPTOR.beforeMethod(targetObject, method, allArguments, argumentsTypes, result);
             }
         } catch (Throwable t) {
             if (LOGGER != null) {
@@ -102,7 +103,7 @@ public class InstanceMethodInterWithOverrideArgsTemplate {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
             try {
                 if (INTERCEPTOR != null) {
-                    INTERCEPTOR.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t);
+                    INTERCEPTOR.handleMethodException(targetObject, method, allArguments, argumentsTypes, t);
                 }
             } catch (Throwable t2) {
                 if (LOGGER != null) {
@@ -116,7 +117,7 @@ public class InstanceMethodInterWithOverrideArgsTemplate {
             long startTimeOfMethodAfterInter = System.nanoTime();
             try {
                 if (INTERCEPTOR != null) {
-                    ret = INTERCEPTOR.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret);
+                    ret = INTERCEPTOR.afterMethod(targetObject, method, allArguments, argumentsTypes, ret);
                 }
             } catch (Throwable t) {
                 if (LOGGER != null) {
@@ -71,13 +71,14 @@ public class StaticMethodInterTemplate {
     public static Object intercept(@Origin Class<?> clazz, @AllArguments Object[] allArguments, @Origin Method method,
         @SuperCall Callable<?> zuper) throws Throwable {
         prepare();
+        Class<?>[] argumentsTypes = method.getParameterTypes();
 
         long interceptorTimeCost = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
         MethodInterceptResult result = new MethodInterceptResult();
         try {
             if (INTERCEPTOR != null) {
-                INTERCEPTOR.beforeMethod(clazz, method, allArguments, method.getParameterTypes(), result);
+                INTERCEPTOR.beforeMethod(clazz, method, allArguments, argumentsTypes, result);
             }
         } catch (Throwable t) {
             LOGGER.error(t, "class[{}] before static method[{}] intercept failure", clazz, method.getName());
@@ -96,7 +97,7 @@ public class StaticMethodInterTemplate {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
             try {
                 if (INTERCEPTOR != null) {
-                    INTERCEPTOR.handleMethodException(clazz, method, allArguments, method.getParameterTypes(), t);
+                    INTERCEPTOR.handleMethodException(clazz, method, allArguments, argumentsTypes, t);
                 }
             } catch (Throwable t2) {
                 LOGGER.error(t2, "class[{}] handle static method[{}] exception failure", clazz, method.getName(), t2.getMessage());
@@ -108,7 +109,7 @@ public class StaticMethodInterTemplate {
             long startTimeOfMethodAfterInter = System.nanoTime();
             try {
                 if (INTERCEPTOR != null) {
-                    ret = INTERCEPTOR.afterMethod(clazz, method, allArguments, method.getParameterTypes(), ret);
+                    ret = INTERCEPTOR.afterMethod(clazz, method, allArguments, argumentsTypes, ret);
                 }
             } catch (Throwable t) {
                 LOGGER.error(t, "class[{}] after static method[{}] intercept failure:{}", clazz, method.getName(), t.getMessage());
@@ -67,13 +67,14 @@ public class InstanceMethodInterV2Template {
         EnhancedInstance targetObject = (EnhancedInstance) obj;
 
         prepare();
+        Class<?>[] argumentsTypes = method.getParameterTypes();
 
         long interceptorTimeCost = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
         MethodInvocationContext context = new MethodInvocationContext();
         try {
             if (INTERCEPTOR != null) {
-                INTERCEPTOR.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(), context);
+                INTERCEPTOR.beforeMethod(targetObject, method, allArguments, argumentsTypes, context);
             }
         } catch (Throwable t) {
             if (LOGGER != null) {
@@ -94,7 +95,7 @@ public class InstanceMethodInterV2Template {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
             try {
                 if (INTERCEPTOR != null) {
-                    INTERCEPTOR.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t, context);
+                    INTERCEPTOR.handleMethodException(targetObject, method, allArguments, argumentsTypes, t, context);
                 }
             } catch (Throwable t2) {
                 if (LOGGER != null) {
@@ -108,7 +109,7 @@ public class InstanceMethodInterV2Template {
             long startTimeOfMethodAfterInter = System.nanoTime();
             try {
                 if (INTERCEPTOR != null) {
-                    ret = INTERCEPTOR.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret, context);
+                    ret = INTERCEPTOR.afterMethod(targetObject, method, allArguments, argumentsTypes, ret, context);
                 }
             } catch (Throwable t) {
                 if (LOGGER != null) {
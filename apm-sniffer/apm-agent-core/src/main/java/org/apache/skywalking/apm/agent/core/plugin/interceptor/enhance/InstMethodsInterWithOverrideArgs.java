@@ -46,6 +46,10 @@ public class InstMethodsInterWithOverrideArgs {
      * Classloader appointment mechanism.
      */
     private InstanceMethodsAroundInterceptor interceptor;
+    /**
+     * The parameter types of the intercepted methods, computed once per method.
+     */
+    private final ParameterTypesCache parameterTypesCache = new ParameterTypesCache();
 
     /**
      * @param instanceMethodsAroundInterceptorClassName class full name.
@@ -75,11 +79,13 @@ public class InstMethodsInterWithOverrideArgs {
         @Morph OverrideCallable zuper) throws Throwable {
         EnhancedInstance targetObject = (EnhancedInstance) obj;
 
+        Class<?>[] argumentsTypes = parameterTypesCache.get(method);
+
         long interceptorTimeCost = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
         MethodInterceptResult result = new MethodInterceptResult();
         try {
-            interceptor.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(), result);
+            interceptor.beforeMethod(targetObject, method, allArguments, argumentsTypes, result);
         } catch (Throwable t) {
             LOGGER.error(t, "class[{}] before method[{}] intercept failure", obj.getClass(), method.getName());
             AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
@@ -96,7 +102,7 @@ public class InstMethodsInterWithOverrideArgs {
         } catch (Throwable t) {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
             try {
-                interceptor.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t);
+                interceptor.handleMethodException(targetObject, method, allArguments, argumentsTypes, t);
             } catch (Throwable t2) {
                 LOGGER.error(t2, "class[{}] handle method[{}] exception failure", obj.getClass(), method.getName());
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
@@ -106,7 +112,7 @@ public class InstMethodsInterWithOverrideArgs {
         } finally {
             long startTimeOfMethodAfterInter = System.nanoTime();
             try {
-                ret = interceptor.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret);
+                ret = interceptor.afterMethod(targetObject, method, allArguments, argumentsTypes, ret);
             } catch (Throwable t) {
                 LOGGER.error(t, "class[{}] after method[{}] intercept failure", obj.getClass(), method.getName());
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
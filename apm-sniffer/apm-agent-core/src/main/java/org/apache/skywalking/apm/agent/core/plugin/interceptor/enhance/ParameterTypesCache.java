@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ParameterTypesCache keeps the parameter types of the methods intercepted by one interceptor, as {@link
+ * Method#getParameterTypes()} clones the array on every call. The {@link Method} bound by byte-buddy's {@code @Origin}
+ * is cached in the enhanced class, so the same instance is used for every call, and the last intercepted method is
+ * checked by identity first.
+ * <p>
+ * The returned array is shared by all calls of the method, the interceptors should never modify it.
+ */
+public final class ParameterTypesCache {
+    private final ConcurrentHashMap<Method, Class<?>[]> parameterTypes = new ConcurrentHashMap<>();
+    private volatile Entry last;
+
+    public Class<?>[] get(Method method) {
+        Entry entry = last;
+        if (entry != null && entry.method == method) {
+            return entry.parameterTypes;
+        }
+        Class<?>[] types = parameterTypes.get(method);
+        if (types == null) {
+            types = method.getParameterTypes();
+            Class<?>[] previous = parameterTypes.putIfAbsent(method, types);
+            if (previous != null) {
+                types = previous;
+            }
+        }
+        last = new Entry(method, types);
+        return types;
+    }
+
+    private static final class Entry {
+        private final Method method;
+        private final Class<?>[] parameterTypes;
+
+        private Entry(Method method, Class<?>[] parameterTypes) {
+            this.method = method;
+            this.parameterTypes = parameterTypes;
+        }
+    }
+}
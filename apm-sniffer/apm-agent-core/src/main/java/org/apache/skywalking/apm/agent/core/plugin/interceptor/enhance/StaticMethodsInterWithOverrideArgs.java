@@ -44,6 +44,15 @@ public class StaticMethodsInterWithOverrideArgs {
      * books about Classloader or Classloader appointment mechanism.
      */
     private String staticMethodsAroundInterceptorClassName;
+    /**
+     * The interceptor instance, loaded at the first call. The class loader of the enhanced class is fixed, as every
+     * enhanced class has its own instance of this.
+     */
+    private volatile StaticMethodsAroundInterceptor interceptor;
+    /**
+     * The parameter types of the intercepted methods, computed once per method.
+     */
+    private final ParameterTypesCache parameterTypesCache = new ParameterTypesCache();
 
     /**
      * Set the name of {@link StaticMethodsInterWithOverrideArgs#staticMethodsAroundInterceptorClassName}
@@ -70,14 +79,14 @@ public class StaticMethodsInterWithOverrideArgs {
     @RuntimeType
     public Object intercept(@Origin Class<?> clazz, @AllArguments Object[] allArguments, @Origin Method method,
         @Morph OverrideCallable zuper) throws Throwable {
-        StaticMethodsAroundInterceptor interceptor = InterceptorInstanceLoader.load(staticMethodsAroundInterceptorClassName, clazz
-            .getClassLoader());
+        StaticMethodsAroundInterceptor interceptor = getInterceptor(clazz);
+        Class<?>[] argumentsTypes = parameterTypesCache.get(method);
 
         long interceptorTimeCost = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
         MethodInterceptResult result = new MethodInterceptResult();
         try {
-            interceptor.beforeMethod(clazz, method, allArguments, method.getParameterTypes(), result);
+            interceptor.beforeMethod(clazz, method, allArguments, argumentsTypes, result);
         } catch (Throwable t) {
             LOGGER.error(t, "class[{}] before static method[{}] intercept failure", clazz, method.getName());
             AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
@@ -94,7 +103,7 @@ public class StaticMethodsInterWithOverrideArgs {
         } catch (Throwable t) {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
             try {
-                interceptor.handleMethodException(clazz, method, allArguments, method.getParameterTypes(), t);
+                interceptor.handleMethodException(clazz, method, allArguments, argumentsTypes, t);
             } catch (Throwable t2) {
                 LOGGER.error(t2, "class[{}] handle static method[{}] exception failure", clazz, method.getName(), t2.getMessage());
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
@@ -104,7 +113,7 @@ public class StaticMethodsInterWithOverrideArgs {
         } finally {
             long startTimeOfMethodAfterInter = System.nanoTime();
             try {
-                ret = interceptor.afterMethod(clazz, method, allArguments, method.getParameterTypes(), ret);
+                ret = interceptor.afterMethod(clazz, method, allArguments, argumentsTypes, ret);
             } catch (Throwable t) {
                 LOGGER.error(t, "class[{}] after static method[{}] intercept failure:{}", clazz, method.getName(), t.getMessage());
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
@@ -115,4 +124,13 @@ public class StaticMethodsInterWithOverrideArgs {
 
         return ret;
     }
+
+    private StaticMethodsAroundInterceptor getInterceptor(Class<?> clazz) throws Throwable {
+        StaticMethodsAroundInterceptor loaded = interceptor;
+        if (loaded == null) {
+            loaded = InterceptorInstanceLoader.load(staticMethodsAroundInterceptorClassName, clazz.getClassLoader());
+            interceptor = loaded;
+        }
+        return loaded;
+    }
 }
@@ -28,6 +28,7 @@ import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ParameterTypesCache;
 import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 
@@ -42,6 +43,10 @@ public class InstMethodsInterV2 {
 
     private String pluginName;
     private InstanceMethodsAroundInterceptorV2 interceptor;
+    /**
+     * The parameter types of the intercepted methods, computed once per method.
+     */
+    private final ParameterTypesCache parameterTypesCache = new ParameterTypesCache();
 
     public InstMethodsInterV2(String pluginName, String instanceMethodsAroundInterceptorClassName, ClassLoader classLoader) {
         this.pluginName = pluginName;
@@ -57,11 +62,13 @@ public class InstMethodsInterV2 {
                             @Origin Method method) throws Throwable {
         EnhancedInstance targetObject = (EnhancedInstance) obj;
 
+        Class<?>[] argumentsTypes = parameterTypesCache.get(method);
+
         long interceptorTimeCost = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
         MethodInvocationContext context = new MethodInvocationContext();
         try {
-            interceptor.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(), context);
+            interceptor.beforeMethod(targetObject, method, allArguments, argumentsTypes, context);
         } catch (Throwable t) {
             LOGGER.error(t, "class[{}] before method[{}] intercept failure", obj.getClass(), method.getName());
             AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
@@ -78,7 +85,7 @@ public class InstMethodsInterV2 {
         } catch (Throwable t) {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
             try {
-                interceptor.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t, context);
+                interceptor.handleMethodException(targetObject, method, allArguments, argumentsTypes, t, context);
             } catch (Throwable t2) {
                 LOGGER.error(t2, "class[{}] handle method[{}] exception failure", obj.getClass(), method.getName());
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
@@ -88,7 +95,7 @@ public class InstMethodsInterV2 {
         } finally {
             long startTimeOfMethodAfterInter = System.nanoTime();
             try {
-                ret = interceptor.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret, context);
+                ret = interceptor.afterMethod(targetObject, method, allArguments, argumentsTypes, ret, context);
             } catch (Throwable t) {
                 LOGGER.error(t, "class[{}] after method[{}] intercept failure", obj.getClass(), method.getName());
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
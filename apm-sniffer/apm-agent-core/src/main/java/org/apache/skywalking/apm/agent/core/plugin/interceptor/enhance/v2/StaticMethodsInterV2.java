@@ -26,6 +26,7 @@ import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 import net.bytebuddy.implementation.bind.annotation.SuperCall;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ParameterTypesCache;
 import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 
@@ -45,6 +46,15 @@ public class StaticMethodsInterV2 {
      * books about Classloader or Classloader appointment mechanism.
      */
     private String staticMethodsAroundInterceptorClassName;
+    /**
+     * The interceptor instance, loaded at the first call. The class loader of the enhanced class is fixed, as every
+     * enhanced class has its own instance of this.
+     */
+    private volatile StaticMethodsAroundInterceptorV2 interceptor;
+    /**
+     * The parameter types of the intercepted methods, computed once per method.
+     */
+    private final ParameterTypesCache parameterTypesCache = new ParameterTypesCache();
 
     /**
      * Set the name of {@link StaticMethodsInterV2#staticMethodsAroundInterceptorClassName}
@@ -70,14 +80,14 @@ public class StaticMethodsInterV2 {
     @RuntimeType
     public Object intercept(@Origin Class<?> clazz, @AllArguments Object[] allArguments, @Origin Method method,
         @SuperCall Callable<?> zuper) throws Throwable {
-        StaticMethodsAroundInterceptorV2 interceptor = InterceptorInstanceLoader.load(staticMethodsAroundInterceptorClassName,
-                                                                                      clazz.getClassLoader());
+        StaticMethodsAroundInterceptorV2 interceptor = getInterceptor(clazz);
+        Class<?>[] argumentsTypes = parameterTypesCache.get(method);
 
         long interceptorTimeCost = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
         MethodInvocationContext context = new MethodInvocationContext();
         try {
-            interceptor.beforeMethod(clazz, method, allArguments, method.getParameterTypes(), context);
+            interceptor.beforeMethod(clazz, method, allArguments, argumentsTypes, context);
         } catch (Throwable t) {
             LOGGER.error(t, "class[{}] before static method[{}] intercept failure", clazz, method.getName());
             AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
@@ -94,7 +104,7 @@ public class StaticMethodsInterV2 {
         } catch (Throwable t) {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
             try {
-                interceptor.handleMethodException(clazz, method, allArguments, method.getParameterTypes(), t, context);
+                interceptor.handleMethodException(clazz, method, allArguments, argumentsTypes, t, context);
             } catch (Throwable t2) {
                 LOGGER.error(t2, "class[{}] handle static method[{}] exception failure", clazz, method.getName(), t2.getMessage());
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
@@ -104,7 +114,7 @@ public class StaticMethodsInterV2 {
         } finally {
             long startTimeOfMethodAfterInter = System.nanoTime();
             try {
-                ret = interceptor.afterMethod(clazz, method, allArguments, method.getParameterTypes(), ret, context);
+                ret = interceptor.afterMethod(clazz, method, allArguments, argumentsTypes, ret, context);
             } catch (Throwable t) {
                 LOGGER.error(t, "class[{}] after static method[{}] intercept failure:{}", clazz, method.getName(), t.getMessage());
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
@@ -115,4 +125,13 @@ public class StaticMethodsInterV2 {
 
         return ret;
     }
+
+    private StaticMethodsAroundInterceptorV2 getInterceptor(Class<?> clazz) throws Throwable {
+        StaticMethodsAroundInterceptorV2 loaded = interceptor;
+        if (loaded == null) {
+            loaded = InterceptorInstanceLoader.load(staticMethodsAroundInterceptorClassName, clazz.getClassLoader());
+            interceptor = loaded;
+        }
+        return loaded;
+    }
 }
@@ -18,8 +18,6 @@
 
 package org.apache.skywalking.apm.agent.core.plugin.loader;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
@@ -28,21 +26,17 @@ import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import lombok.RequiredArgsConstructor;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
 import org.apache.skywalking.apm.agent.core.boot.PluginConfig;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.SnifferConfigInitializer;
-import org.apache.skywalking.apm.agent.core.logging.api.ILog;
-import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.PluginBootstrap;
+import org.apache.skywalking.apm.util.StringUtil;
 
 /**
  * The <code>AgentClassLoader</code> represents a classloader, which is in charge of finding plugins and interceptors.
+ * The classes and resources are found through the {@link PluginJarIndex} of the mounted plugin jars.
  */
 public class AgentClassLoader extends ClassLoader {
 
@@ -53,15 +47,14 @@ public class AgentClassLoader extends ClassLoader {
         registerAsParallelCapable();
     }
 
-    private static final ILog LOGGER = LogManager.getLogger(AgentClassLoader.class);
     /**
      * The default class loader for the agent.
      */
     private static AgentClassLoader DEFAULT_LOADER;
 
     private List<File> classpath;
-    private List<Jar> allJars;
-    private ReentrantLock jarScanLock = new ReentrantLock();
+    private File cacheFile;
+    private volatile PluginJarIndex jarIndex;
 
     public static AgentClassLoader getDefault() {
         return DEFAULT_LOADER;
@@ -82,51 +75,43 @@ public class AgentClassLoader extends ClassLoader {
         }
     }
 
+    /**
+     * Save the plugin jar index and the loaded classes into the class cache file, if {@link
+     * Config.Plugin#CLASS_CACHE_PATH} is set, to be read by the next startup. Nothing happens if the cache is up to date.
+     */
+    public static void saveClassCache() {
+        PluginJarIndex.saveAll();
+    }
+
     public AgentClassLoader(ClassLoader parent) throws AgentPackageNotFoundException {
         super(parent);
         File agentDictionary = AgentPackagePath.getPath();
         classpath = new LinkedList<>();
         Config.Plugin.MOUNT.forEach(mountFolder -> classpath.add(new File(agentDictionary, mountFolder)));
+        if (StringUtil.isNotBlank(Config.Plugin.CLASS_CACHE_PATH)) {
+            cacheFile = new File(Config.Plugin.CLASS_CACHE_PATH);
+            if (!cacheFile.isAbsolute()) {
+                cacheFile = new File(agentDictionary, Config.Plugin.CLASS_CACHE_PATH);
+            }
+        }
     }
 
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
-        List<Jar> allJars = getAllJars();
         String path = name.replace('.', '/').concat(".class");
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(path);
-            if (entry == null) {
-                continue;
-            }
-            try {
-                URL classFileUrl = new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + path);
-                byte[] data;
-                try (final BufferedInputStream is = new BufferedInputStream(
-                    classFileUrl.openStream()); final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                    int ch;
-                    while ((ch = is.read()) != -1) {
-                        baos.write(ch);
-                    }
-                    data = baos.toByteArray();
-                }
-                return processLoadedClass(defineClass(name, data, 0, data.length));
-            } catch (IOException e) {
-                LOGGER.error(e, "find class fail.");
-            }
+        byte[] data = getJarIndex().findClassBytes(path);
+        if (data == null) {
+            throw new ClassNotFoundException("Can't find " + name);
         }
-        throw new ClassNotFoundException("Can't find " + name);
+        return processLoadedClass(defineClass(name, data, 0, data.length));
     }
 
     @Override
     protected URL findResource(String name) {
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                try {
-                    return new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name);
-                } catch (MalformedURLException ignored) {
-                }
+        for (PluginJarIndex.Jar jar : getJarIndex().findJars(name)) {
+            try {
+                return jar.getURL(name);
+            } catch (MalformedURLException ignored) {
             }
         }
         return null;
@@ -135,12 +120,8 @@ public class AgentClassLoader extends ClassLoader {
     @Override
     protected Enumeration<URL> findResources(String name) throws IOException {
         List<URL> allResources = new LinkedList<>();
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                allResources.add(new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name));
-            }
+        for (PluginJarIndex.Jar jar : getJarIndex().findJars(name)) {
+            allResources.add(jar.getURL(name));
         }
 
         final Iterator<URL> iterator = allResources.iterator();
@@ -169,44 +150,12 @@ public class AgentClassLoader extends ClassLoader {
         return loadedClass;
     }
 
-    private List<Jar> getAllJars() {
-        if (allJars == null) {
-            jarScanLock.lock();
-            try {
-                if (allJars == null) {
-                    allJars = doGetJars();
-                }
-            } finally {
-                jarScanLock.unlock();
-            }
-        }
-
-        return allJars;
-    }
-
-    private LinkedList<Jar> doGetJars() {
-        LinkedList<Jar> jars = new LinkedList<>();
-        for (File path : classpath) {
-            if (path.exists() && path.isDirectory()) {
-                String[] jarFileNames = path.list((dir, name) -> name.endsWith(".jar"));
-                for (String fileName : jarFileNames) {
-                    try {
-                        File file = new File(path, fileName);
-                        Jar jar = new Jar(new JarFile(file), file);
-                        jars.add(jar);
-                        LOGGER.info("{} loaded.", file.toString());
-                    } catch (IOException e) {
-                        LOGGER.error(e, "{} jar file can't be resolved", fileName);
-                    }
-                }
-            }
+    private PluginJarIndex getJarIndex() {
+        PluginJarIndex index = jarIndex;
+        if (index == null) {
+            index = PluginJarIndex.get(classpath, cacheFile);
+            jarIndex = index;
         }
-        return jars;
-    }
-
-    @RequiredArgsConstructor
-    private static class Jar {
-        private final JarFile jarFile;
-        private final File sourceFile;
+        return index;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,411 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * The <code>PluginJarIndex</code> maps the entry names of all jars in the classpath of {@link AgentClassLoader} to the
+ * jars containing them, so a class or a resource is found by one lookup, rather than by asking every jar. The index is
+ * shared by all agent class loaders with the same classpath.
+ * <p>
+ * When a cache file is given, the index and the bytes of the classes loaded through it are saved by {@link #save()},
+ * and the next startup reads them from the cache file, rather than opening and scanning the jars. The cache is keyed
+ * by the path, size and last modified time of every jar, so it is rebuilt once any jar is added, removed or changed.
+ * <p>
+ * Only the names of the loaded classes are kept. The bytes read from the cache file are released once the class is
+ * loaded, and the bytes to save are read from the jars again by {@link #save()}.
+ */
+class PluginJarIndex {
+    private static final ILog LOGGER = LogManager.getLogger(PluginJarIndex.class);
+    private static final int CACHE_VERSION = 2;
+    private static final Map<List<File>, PluginJarIndex> INDEXES = new HashMap<>();
+
+    private final Jar[] jars;
+    /**
+     * The entry name to the {@link Jar}, or to the Jar[] in classpath order if more than one jar has the entry.
+     */
+    private final Map<String, Object> entries;
+    private final File cacheFile;
+    /**
+     * The bytes read from the cache file, of the classes not loaded yet.
+     */
+    private final Map<String, byte[]> cachedClasses = new ConcurrentHashMap<>();
+    /**
+     * The paths of the classes loaded through this index, to be saved.
+     */
+    private final Set<String> loadedClasses = ConcurrentHashMap.newKeySet();
+    private volatile boolean cacheChanged;
+
+    private PluginJarIndex(Jar[] jars, Map<String, Object> entries, File cacheFile, boolean cacheChanged) {
+        this.jars = jars;
+        this.entries = entries;
+        this.cacheFile = cacheFile;
+        this.cacheChanged = cacheChanged;
+    }
+
+    /**
+     * @param classpath the folders including the jars.
+     * @param cacheFile the startup cache file, null means no cache.
+     * @return the index shared by the loaders with the same classpath.
+     */
+    static PluginJarIndex get(List<File> classpath, File cacheFile) {
+        synchronized (INDEXES) {
+            PluginJarIndex index = INDEXES.get(classpath);
+            if (index == null) {
+                index = build(listJarFiles(classpath), cacheFile);
+                INDEXES.put(new ArrayList<>(classpath), index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Save the caches of all indexes which loaded new classes since the cache is read.
+     */
+    static void saveAll() {
+        synchronized (INDEXES) {
+            for (PluginJarIndex index : INDEXES.values()) {
+                index.save();
+            }
+        }
+    }
+
+    static PluginJarIndex build(List<File> jarFiles, File cacheFile) {
+        if (cacheFile != null && cacheFile.exists()) {
+            try {
+                PluginJarIndex index = readCache(jarFiles, cacheFile);
+                if (index != null) {
+                    LOGGER.info("{} jar(s) are indexed by the cache file {}.", jarFiles.size(), cacheFile);
+                    return index;
+                }
+                LOGGER.info("The cache file {} is expired, rebuild it.", cacheFile);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn(e, "The cache file {} can't be read, rebuild it.", cacheFile);
+            }
+        }
+
+        List<Jar> jars = new ArrayList<>(jarFiles.size());
+        Map<String, Object> entries = new HashMap<>();
+        for (File file : jarFiles) {
+            try {
+                Jar jar = new Jar(file, new JarFile(file));
+                Enumeration<JarEntry> jarEntries = jar.jarFile.entries();
+                while (jarEntries.hasMoreElements()) {
+                    index(entries, jarEntries.nextElement().getName(), jar);
+                }
+                jars.add(jar);
+                LOGGER.info("{} loaded.", file.toString());
+            } catch (IOException e) {
+                LOGGER.error(e, "{} jar file can't be resolved", file.getName());
+            }
+        }
+        return new PluginJarIndex(jars.toArray(new Jar[0]), entries, cacheFile, true);
+    }
+
+    private static List<File> listJarFiles(List<File> classpath) {
+        List<File> jarFiles = new ArrayList<>();
+        for (File path : classpath) {
+            if (path.exists() && path.isDirectory()) {
+                String[] jarFileNames = path.list((dir, name) -> name.endsWith(".jar"));
+                for (String fileName : jarFileNames) {
+                    jarFiles.add(new File(path, fileName));
+                }
+            }
+        }
+        return jarFiles;
+    }
+
+    private static void index(Map<String, Object> entries, String name, Jar jar) {
+        Object existing = entries.putIfAbsent(name, jar);
+        if (existing == null || existing == jar) {
+            return;
+        }
+        if (existing instanceof Jar) {
+            entries.put(name, new Jar[] {
+                (Jar) existing,
+                jar
+            });
+        } else {
+            Jar[] existingJars = (Jar[]) existing;
+            if (existingJars[existingJars.length - 1] == jar) {
+                return;
+            }
+            Jar[] newJars = Arrays.copyOf(existingJars, existingJars.length + 1);
+            newJars[existingJars.length] = jar;
+            entries.put(name, newJars);
+        }
+    }
+
+    /**
+     * @return the jars including the entry, in classpath order.
+     */
+    List<Jar> findJars(String name) {
+        Object found = entries.get(name);
+        if (found == null && !name.endsWith("/")) {
+            // Keep the same as JarFile#getJarEntry, which finds the directory entry too.
+            found = entries.get(name + "/");
+        }
+        if (found == null) {
+            return Collections.emptyList();
+        }
+        if (found instanceof Jar) {
+            return Collections.singletonList((Jar) found);
+        }
+        return Arrays.asList((Jar[]) found);
+    }
+
+    /**
+     * @param path of the class file, such as <code>org/apache/Foo.class</code>.
+     * @return the bytes of the class, or null if no jar includes the class.
+     */
+    byte[] findClassBytes(String path) {
+        byte[] data = cachedClasses.remove(path);
+        if (data != null) {
+            return data;
+        }
+        data = readClassBytes(path);
+        if (data != null && cacheFile != null && loadedClasses.add(path)) {
+            cacheChanged = true;
+        }
+        return data;
+    }
+
+    private byte[] readClassBytes(String path) {
+        for (Jar jar : findJars(path)) {
+            try {
+                byte[] data = jar.read(path);
+                if (data != null) {
+                    return data;
+                }
+            } catch (IOException e) {
+                LOGGER.error(e, "find class fail.");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Save the index and the loaded classes into the cache file, if anything changed since the cache is read.
+     */
+    void save() {
+        if (cacheFile == null || !cacheChanged) {
+            return;
+        }
+        cacheChanged = false;
+        File parent = cacheFile.getAbsoluteFile().getParentFile();
+        File tempFile = null;
+        try {
+            if (!parent.exists()) {
+                parent.mkdirs();
+            }
+            tempFile = File.createTempFile(cacheFile.getName(), ".tmp", parent);
+            try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tempFile), 64 * 1024))) {
+                writeCache(output);
+            }
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.info(
+                "{} classes of {} jar(s) are saved in the cache file {}.", loadedClasses.size(), jars.length, cacheFile);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn(e, "The cache file {} can't be saved.", cacheFile);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private void writeCache(DataOutputStream output) throws IOException {
+        output.writeInt(CACHE_VERSION);
+        Map<Jar, Integer> jarIds = new HashMap<>();
+        output.writeInt(jars.length);
+        for (int i = 0; i < jars.length; i++) {
+            jarIds.put(jars[i], i);
+            output.writeUTF(jars[i].sourceFile.getPath());
+            output.writeLong(jars[i].sourceFile.length());
+            output.writeLong(jars[i].sourceFile.lastModified());
+        }
+        output.writeInt(entries.size());
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            output.writeUTF(entry.getKey());
+            List<Jar> entryJars = entry.getValue() instanceof Jar
+                ? Collections.singletonList((Jar) entry.getValue()) : Arrays.asList((Jar[]) entry.getValue());
+            output.writeInt(entryJars.size());
+            for (Jar jar : entryJars) {
+                output.writeInt(jarIds.get(jar));
+            }
+        }
+        // the classes are streamed one by one, and ended by an empty path.
+        for (String path : loadedClasses) {
+            byte[] data = cachedClasses.get(path);
+            if (data == null) {
+                data = readClassBytes(path);
+            }
+            if (data != null) {
+                output.writeUTF(path);
+                output.writeInt(data.length);
+                output.write(data);
+            }
+        }
+        output.writeUTF("");
+    }
+
+    /**
+     * @return the index read from the cache file, or null if the jars are not the same as the cached ones.
+     */
+    private static PluginJarIndex readCache(List<File> jarFiles, File cacheFile) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(cacheFile.toPath())));
+        if (input.readInt() != CACHE_VERSION) {
+            return null;
+        }
+        int jarCount = input.readInt();
+        if (jarCount != jarFiles.size()) {
+            return null;
+        }
+        Jar[] jars = new Jar[jarCount];
+        for (int i = 0; i < jarCount; i++) {
+            File file = jarFiles.get(i);
+            if (!file.getPath().equals(input.readUTF())
+                || file.length() != input.readLong()
+                || file.lastModified() != input.readLong()) {
+                return null;
+            }
+            jars[i] = new Jar(file, null);
+        }
+        int entryCount = input.readInt();
+        Map<String, Object> entries = new HashMap<>(entryCount * 4 / 3 + 1);
+        for (int i = 0; i < entryCount; i++) {
+            String name = input.readUTF();
+            int count = input.readInt();
+            for (int j = 0; j < count; j++) {
+                index(entries, name, jars[input.readInt()]);
+            }
+        }
+        PluginJarIndex index = new PluginJarIndex(jars, entries, cacheFile, false);
+        for (String path = input.readUTF(); !path.isEmpty(); path = input.readUTF()) {
+            byte[] data = new byte[input.readInt()];
+            input.readFully(data);
+            index.cachedClasses.put(path, data);
+            index.loadedClasses.add(path);
+        }
+        return index;
+    }
+
+    /**
+     * Close the opened jars.
+     */
+    void close() {
+        for (Jar jar : jars) {
+            JarFile jarFile = jar.jarFile;
+            if (jarFile != null) {
+                try {
+                    jarFile.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * A plugin jar, which is opened at the first read, if the index is read from the cache file.
+     */
+    static class Jar {
+        private final File sourceFile;
+        private volatile JarFile jarFile;
+
+        private Jar(File sourceFile, JarFile jarFile) {
+            this.sourceFile = sourceFile;
+            this.jarFile = jarFile;
+        }
+
+        URL getURL(String name) throws MalformedURLException {
+            return new URL("jar:file:" + sourceFile.getAbsolutePath() + "!/" + name);
+        }
+
+        /**
+         * @return the bytes of the entry, or null if the entry doesn't exist.
+         */
+        byte[] read(String name) throws IOException {
+            JarFile jar = open();
+            JarEntry entry = jar.getJarEntry(name);
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream input = jar.getInputStream(entry)) {
+                return readFully(input, entry.getSize());
+            }
+        }
+
+        private JarFile open() throws IOException {
+            JarFile jar = jarFile;
+            if (jar == null) {
+                synchronized (this) {
+                    jar = jarFile;
+                    if (jar == null) {
+                        jar = new JarFile(sourceFile);
+                        jarFile = jar;
+                    }
+                }
+            }
+            return jar;
+        }
+
+        private static byte[] readFully(InputStream input, long size) throws IOException {
+            byte[] data = new byte[size >= 0 ? (int) size : 8192];
+            int length = 0;
+            while (true) {
+                if (length == data.length) {
+                    if (size >= 0) {
+                        return data;
+                    }
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+                int read = input.read(data, length, data.length - length);
+                if (read < 0) {
+                    return Arrays.copyOf(data, length);
+                }
+                length += read;
+            }
+        }
+    }
+}
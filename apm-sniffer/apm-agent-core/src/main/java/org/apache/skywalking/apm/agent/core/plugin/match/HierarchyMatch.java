@@ -44,6 +44,10 @@ public class HierarchyMatch implements IndirectMatch {
         this.parentTypes = parentTypes;
     }
 
+    public String[] getParentTypes() {
+        return parentTypes;
+    }
+
     @Override
     public ElementMatcher.Junction buildJunction() {
         ElementMatcher.Junction junction = null;
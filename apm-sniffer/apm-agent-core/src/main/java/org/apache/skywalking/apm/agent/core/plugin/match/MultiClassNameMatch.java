@@ -39,6 +39,10 @@ public class MultiClassNameMatch implements IndirectMatch {
         this.matchClassNames = Arrays.asList(classNames);
     }
 
+    public List<String> getMatchClassNames() {
+        return matchClassNames;
+    }
+
     @Override
     public ElementMatcher.Junction buildJunction() {
         ElementMatcher.Junction junction = null;
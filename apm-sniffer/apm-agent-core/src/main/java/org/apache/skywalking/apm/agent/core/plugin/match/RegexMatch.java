@@ -36,6 +36,10 @@ public class RegexMatch implements IndirectMatch {
         this.regexExpressions = regexExpressions;
     }
 
+    public String[] getRegexExpressions() {
+        return regexExpressions;
+    }
+
     @Override
     public ElementMatcher.Junction buildJunction() {
         ElementMatcher.Junction regexJunction = null;
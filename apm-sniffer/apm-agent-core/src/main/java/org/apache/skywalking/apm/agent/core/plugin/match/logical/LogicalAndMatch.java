@@ -37,6 +37,10 @@ public class LogicalAndMatch implements IndirectMatch {
         this.indirectMatches = indirectMatches;
     }
 
+    public IndirectMatch[] getIndirectMatches() {
+        return indirectMatches;
+    }
+
     @Override
     public ElementMatcher.Junction buildJunction() {
         ElementMatcher.Junction junction = null;
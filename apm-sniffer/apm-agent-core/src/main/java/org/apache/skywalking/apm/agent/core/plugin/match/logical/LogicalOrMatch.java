@@ -37,6 +37,10 @@ public class LogicalOrMatch implements IndirectMatch {
         this.indirectMatches = indirectMatches;
     }
 
+    public IndirectMatch[] getIndirectMatches() {
+        return indirectMatches;
+    }
+
     @Override
     public ElementMatcher.Junction buildJunction() {
         ElementMatcher.Junction junction = null;
@@ -46,9 +46,15 @@ public class ProfileTaskExecutionContext {
     // total started profiling tracing context count
     private final AtomicInteger totalStartedProfilingCount = new AtomicInteger(0);
 
+    // stack frames dumped by this task
+    private final StackFrameDictionary frameDictionary;
+
     public ProfileTaskExecutionContext(ProfileTask task) {
         this.task = task;
         profilingSegmentSlots = new AtomicReferenceArray<>(Config.Profile.MAX_PARALLEL * (Config.Profile.MAX_ACCEPT_SUB_PARALLEL + 1));
+        // keep the frames of a whole dump, or they evict each other
+        frameDictionary = new StackFrameDictionary(
+            Math.max(Config.Profile.FRAME_DICTIONARY_SIZE, Config.Profile.DUMP_MAX_STACK_DEPTH));
     }
 
     /**
@@ -159,6 +165,10 @@ public class ProfileTaskExecutionContext {
         return task;
     }
 
+    public StackFrameDictionary getFrameDictionary() {
+        return frameDictionary;
+    }
+
     public AtomicReferenceArray<ThreadProfiler> threadProfilerSlots() {
         return profilingSegmentSlots;
     }
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The stack frames dumped by a profiling task, keyed by {@link StackTraceElement}, so the code signature of a frame is
+ * built once, rather than once per dump of every profiled thread. At most {@code capacity} frames are kept, the least
+ * recently dumped frame is evicted once it is full.
+ * <p>
+ * The dictionary is only accessed by the profiling thread of the task. The snapshots are transformed by the sender
+ * later, so a snapshot holds the references of its own signatures, and nothing shared with the dictionary is changed
+ * by an eviction. The capacity should be at least the dumped stack depth, otherwise the frames of a deep stack evict
+ * each other in every dump.
+ */
+public class StackFrameDictionary {
+    private final Map<StackTraceElement, String> signatures;
+
+    public StackFrameDictionary(int capacity) {
+        final int maxSize = Math.max(capacity, 1);
+        this.signatures = new LinkedHashMap<StackTraceElement, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StackTraceElement, String> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param stackTrace the dumped thread stack, start with the top frame
+     * @param depth      the count of the top frames to look up
+     * @return the code signatures in inverted order, start with the bottom frame
+     */
+    public String[] lookup(StackTraceElement[] stackTrace, int depth) {
+        final String[] stack = new String[depth];
+        for (int i = 0; i < depth; i++) {
+            stack[i] = lookup(stackTrace[depth - 1 - i]);
+        }
+        return stack;
+    }
+
+    String lookup(StackTraceElement element) {
+        String signature = signatures.get(element);
+        if (signature == null) {
+            signature = buildStackElementCodeSignature(element);
+            signatures.put(element, signature);
+        }
+        return signature;
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+
+    /**
+     * build thread stack element code signature
+     *
+     * @return code sign: className.methodName:lineNumber
+     */
+    static String buildStackElementCodeSignature(StackTraceElement element) {
+        return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
+    }
+}
@@ -19,7 +19,6 @@
 package org.apache.skywalking.apm.agent.core.profile;
 
 import com.google.common.base.Objects;
-import java.util.ArrayList;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
@@ -110,22 +109,10 @@ public class ThreadProfiler {
         int dumpElementCount = Math.min(stackTrace.length, Config.Profile.DUMP_MAX_STACK_DEPTH);
 
         // use inverted order, because thread dump is start with bottom
-        final ArrayList<String> stackList = new ArrayList<>(dumpElementCount);
-        for (int i = dumpElementCount - 1; i >= 0; i--) {
-            stackList.add(buildStackElementCodeSignature(stackTrace[i]));
-        }
+        final String[] stack = executionContext.getFrameDictionary().lookup(stackTrace, dumpElementCount);
 
         String taskId = executionContext.getTask().getTaskId();
-        return new TracingThreadSnapshot(taskId, traceSegmentId, dumpSequence++, currentTime, stackList);
-    }
-
-    /**
-     * build thread stack element code signature
-     *
-     * @return code sign: className.methodName:lineNumber
-     */
-    private String buildStackElementCodeSignature(StackTraceElement element) {
-        return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
+        return new TracingThreadSnapshot(taskId, traceSegmentId, dumpSequence++, currentTime, stack);
     }
 
     /**
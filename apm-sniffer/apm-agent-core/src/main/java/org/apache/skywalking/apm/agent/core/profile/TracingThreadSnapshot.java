@@ -18,7 +18,6 @@
 
 package org.apache.skywalking.apm.agent.core.profile;
 
-import java.util.List;
 import org.apache.skywalking.apm.network.language.profile.v3.ThreadSnapshot;
 import org.apache.skywalking.apm.network.language.profile.v3.ThreadStack;
 
@@ -31,18 +30,19 @@ public class TracingThreadSnapshot {
     // dump info
     private final int sequence;
     private final long time;
-    private final List<String> stackList;
+    // code signatures of the stack, cached by the frame dictionary
+    private final String[] stack;
 
     public TracingThreadSnapshot(String taskId,
                                  String traceSegmentId,
                                  int sequence,
                                  long time,
-                                 List<String> stackList) {
+                                 String[] stack) {
         this.taskId = taskId;
         this.traceSegmentId = traceSegmentId;
         this.sequence = sequence;
         this.time = time;
-        this.stackList = stackList;
+        this.stack = stack;
     }
 
     /**
@@ -60,8 +60,8 @@ public class TracingThreadSnapshot {
         builder.setSequence(sequence);
         // snapshot stack
         final ThreadStack.Builder stackBuilder = ThreadStack.newBuilder();
-        for (String codeSign : stackList) {
-            stackBuilder.addCodeSignatures(codeSign);
+        for (String codeSignature : stack) {
+            stackBuilder.addCodeSignatures(codeSignature);
         }
         builder.setStack(stackBuilder);
 
@@ -20,13 +20,12 @@ package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
 import java.util.List;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.commands.CommandService;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -74,9 +73,8 @@ public class ServiceManagementClient implements BootService, Runnable, GRPCChann
 
     @Override
     public void boot() {
-        heartbeatFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("ServiceManagementClient")
-        ).scheduleAtFixedRate(
+        heartbeatFuture = AgentScheduler.INSTANCE.scheduleAtFixedRate(
+            "ServiceManagementClient",
             new RunnableWithExceptionProtection(
                 this,
                 t -> LOGGER.error("unexpected exception.", t)
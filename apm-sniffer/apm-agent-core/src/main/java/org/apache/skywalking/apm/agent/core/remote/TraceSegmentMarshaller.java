@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import com.google.protobuf.CodedOutputStream;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+
+/**
+ * The <code>TraceSegmentMarshaller</code> sends the finished {@link TraceSegment} as a {@link SegmentObject} of the
+ * collect method, by {@link TraceSegment#writeTo(CodedOutputStream)} into a buffer pooled by the sending thread, which
+ * is drained to gRPC right away. The segment, rather than the buffer, is kept as the message, so the segment is
+ * written again if the message is replayed by the retry of gRPC.
+ * <p>
+ * The marshaller is only for the client side. A received {@link SegmentObject} can't be turned back into a {@link
+ * TraceSegment}, so {@link #parse(InputStream)} isn't supported, and the collect method built with it is never served.
+ */
+class TraceSegmentMarshaller implements MethodDescriptor.Marshaller<TraceSegment> {
+    /**
+     * The larger buffers are not pooled, as a few huge segments shouldn't hold the memory.
+     */
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+
+    private final ThreadLocal<byte[]> pooledBuffer = ThreadLocal.withInitial(() -> new byte[4096]);
+
+    @Override
+    public InputStream stream(TraceSegment segment) {
+        return new SegmentInputStream(segment);
+    }
+
+    @Override
+    public TraceSegment parse(InputStream stream) {
+        throw new UnsupportedOperationException(
+            "The trace segment is only sent by the client of the agent, parse it by SegmentObject.parser() instead.");
+    }
+
+    private byte[] buffer(int size) {
+        byte[] buffer = pooledBuffer.get();
+        if (buffer.length >= size) {
+            return buffer;
+        }
+        buffer = new byte[Math.max(size, Math.min(buffer.length * 2, MAX_POOLED_BUFFER_SIZE))];
+        if (buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+            pooledBuffer.set(buffer);
+        }
+        return buffer;
+    }
+
+    private class SegmentInputStream extends InputStream implements Drainable, KnownLength {
+        private TraceSegment segment;
+        private ByteArrayInputStream partial;
+
+        private SegmentInputStream(TraceSegment segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            if (segment != null) {
+                final int size = segment.getSerializedSize();
+                final byte[] buffer = buffer(size);
+                final CodedOutputStream output = CodedOutputStream.newInstance(buffer, 0, size);
+                segment.writeTo(output);
+                output.checkNoSpaceLeft();
+                target.write(buffer, 0, size);
+                segment = null;
+                return size;
+            }
+            if (partial != null) {
+                final int size = partial.available();
+                final byte[] buffer = new byte[size];
+                partial.read(buffer, 0, size);
+                target.write(buffer);
+                partial = null;
+                return size;
+            }
+            return 0;
+        }
+
+        @Override
+        public int read() {
+            toPartial();
+            return partial != null ? partial.read() : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            toPartial();
+            return partial != null ? partial.read(b, off, len) : -1;
+        }
+
+        @Override
+        public int available() {
+            if (segment != null) {
+                return segment.getSerializedSize();
+            }
+            return partial != null ? partial.available() : 0;
+        }
+
+        private void toPartial() {
+            if (segment != null) {
+                partial = new ByteArrayInputStream(segment.toByteArray());
+                segment = null;
+            }
+        }
+    }
+}
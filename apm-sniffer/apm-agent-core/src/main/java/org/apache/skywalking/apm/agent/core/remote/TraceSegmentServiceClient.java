@@ -19,6 +19,11 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import io.grpc.stub.StreamObserver;
 import java.util.List;
 import java.util.Properties;
@@ -37,7 +42,6 @@ import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.common.v3.Commands;
-import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
@@ -47,6 +51,15 @@ import static org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONN
 @DefaultImplementor
 public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, GRPCChannelListener {
     private static final ILog LOGGER = LogManager.getLogger(TraceSegmentServiceClient.class);
+    /**
+     * The collect method sending the {@link TraceSegment} straightly, rather than the transformed message. It is only
+     * used by the client calls of the agent, as the request marshaller can't parse a {@link TraceSegment}, so it must
+     * not be bound to a server or an in-process service.
+     */
+    private static final MethodDescriptor<TraceSegment, Commands> COLLECT_METHOD =
+        TraceSegmentReportServiceGrpc.getCollectMethod().toBuilder(
+            new TraceSegmentMarshaller(), TraceSegmentReportServiceGrpc.getCollectMethod().getResponseMarshaller()
+        ).build();
 
     private long lastLogTime;
     private long segmentUplinkedCounter;
@@ -54,6 +67,10 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     private volatile DataCarrier<TraceSegment> carrier;
     private volatile TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub;
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    /**
+     * The long-lived stream, rotated by the consumer thread, and completed at exit.
+     */
+    private volatile SegmentStream segmentStream;
 
     @Override
     public void prepare() {
@@ -87,11 +104,13 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void consume(List<TraceSegment> data) {
-        if (CONNECTED.equals(status)) {
+        if (CONNECTED.equals(status) && Config.Collector.SEGMENT_STREAM_MAX_AGE > 0) {
+            sendThroughLongLivedStream(data);
+        } else if (CONNECTED.equals(status)) {
             final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<SegmentObject> upstreamSegmentStreamObserver = serviceStub.withDeadlineAfter(
+            StreamObserver<TraceSegment> upstreamSegmentStreamObserver = collect(serviceStub.withDeadlineAfter(
                 Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-            ).collect(new StreamObserver<Commands>() {
+            ), new StreamObserver<Commands>() {
                 @Override
                 public void onNext(Commands commands) {
                     ServiceManager.INSTANCE.findService(CommandService.class)
@@ -121,8 +140,7 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
             try {
                 for (TraceSegment segment : data) {
-                    SegmentObject upstreamSegment = segment.transform();
-                    upstreamSegmentStreamObserver.onNext(upstreamSegment);
+                    upstreamSegmentStreamObserver.onNext(segment);
                 }
             } catch (Throwable t) {
                 LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
@@ -139,6 +157,45 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         printUplinkStatus();
     }
 
+    /**
+     * Send the segments through the long-lived stream, which is rotated when it is broken, older than {@link
+     * Config.Collector#SEGMENT_STREAM_MAX_AGE}, or created by a stale stub. The consumer doesn't wait for the
+     * response of the rotated stream.
+     */
+    private void sendThroughLongLivedStream(List<TraceSegment> data) {
+        SegmentStream stream = this.segmentStream;
+        if (stream != null && (stream.isBroken() || stream.isExpired() || stream.stub != serviceStub)) {
+            stream.complete();
+            stream = null;
+        }
+        if (stream == null) {
+            stream = new SegmentStream(serviceStub);
+            this.segmentStream = stream;
+        }
+
+        int sent = 0;
+        try {
+            for (TraceSegment segment : data) {
+                if (!stream.waitUntilReady()) {
+                    break;
+                }
+                stream.requestStream.onNext(segment);
+                sent++;
+            }
+        } catch (Throwable t) {
+            LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
+            stream.cancel(t);
+        }
+        segmentUplinkedCounter += sent;
+        segmentAbandonedCounter += data.size() - sent;
+    }
+
+    private static StreamObserver<TraceSegment> collect(
+        TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub, StreamObserver<Commands> responseObserver) {
+        return ClientCalls.asyncClientStreamingCall(
+            stub.getChannel().newCall(COLLECT_METHOD, stub.getCallOptions()), responseObserver);
+    }
+
     private void printUplinkStatus() {
         long currentTimeMillis = System.currentTimeMillis();
         if (currentTimeMillis - lastLogTime > 30 * 1000) {
@@ -160,16 +217,30 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         LOGGER.error(t, "Try to send {} trace segments to collector, with unexpected exception.", data.size());
     }
 
+    /**
+     * Complete the idle long-lived stream once it is older than {@link Config.Collector#SEGMENT_STREAM_MAX_AGE}, before
+     * its deadline is exceeded. The next batch opens a new one.
+     */
     @Override
-    public void onExit() {
+    public void nothingToConsume() {
+        SegmentStream stream = this.segmentStream;
+        if (stream != null && (stream.isBroken() || stream.isExpired())) {
+            stream.complete();
+            this.segmentStream = null;
+        }
+    }
 
+    @Override
+    public void onExit() {
+        SegmentStream stream = this.segmentStream;
+        if (stream != null) {
+            stream.complete();
+            this.segmentStream = null;
+        }
     }
 
     @Override
     public void afterFinished(TraceSegment traceSegment) {
-        if (traceSegment.isIgnore()) {
-            return;
-        }
         if (!carrier.produce(traceSegment)) {
             if (LOGGER.isDebugEnable()) {
                 LOGGER.debug("One trace segment has been abandoned, cause by buffer is full.");
@@ -177,6 +248,11 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         }
     }
 
+    @Override
+    public boolean isInterestedInIgnoredSegment() {
+        return false;
+    }
+
     @Override
     public void statusChanged(GRPCChannelStatus status) {
         if (CONNECTED.equals(status)) {
@@ -185,4 +261,127 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         }
         this.status = status;
     }
+
+    /**
+     * SegmentStream is a long-lived collect stream, kept open across batches. The readiness of the request stream is
+     * respected, so the consumer is blocked by the flow control of gRPC rather than buffering in the gRPC transport.
+     */
+    private static class SegmentStream implements ClientResponseObserver<TraceSegment, Commands> {
+        private final TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub;
+        private final long createTime;
+        private final Object readyLock = new Object();
+        private volatile ClientCallStreamObserver<TraceSegment> requestStream;
+        private volatile boolean broken;
+        private boolean completed;
+
+        private SegmentStream(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub) {
+            this.stub = stub;
+            this.createTime = System.currentTimeMillis();
+            collect(stub.withDeadlineAfter(
+                Config.Collector.SEGMENT_STREAM_MAX_AGE + Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
+            ), this);
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<TraceSegment> requestStream) {
+            this.requestStream = requestStream;
+            requestStream.setOnReadyHandler(() -> {
+                synchronized (readyLock) {
+                    readyLock.notifyAll();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(Commands commands) {
+            ServiceManager.INSTANCE.findService(CommandService.class).receiveCommand(commands);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            final boolean cancelledByAgent = broken;
+            markBroken();
+            if (isExpired() && Status.fromThrowable(throwable).getCode() == Status.Code.DEADLINE_EXCEEDED) {
+                // the stream past its max age is closed quietly, not a failure of the collector.
+                LOGGER.debug("Segment stream is closed as it exceeds its deadline.");
+                return;
+            }
+            if (!cancelledByAgent && LOGGER.isErrorEnable()) {
+                LOGGER.error(throwable, "Send UpstreamSegment to collector fail with a grpc internal exception.");
+            }
+            ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+        }
+
+        @Override
+        public void onCompleted() {
+            markBroken();
+        }
+
+        private void markBroken() {
+            broken = true;
+            synchronized (readyLock) {
+                readyLock.notifyAll();
+            }
+        }
+
+        private boolean isBroken() {
+            return broken;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - createTime > TimeUnit.SECONDS.toMillis(
+                Config.Collector.SEGMENT_STREAM_MAX_AGE);
+        }
+
+        /**
+         * Block until the request stream is ready to accept more messages.
+         *
+         * @return false if the stream is broken, or isn't ready in {@link Config.Collector#GRPC_UPSTREAM_TIMEOUT}.
+         */
+        private boolean waitUntilReady() {
+            if (requestStream.isReady()) {
+                return !broken;
+            }
+            final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(
+                Config.Collector.GRPC_UPSTREAM_TIMEOUT);
+            synchronized (readyLock) {
+                while (!broken && !requestStream.isReady()) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        LOGGER.warn(
+                            "Collector traceSegment service isn't ready in {} seconds.",
+                            Config.Collector.GRPC_UPSTREAM_TIMEOUT
+                        );
+                        cancel(null);
+                        return false;
+                    }
+                    try {
+                        readyLock.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+            }
+            return !broken;
+        }
+
+        private synchronized void complete() {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            if (!broken) {
+                requestStream.onCompleted();
+            }
+        }
+
+        private synchronized void cancel(Throwable cause) {
+            completed = true;
+            if (!broken) {
+                broken = true;
+                requestStream.cancel("Segment stream is cancelled by the agent.", cause);
+            }
+        }
+    }
 }
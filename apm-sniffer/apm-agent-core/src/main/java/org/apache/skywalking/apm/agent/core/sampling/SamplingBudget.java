@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+/**
+ * The budget of sampled traces, the limit is read on every call, as it could be changed in the runtime.
+ */
+interface SamplingBudget {
+    /**
+     * @return true if a trace could be sampled in the limit.
+     */
+    boolean tryAcquire(int limit);
+
+    /**
+     * Take a trace as sampled by force, even if the limit has been reached.
+     */
+    void forceAcquire(int limit);
+}
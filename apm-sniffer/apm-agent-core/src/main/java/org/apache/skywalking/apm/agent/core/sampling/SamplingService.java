@@ -18,14 +18,12 @@
 
 package org.apache.skywalking.apm.agent.core.sampling;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.ConfigurationDiscoveryService;
@@ -41,17 +39,23 @@ import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
  * send all of them to collector, if SAMPLING is on.
  * <p>
  * By default, SAMPLING is on, and  {@link Config.Agent#SAMPLE_N_PER_3_SECS }
+ * <p>
+ * The budget is taken through {@link StripedSamplingWindow} by default, or through {@link SamplingTokenBucket} if
+ * {@link Config.Agent#SAMPLE_SMOOTHLY} is true.
+ * <p>
+ * If {@link Config.Agent#TAIL_SAMPLING} is true, every trace not vetoed by {@link #trySampling(String)} is traced, and
+ * the finished segments are decided by the {@link TailSamplingBuffer}, with the budget as the base rate.
  */
 @DefaultImplementor
 public class SamplingService implements BootService {
     private static final ILog LOGGER = LogManager.getLogger(SamplingService.class);
 
     private volatile boolean on = false;
-    private volatile AtomicInteger samplingFactorHolder;
+    private volatile SamplingBudget samplingBudget;
     private volatile ScheduledFuture<?> scheduledFuture;
 
     private SamplingRateWatcher samplingRateWatcher;
-    private ScheduledExecutorService service;
+    private volatile TailSamplingBuffer tailSamplingBuffer;
 
     @Override
     public void prepare() {
@@ -59,13 +63,18 @@ public class SamplingService implements BootService {
 
     @Override
     public void boot() {
-        service = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("SamplingService"));
         samplingRateWatcher = new SamplingRateWatcher("agent.sample_n_per_3_secs", this);
         ServiceManager.INSTANCE.findService(ConfigurationDiscoveryService.class)
                                .registerAgentConfigChangeWatcher(samplingRateWatcher);
 
         handleSamplingRateChanged();
+
+        if (Config.Agent.TAIL_SAMPLING) {
+            tailSamplingBuffer = new TailSamplingBuffer(
+                Config.Agent.TAIL_SAMPLING_LATENCY_THRESHOLD, Config.Agent.TAIL_SAMPLING_BUFFER_SIZE,
+                Config.Agent.TAIL_SAMPLING_KEEP_PROPAGATED, this::tryAcquireBudget
+            );
+        }
     }
 
     @Override
@@ -83,46 +92,67 @@ public class SamplingService implements BootService {
     /**
      * When the sampling mechanism is on and the sample limited is not reached, the trace segment
      * should be traced. If the sampling mechanism is off, it means that all trace segments should
-     * be traced.
+     * be traced. In the tail sampling, the sample limited is taken after the tracing context finishes, so only the
+     * vetoes of the extended services, such as the ignored paths, take effect here.
      * @param operationName The first operation name of the new tracing context.
      * @return true if should sample this trace segment. When sampling mechanism is on, return true if sample limited is not reached.
      */
     public boolean trySampling(String operationName) {
+        if (tailSamplingBuffer != null) {
+            return true;
+        }
+        return tryAcquireBudget();
+    }
+
+    private boolean tryAcquireBudget() {
         if (on) {
-            int factor = samplingFactorHolder.get();
-            if (factor < samplingRateWatcher.getSamplingRate()) {
-                return samplingFactorHolder.compareAndSet(factor, factor + 1);
-            } else {
-                return false;
-            }
+            return samplingBudget.tryAcquire(samplingRateWatcher.getSamplingRate());
         }
         return true;
     }
 
+    /**
+     * Decide whether the finished segment is kept by the tail sampling. The kept segments, including the buffered ones
+     * of the same trace, are passed to the reporter.
+     *
+     * @param segment  the segment of the finished tracing context.
+     * @param reporter to report the kept segments.
+     */
+    public void tailSample(TraceSegment segment, Consumer<TraceSegment> reporter) {
+        final TailSamplingBuffer buffer = tailSamplingBuffer;
+        if (buffer == null) {
+            reporter.accept(segment);
+            return;
+        }
+        buffer.finish(segment, reporter);
+    }
+
     /**
      * Increase the sampling factor by force, to avoid sampling too many traces. If many distributed traces require
      * sampled, the trace beginning at local, has less chance to be sampled.
      */
     public void forceSampled() {
         if (on) {
-            samplingFactorHolder.incrementAndGet();
+            samplingBudget.forceAcquire(samplingRateWatcher.getSamplingRate());
         }
     }
 
-    private void resetSamplingFactor() {
-        samplingFactorHolder = new AtomicInteger(0);
-    }
-
     /**
      * Handle the samplingRate changed.
      */
     public void handleSamplingRateChanged() {
         if (samplingRateWatcher.getSamplingRate() > 0) {
             if (!on) {
+                if (Config.Agent.SAMPLE_SMOOTHLY) {
+                    samplingBudget = new SamplingTokenBucket();
+                } else {
+                    StripedSamplingWindow window = new StripedSamplingWindow();
+                    samplingBudget = window;
+                    scheduledFuture = AgentScheduler.INSTANCE.scheduleAtFixedRate(
+                        "SamplingService", new RunnableWithExceptionProtection(
+                            window::rotate, t -> LOGGER.error("unexpected exception.", t)), 3, 3, TimeUnit.SECONDS);
+                }
                 on = true;
-                this.resetSamplingFactor();
-                scheduledFuture = service.scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                    this::resetSamplingFactor, t -> LOGGER.error("unexpected exception.", t)), 0, 3, TimeUnit.SECONDS);
                 LOGGER.debug(
                     "Agent sampling mechanism started. Sample {} traces in 3 seconds.",
                     samplingRateWatcher.getSamplingRate()
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sample N traces per 3 seconds, evenly spread in the window instead of taking all of them at the beginning of the
+ * window. It is a token bucket refilled every 3s/N, holding the tokens of 1/{@link #BURST_DIVISOR} window at most,
+ * implemented as the generic cell rate algorithm, so only the theoretical arrival time is kept and updated by CAS.
+ */
+class SamplingTokenBucket implements SamplingBudget {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(3);
+    /**
+     * The bucket holds the tokens of 100ms at most.
+     */
+    private static final int BURST_DIVISOR = 30;
+
+    private final AtomicLong theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+
+    @Override
+    public boolean tryAcquire(int limit) {
+        return tryAcquire(limit, System.nanoTime());
+    }
+
+    boolean tryAcquire(int limit, long now) {
+        final long interval = WINDOW_NANOS / Math.max(1, limit);
+        final long tolerance = interval * (Math.max(1, limit / BURST_DIVISOR) - 1);
+        while (true) {
+            final long arrivalTime = theoreticalArrivalTime.get();
+            if (arrivalTime - now > tolerance) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(arrivalTime, Math.max(arrivalTime, now) + interval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Take a token by force, even if the bucket is empty. The theoretical arrival time is never pushed beyond one
+     * window ahead, so a burst of the forced traces blocks the others in one window at most, the same as
+     * {@link StripedSamplingWindow}.
+     */
+    @Override
+    public void forceAcquire(int limit) {
+        forceAcquire(limit, System.nanoTime());
+    }
+
+    void forceAcquire(int limit, long now) {
+        final long interval = WINDOW_NANOS / Math.max(1, limit);
+        while (true) {
+            final long arrivalTime = theoreticalArrivalTime.get();
+            final long nextArrivalTime = Math.min(Math.max(arrivalTime, now) + interval, now + WINDOW_NANOS);
+            if (arrivalTime >= nextArrivalTime || theoreticalArrivalTime.compareAndSet(arrivalTime, nextArrivalTime)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sample N traces per window at most, which is rotated by {@link #rotate()}.
+ * <p>
+ * The budget of the window is kept in one counter, packed with the epoch of the window in the high 32 bits and the
+ * count of the taken traces in the low 32 bits. Rather than taking traces one by one from the counter, each thread
+ * takes a slice of the budget into its stripe, and samples from the stripe until the slice is used up. When the counter
+ * is exhausted, the remaining slices of other stripes are taken, so all the N traces could be sampled as before.
+ * Rotating the window only increases the epoch, the stripes of older epochs are treated as empty.
+ */
+class StripedSamplingWindow implements SamplingBudget {
+    /**
+     * 8 longs per stripe, to keep every stripe in its own cache line.
+     */
+    private static final int STRIPE_STRIDE = 8;
+    private static final int MAX_STRIPES = 64;
+    /**
+     * A stripe takes about 1/8 of an even share of the budget at most.
+     */
+    private static final int SLICES_PER_STRIPE = 8;
+
+    private final AtomicLong counter = new AtomicLong();
+    private final AtomicLongArray stripes;
+    private final int stripeMask;
+    /**
+     * The last epoch of which all the budget has been taken, to reject quickly without scanning the stripes.
+     */
+    private volatile int exhaustedEpoch = -1;
+
+    StripedSamplingWindow() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    StripedSamplingWindow(int parallelism) {
+        int stripeCount = 1;
+        while (stripeCount < parallelism && stripeCount < MAX_STRIPES) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new AtomicLongArray(stripeCount * STRIPE_STRIDE);
+        this.stripeMask = stripeCount - 1;
+    }
+
+    @Override
+    public boolean tryAcquire(int limit) {
+        final int index = stripeIndex();
+        while (true) {
+            final long stripe = stripes.get(index);
+            final long current = counter.get();
+            final int epoch = epochOf(current);
+            if (epochOf(stripe) == epoch && countOf(stripe) > 0) {
+                if (stripes.compareAndSet(index, stripe, stripe - 1)) {
+                    return true;
+                }
+                continue;
+            }
+
+            final int taken = countOf(current);
+            if (taken >= limit) {
+                return exhaustedEpoch != epoch && tryAcquireFromOtherStripes(epoch);
+            }
+            final int slice = Math.min(sliceSize(limit), limit - taken);
+            if (counter.compareAndSet(current, current + slice)) {
+                // One of the slice is taken by this call, keep the others in the stripe.
+                keepInStripe(index, epoch, slice - 1);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void forceAcquire(int limit) {
+        counter.incrementAndGet();
+    }
+
+    /**
+     * Start a new window.
+     */
+    void rotate() {
+        while (true) {
+            final long current = counter.get();
+            if (counter.compareAndSet(current, pack(epochOf(current) + 1, 0))) {
+                return;
+            }
+        }
+    }
+
+    private void keepInStripe(int index, int epoch, int count) {
+        if (count == 0) {
+            return;
+        }
+        while (true) {
+            final long stripe = stripes.get(index);
+            final long next;
+            if (epochOf(stripe) == epoch) {
+                next = stripe + count;
+            } else if (epochOf(counter.get()) == epoch) {
+                next = pack(epoch, count);
+            } else {
+                // The window has been rotated, the slice is expired.
+                return;
+            }
+            if (stripes.compareAndSet(index, stripe, next)) {
+                return;
+            }
+        }
+    }
+
+    private boolean tryAcquireFromOtherStripes(int epoch) {
+        for (int index = 0; index < stripes.length(); index += STRIPE_STRIDE) {
+            while (true) {
+                final long stripe = stripes.get(index);
+                if (epochOf(stripe) != epoch || countOf(stripe) <= 0) {
+                    break;
+                }
+                if (stripes.compareAndSet(index, stripe, stripe - 1)) {
+                    return true;
+                }
+            }
+        }
+        // The counter is exhausted, no more budget could be put into the stripes in this epoch.
+        exhaustedEpoch = epoch;
+        return false;
+    }
+
+    private int sliceSize(int limit) {
+        return Math.max(1, limit / ((stripeMask + 1) * SLICES_PER_STRIPE));
+    }
+
+    private int stripeIndex() {
+        final long threadId = Thread.currentThread().getId();
+        return ((int) (threadId ^ threadId >>> 32) & stripeMask) * STRIPE_STRIDE;
+    }
+
+    private static long pack(int epoch, int count) {
+        return (long) epoch << 32 | count & 0xFFFFFFFFL;
+    }
+
+    private static int epochOf(long value) {
+        return (int) (value >>> 32);
+    }
+
+    private static int countOf(long value) {
+        return (int) value;
+    }
+}
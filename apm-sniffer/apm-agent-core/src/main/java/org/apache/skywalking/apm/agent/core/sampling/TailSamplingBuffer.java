@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentRef;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * The <code>TailSamplingBuffer</code> decides whether the trace of a finished {@link TraceSegment} is kept, after the
+ * tracing context finishes, rather than when it is created. A trace is kept if any of its segments is slower than the
+ * latency threshold, or includes an error span. Otherwise, it is kept only if its first segment finished in this
+ * process is sampled by the base rate. The segment propagated from another process is decided in the same way, unless
+ * the propagated segments are configured to be kept.
+ * <p>
+ * The segment continued from another thread is decided by the segment it refers to, so it is buffered until that
+ * segment finishes. The buffered segments are capped by their serialized size, and the earliest buffered trace is
+ * dropped once the cap is reached. The buffered trace older than the latency threshold is kept, as the segment it
+ * waits for is slow if it is still running. The decision of a trace is kept for the latency threshold, so the segments
+ * continued from it, which finish later and aren't slow themselves, follow the decision.
+ * <p>
+ * The traces are split into the stripes by their ids, each of them is guarded by its own lock, so the threads
+ * finishing the segments of the different traces don't contend. The base sampler is called out of the locks.
+ */
+class TailSamplingBuffer {
+    private static final ILog LOGGER = LogManager.getLogger(TailSamplingBuffer.class);
+
+    private static final int STRIPE_COUNT = 16;
+
+    private final long latencyThreshold;
+    private final boolean keepPropagated;
+    private final BooleanSupplier baseSampler;
+    private final Stripe[] stripes;
+
+    /**
+     * @param latencyThreshold the segment finished in this time(ms) or longer is kept.
+     * @param maxBufferedBytes the max serialized size of the buffered segments.
+     * @param keepPropagated   if true, the segment propagated from another process is always kept.
+     * @param baseSampler      the sampler of the traces neither slow nor failed.
+     */
+    TailSamplingBuffer(long latencyThreshold, long maxBufferedBytes, boolean keepPropagated,
+                       BooleanSupplier baseSampler) {
+        this(latencyThreshold, maxBufferedBytes, keepPropagated, baseSampler, STRIPE_COUNT);
+    }
+
+    TailSamplingBuffer(long latencyThreshold, long maxBufferedBytes, boolean keepPropagated,
+                       BooleanSupplier baseSampler, int stripeCount) {
+        this.latencyThreshold = latencyThreshold;
+        this.keepPropagated = keepPropagated;
+        this.baseSampler = baseSampler;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(Math.max(1, maxBufferedBytes / stripeCount));
+        }
+    }
+
+    /**
+     * Decide the finished segment, and pass the kept segments of its trace to the reporter.
+     */
+    void finish(TraceSegment segment, Consumer<TraceSegment> reporter) {
+        finish(segment, System.currentTimeMillis(), reporter);
+    }
+
+    void finish(TraceSegment segment, long now, Consumer<TraceSegment> reporter) {
+        final String traceId = segment.getRelatedGlobalTrace().getId();
+        final TraceSegmentRef ref = segment.getRef();
+        final boolean propagated = keepPropagated
+            && ref != null && TraceSegmentRef.SegmentRefType.CROSS_PROCESS.equals(ref.getType());
+        final boolean continuedFromThread = ref != null
+            && TraceSegmentRef.SegmentRefType.CROSS_THREAD.equals(ref.getType());
+        final boolean interesting = propagated
+            || now - segment.createTime() >= latencyThreshold || segment.hasErrorSpan();
+
+        // the segment starting a trace in this process is rarely decided by the others, so the base sampler is
+        // asked in advance, and the size of the one to buffer is computed in advance, out of the lock.
+        final boolean sampled = !interesting && !continuedFromThread && baseSampler.getAsBoolean();
+        final int size = !interesting && continuedFromThread ? segment.getSerializedSize() : 0;
+
+        final Stripe stripe = stripes[(traceId.hashCode() & Integer.MAX_VALUE) % stripes.length];
+        final boolean keep;
+        final PendingTrace pendingTrace;
+        final List<PendingTrace> expiredTraces;
+        synchronized (stripe) {
+            expiredTraces = stripe.expire(now - latencyThreshold, now);
+            final Decision decision = stripe.decisions.get(traceId);
+            if (!interesting && decision == null && continuedFromThread) {
+                stripe.buffer(traceId, segment, size, now);
+                keep = false;
+                pendingTrace = null;
+            } else {
+                keep = interesting || (decision != null ? decision.keep : sampled);
+                stripe.decide(traceId, keep, now);
+                pendingTrace = stripe.remove(traceId);
+            }
+        }
+
+        if (expiredTraces != null) {
+            for (PendingTrace expiredTrace : expiredTraces) {
+                expiredTrace.segments.forEach(reporter);
+            }
+        }
+        if (keep) {
+            if (pendingTrace != null) {
+                pendingTrace.segments.forEach(reporter);
+            }
+            reporter.accept(segment);
+        }
+    }
+
+    long getBufferedBytes() {
+        long bufferedBytes = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                bufferedBytes += stripe.bufferedBytes;
+            }
+        }
+        return bufferedBytes;
+    }
+
+    private static class Stripe {
+        /**
+         * The decisions in the order they are made, the earliest is expired first.
+         */
+        private final LinkedHashMap<String, Decision> decisions = new LinkedHashMap<>();
+        private final LinkedHashMap<String, PendingTrace> pendingTraces = new LinkedHashMap<>();
+        private final long maxBufferedBytes;
+        private long bufferedBytes;
+
+        private Stripe(long maxBufferedBytes) {
+            this.maxBufferedBytes = maxBufferedBytes;
+        }
+
+        private void decide(String traceId, boolean keep, long now) {
+            // re-insert the decision, to keep the decisions ordered by their time
+            decisions.remove(traceId);
+            decisions.put(traceId, new Decision(keep, now));
+        }
+
+        private void buffer(String traceId, TraceSegment segment, int size, long now) {
+            PendingTrace pendingTrace = pendingTraces.get(traceId);
+            if (pendingTrace == null) {
+                pendingTrace = new PendingTrace(Math.min(segment.createTime(), now));
+                pendingTraces.put(traceId, pendingTrace);
+            }
+            pendingTrace.segments.add(segment);
+            pendingTrace.bytes += size;
+            bufferedBytes += size;
+
+            final Iterator<PendingTrace> iterator = pendingTraces.values().iterator();
+            while (bufferedBytes > maxBufferedBytes && iterator.hasNext()) {
+                final PendingTrace earliest = iterator.next();
+                iterator.remove();
+                bufferedBytes -= earliest.bytes;
+                LOGGER.debug("Tail sampling buffer is full, drop {} buffered segments.", earliest.segments.size());
+            }
+        }
+
+        private PendingTrace remove(String traceId) {
+            final PendingTrace pendingTrace = pendingTraces.remove(traceId);
+            if (pendingTrace != null) {
+                bufferedBytes -= pendingTrace.bytes;
+            }
+            return pendingTrace;
+        }
+
+        /**
+         * Remove the decisions made before the given time. Remove the buffered traces created before the given time,
+         * and decide them as kept.
+         *
+         * @return the expired traces, or null if none.
+         */
+        private List<PendingTrace> expire(long createdBefore, long now) {
+            final Iterator<Decision> decisionIterator = decisions.values().iterator();
+            while (decisionIterator.hasNext()) {
+                if (decisionIterator.next().time >= createdBefore) {
+                    break;
+                }
+                decisionIterator.remove();
+            }
+
+            List<PendingTrace> expiredTraces = null;
+            final Iterator<Map.Entry<String, PendingTrace>> iterator = pendingTraces.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<String, PendingTrace> earliest = iterator.next();
+                if (earliest.getValue().createTime > createdBefore) {
+                    break;
+                }
+                iterator.remove();
+                bufferedBytes -= earliest.getValue().bytes;
+                decide(earliest.getKey(), true, now);
+                if (expiredTraces == null) {
+                    expiredTraces = new ArrayList<>(1);
+                }
+                expiredTraces.add(earliest.getValue());
+            }
+            return expiredTraces;
+        }
+    }
+
+    private static class Decision {
+        private final boolean keep;
+        private final long time;
+
+        private Decision(boolean keep, long time) {
+            this.keep = keep;
+            this.time = time;
+        }
+    }
+
+    private static class PendingTrace {
+        private final List<TraceSegment> segments = new ArrayList<>(2);
+        private final long createTime;
+        private long bytes;
+
+        private PendingTrace(long createTime) {
+            this.createTime = createTime;
+        }
+    }
+}
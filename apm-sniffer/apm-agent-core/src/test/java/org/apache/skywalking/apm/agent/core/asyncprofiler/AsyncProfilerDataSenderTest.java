@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.asyncprofiler;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcServerRule;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerCollectionResponse;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerData;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerTaskGrpc;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilingStatus;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AsyncProfilerDataSenderTest {
+    private static final int FILE_SIZE = 300 * 1024 * 1024 + 12345;
+    private static final int SMALL_FILE_SIZE = 3 * Config.AsyncProfiler.DATA_CHUNK_SIZE + 12345;
+    private static final Metadata.Key<String> MESSAGE_ENCODING_KEY =
+        Metadata.Key.of("grpc-encoding", Metadata.ASCII_STRING_MARSHALLER);
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    @Rule
+    public GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AsyncProfilerDataSender sender = new AsyncProfilerDataSender();
+    private final CRC32 receivedChecksum = new CRC32();
+    private long receivedSize;
+    private long expectedSize;
+    private int chunks;
+    private AsyncProfilingStatus responseType;
+    private String messageEncoding;
+
+    private final AsyncProfilerTaskGrpc.AsyncProfilerTaskImplBase serviceImplBase = new AsyncProfilerTaskGrpc.AsyncProfilerTaskImplBase() {
+        @Override
+        public StreamObserver<AsyncProfilerData> collect(
+            final StreamObserver<AsyncProfilerCollectionResponse> responseObserver) {
+            return new StreamObserver<AsyncProfilerData>() {
+                @Override
+                public void onNext(AsyncProfilerData value) {
+                    if (value.hasMetaData()) {
+                        expectedSize = value.getMetaData().getContentSize();
+                        responseObserver.onNext(AsyncProfilerCollectionResponse.newBuilder().setType(responseType).build());
+                        return;
+                    }
+                    chunks++;
+                    receivedSize += value.getContent().size();
+                    for (ByteBuffer buffer : value.getContent().asReadOnlyByteBufferList()) {
+                        receivedChecksum.update(buffer);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    responseObserver.onCompleted();
+                }
+            };
+        }
+    };
+
+    /**
+     * The in-process transport doesn't compress the messages, so the encoding is checked from the headers.
+     */
+    private final ServerInterceptor encodingInterceptor = new ServerInterceptor() {
+        @Override
+        public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(final ServerCall<ReqT, RespT> call,
+                                                                     final Metadata headers,
+                                                                     final ServerCallHandler<ReqT, RespT> next) {
+            messageEncoding = headers.get(MESSAGE_ENCODING_KEY);
+            return next.startCall(call, headers);
+        }
+    };
+
+    @AfterClass
+    public static void afterClass() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Before
+    public void setUp() throws Throwable {
+        Field stub = AsyncProfilerDataSender.class.getDeclaredField("asyncProfilerTaskStub");
+        Field status = AsyncProfilerDataSender.class.getDeclaredField("status");
+        stub.setAccessible(true);
+        status.setAccessible(true);
+        stub.set(sender, AsyncProfilerTaskGrpc.newStub(grpcServerRule.getChannel()));
+        status.set(sender, GRPCChannelStatus.CONNECTED);
+        grpcServerRule.getServiceRegistry()
+                      .addService(ServerInterceptors.intercept(serviceImplBase, encodingInterceptor));
+        responseType = AsyncProfilingStatus.PROFILING_SUCCESS;
+    }
+
+    @After
+    public void tearDown() {
+        Config.AsyncProfiler.DATA_COMPRESSION = false;
+    }
+
+    @Test
+    public void testSendLargeFile() throws IOException, InterruptedException {
+        File dumpFile = temporaryFolder.newFile("dump.jfr");
+        long checksum = writeFile(dumpFile);
+
+        sender.sendData(newTask(), dumpFile);
+
+        assertThat(expectedSize, is((long) FILE_SIZE));
+        assertThat(receivedSize, is((long) FILE_SIZE));
+        assertThat(chunks, is((FILE_SIZE + Config.AsyncProfiler.DATA_CHUNK_SIZE - 1) / Config.AsyncProfiler.DATA_CHUNK_SIZE));
+        assertThat(receivedChecksum.getValue(), is(checksum));
+        assertThat(messageEncoding, nullValue());
+    }
+
+    @Test
+    public void testSendCompressedFile() throws IOException, InterruptedException {
+        Config.AsyncProfiler.DATA_COMPRESSION = true;
+        File dumpFile = temporaryFolder.newFile("dump.jfr");
+        long checksum = writeFile(dumpFile, SMALL_FILE_SIZE);
+
+        sender.sendData(newTask(), dumpFile);
+
+        assertThat(messageEncoding, is("gzip"));
+        assertThat(receivedSize, is((long) SMALL_FILE_SIZE));
+        assertThat(receivedChecksum.getValue(), is(checksum));
+    }
+
+    @Test
+    public void testTerminatedByOversize() throws IOException, InterruptedException {
+        responseType = AsyncProfilingStatus.TERMINATED_BY_OVERSIZE;
+        File dumpFile = temporaryFolder.newFile("dump.jfr");
+        writeFile(dumpFile, SMALL_FILE_SIZE);
+
+        sender.sendData(newTask(), dumpFile);
+
+        assertThat(expectedSize, is((long) SMALL_FILE_SIZE));
+        assertThat(receivedSize, is(0L));
+    }
+
+    @Test
+    public void testReadChunk() throws IOException {
+        File dumpFile = temporaryFolder.newFile("dump.jfr");
+        int size = 64 * 1024 + 123;
+        writeFile(dumpFile, size);
+        try (FileChannel fileChannel = FileChannel.open(dumpFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer content = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            int position = size - 4096;
+            assertThat(
+                AsyncProfilerDataSender.readChunk(fileChannel, content, position, 4096),
+                is(AsyncProfilerDataSender.readChunk(fileChannel, null, position, 4096))
+            );
+        }
+    }
+
+    private static AsyncProfilerTask newTask() {
+        AsyncProfilerTask task = new AsyncProfilerTask();
+        task.setTaskId("task");
+        return task;
+    }
+
+    /**
+     * Write the bytes varying by the position, so the misplaced chunks are caught by the checksum.
+     */
+    private static long writeFile(File file) throws IOException {
+        return writeFile(file, FILE_SIZE);
+    }
+
+    private static long writeFile(File file, int size) throws IOException {
+        CRC32 checksum = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            int written = 0;
+            while (written < size) {
+                buffer.clear();
+                int length = Math.min(buffer.capacity(), size - written);
+                for (int i = 0; i < length; i += 4) {
+                    buffer.putInt((written + i) * 31);
+                }
+                buffer.flip();
+                buffer.limit(length);
+                checksum.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    fileChannel.write(buffer);
+                }
+                written += length;
+            }
+        }
+        return checksum.getValue();
+    }
+}
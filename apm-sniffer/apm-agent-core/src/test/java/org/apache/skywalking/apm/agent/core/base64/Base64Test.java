@@ -20,6 +20,7 @@ package org.apache.skywalking.apm.agent.core.base64;
 
 import static org.junit.Assert.assertEquals;
 
+import java.nio.charset.StandardCharsets;
 import org.junit.Test;
 
 public class Base64Test {
@@ -33,4 +34,35 @@ public class Base64Test {
     public void testEncode() {
         assertEquals(Base64.encode("SkyWalking"), "U2t5V2Fsa2luZw==");
     }
+
+    @Test
+    public void testEncodeIntoBuffer() {
+        String[] texts = {"", "S", "Sk", "Sky", "SkyWalking", "127.0.0.1:8080"};
+        for (String text : texts) {
+            String expected = java.util.Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+            assertEquals(expected.length(), Base64.encodedLength(text));
+            char[] buffer = new char[expected.length() + 2];
+            assertEquals(expected.length() + 1, Base64.encode(text, buffer, 1));
+            assertEquals(expected, new String(buffer, 1, expected.length()));
+        }
+        assertEquals(-1, Base64.encodedLength("/\u5e94\u7528"));
+    }
+
+    @Test
+    public void testDecodeRange() {
+        assertEquals("SkyWalking", Base64.decode2UTFString("-U2t5V2Fsa2luZw==-", 1, 17));
+        assertEquals("SkyWalking", Base64.decode2UTFString("-U2t5V2Fsa2luZw-", 1, 15));
+        assertEquals("", Base64.decode2UTFString("--", 1, 1));
+        assertEquals("/\u5e94\u7528", Base64.decode2UTFString("-" + Base64.encode("/\u5e94\u7528") + "-", 1, 13));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeIllegalCharacter() {
+        Base64.decode2UTFString("-U2t5V2F*a2luZw==-", 1, 17);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeIllegalPadding() {
+        Base64.decode2UTFString("U2t5V2Fsa2luZw=", 0, 15);
+    }
 }
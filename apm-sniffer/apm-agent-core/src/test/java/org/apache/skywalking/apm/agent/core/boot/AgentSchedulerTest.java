@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.boot;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AgentSchedulerTest {
+
+    @After
+    public void tearDown() {
+        AgentScheduler.INSTANCE.shutdown();
+    }
+
+    @Test
+    public void testSlowTaskNotDelayOthers() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicInteger slowRuns = new AtomicInteger();
+        ScheduledFuture<?> slowTask = AgentScheduler.INSTANCE.scheduleAtFixedRate("slow", () -> {
+            slowRuns.incrementAndGet();
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 0, 10, TimeUnit.MILLISECONDS);
+        CountDownLatch fastRuns = new CountDownLatch(5);
+        ScheduledFuture<?> fastTask = AgentScheduler.INSTANCE.scheduleAtFixedRate(
+            "fast", fastRuns::countDown, 0, 10, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue(fastRuns.await(5, TimeUnit.SECONDS));
+        // the runs due while the slow task is blocked are skipped
+        Assert.assertEquals(1, slowRuns.get());
+        blocked.countDown();
+        slowTask.cancel(true);
+        fastTask.cancel(true);
+        Assert.assertTrue(slowTask.isCancelled());
+    }
+
+    @Test
+    public void testExceptionNotSuppressRuns() throws Exception {
+        CountDownLatch runs = new CountDownLatch(3);
+        ScheduledFuture<?> task = AgentScheduler.INSTANCE.scheduleWithFixedDelay("failing", () -> {
+            runs.countDown();
+            throw new IllegalStateException("failure");
+        }, 0, 10, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue(runs.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(task.isDone());
+        task.cancel(false);
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> task = AgentScheduler.INSTANCE.scheduleAtFixedRate(
+            "cancelled", runs::incrementAndGet, 0, 10, TimeUnit.MILLISECONDS);
+        while (runs.get() == 0) {
+            Thread.sleep(5);
+        }
+        task.cancel(true);
+        Thread.sleep(50);
+        int cancelledRuns = runs.get();
+        Thread.sleep(100);
+        Assert.assertEquals(cancelledRuns, runs.get());
+    }
+
+    @Test
+    public void testOneShotTask() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> task = AgentScheduler.INSTANCE.schedule(
+            "oneShot", runs::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+        task.get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(task.isDone());
+        Assert.assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void testWorkerThreadName() throws Exception {
+        String[] threadName = new String[1];
+        AgentScheduler.INSTANCE.schedule(
+            "named", () -> threadName[0] = Thread.currentThread().getName(), 0, TimeUnit.MILLISECONDS
+        ).get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(threadName[0].endsWith("-named"));
+    }
+}
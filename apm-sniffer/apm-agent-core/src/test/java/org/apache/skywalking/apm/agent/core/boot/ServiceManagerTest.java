@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent.core.boot;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
@@ -77,8 +78,8 @@ public class ServiceManagerTest {
     }
 
     private void assertTracingThreadContextListener() throws Exception {
-        List<TracingThreadListener> listeners = getFieldValue(TracingContext.TracingThreadListenerManager.class, "LISTENERS");
-        assertThat(listeners.size(), is(1));
+        TracingThreadListener[] listeners = getFieldValue(TracingContext.TracingThreadListenerManager.class, "LISTENERS");
+        assertThat(listeners.length, is(1));
     }
 
     private void assertIgnoreTracingContextListener() throws Exception {
@@ -87,10 +88,10 @@ public class ServiceManagerTest {
     }
 
     private void assertTracingContextListener() throws Exception {
-        List<TracingContextListener> listeners = getFieldValue(TracingContext.ListenerManager.class, "LISTENERS");
-        assertThat(listeners.size(), is(1));
+        TracingContextListener[] listeners = getFieldValue(TracingContext.ListenerManager.class, "LISTENERS");
+        assertThat(listeners.length, is(1));
 
-        assertThat(listeners.contains(ServiceManager.INSTANCE.findService(TraceSegmentServiceClient.class)), is(true));
+        assertThat(Arrays.asList(listeners).contains(ServiceManager.INSTANCE.findService(TraceSegmentServiceClient.class)), is(true));
     }
 
     private void assertJVMService(JVMService service) {
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the sw8 header inject(serialize) and extract(deserialize) between the join/split based implementation and
+ * {@link SW8HeaderCodec}. Run with the {@link GCProfiler} to see the allocation per header.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContextCarrierCodecBenchmark {
+    private ContextCarrier carrier;
+    private String header;
+
+    @Setup
+    public void setup() {
+        carrier = new ContextCarrier();
+        carrier.setTraceId("a5d9c5e6c4b04e6d9b2b3f1e1c2f4b7a.81.16903395478340001");
+        carrier.setTraceSegmentId("a5d9c5e6c4b04e6d9b2b3f1e1c2f4b7a.81.16903395478340002");
+        carrier.setSpanId(3);
+        carrier.setParentService("order-service");
+        carrier.setParentServiceInstance("e2a7b1c8d3f94a52@10.0.12.7");
+        carrier.setParentEndpoint("/api/v1/orders/{id}");
+        carrier.setAddressUsedAtClient("payment-service:8080");
+        header = carrier.serialize(ContextCarrier.HeaderVersion.v3);
+    }
+
+    @Benchmark
+    public String testSerializeByJoin() {
+        return StringUtil.join(
+            '-',
+            "1",
+            Base64.encode(carrier.getTraceId()),
+            Base64.encode(carrier.getTraceSegmentId()),
+            carrier.getSpanId() + "",
+            Base64.encode(carrier.getParentService()),
+            Base64.encode(carrier.getParentServiceInstance()),
+            Base64.encode(carrier.getParentEndpoint()),
+            Base64.encode(carrier.getAddressUsedAtClient())
+        );
+    }
+
+    @Benchmark
+    public String testSerializeByCodec() {
+        return carrier.serialize(ContextCarrier.HeaderVersion.v3);
+    }
+
+    @Benchmark
+    public ContextCarrier testDeserializeBySplit() {
+        ContextCarrier target = new ContextCarrier();
+        String[] parts = header.split("-", 8);
+        target.setTraceId(Base64.decode2UTFString(parts[1]));
+        target.setTraceSegmentId(Base64.decode2UTFString(parts[2]));
+        target.setSpanId(Integer.parseInt(parts[3]));
+        target.setParentService(Base64.decode2UTFString(parts[4]));
+        target.setParentServiceInstance(Base64.decode2UTFString(parts[5]));
+        target.setParentEndpoint(Base64.decode2UTFString(parts[6]));
+        target.setAddressUsedAtClient(Base64.decode2UTFString(parts[7]));
+        return target;
+    }
+
+    @Benchmark
+    public ContextCarrier testDeserializeByCodec() {
+        return new ContextCarrier().deserialize(header, ContextCarrier.HeaderVersion.v3);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(ContextCarrierCodecBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 2 iterations, 2 s each
+     * # Measurement: 3 iterations, 2 s each
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                                                Mode  Cnt     Score      Error  Units
+     * ContextCarrierCodecBenchmark.testDeserializeByCodec                      avgt    3   865.610 ± 4263.387  ns/op
+     * ContextCarrierCodecBenchmark.testDeserializeByCodec:·gc.alloc.rate.norm  avgt    3   632.576 ±    0.431   B/op
+     * ContextCarrierCodecBenchmark.testDeserializeBySplit                      avgt    3   894.583 ± 1149.452  ns/op
+     * ContextCarrierCodecBenchmark.testDeserializeBySplit:·gc.alloc.rate.norm  avgt    3  1897.673 ±    0.109   B/op
+     * ContextCarrierCodecBenchmark.testSerializeByCodec                        avgt    3   477.668 ±  271.840  ns/op
+     * ContextCarrierCodecBenchmark.testSerializeByCodec:·gc.alloc.rate.norm    avgt    3   864.766 ±    0.167   B/op
+     * ContextCarrierCodecBenchmark.testSerializeByJoin                         avgt    3   652.196 ± 1607.113  ns/op
+     * ContextCarrierCodecBenchmark.testSerializeByJoin:·gc.alloc.rate.norm     avgt    3  1881.657 ±    0.050   B/op
+     */
+}
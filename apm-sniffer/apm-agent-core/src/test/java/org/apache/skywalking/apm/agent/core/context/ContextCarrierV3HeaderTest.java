@@ -162,4 +162,37 @@ public class ContextCarrierV3HeaderTest {
         Assert.assertEquals(contextCarrier.getCorrelationContext(), contextCarrier2.getCorrelationContext());
         Assert.assertEquals(contextCarrier.getExtensionContext(), contextCarrier2.getExtensionContext());
     }
+
+    @Test
+    public void testNonAsciiV3HeaderAccurate() {
+        ContextCarrier contextCarrier = new ContextCarrier();
+        contextCarrier.setTraceSegmentId("1.2.3");
+        contextCarrier.setTraceId("3.4.5");
+        contextCarrier.setSpanId(12);
+        contextCarrier.setParentService("service");
+        contextCarrier.setParentServiceInstance("instance");
+        contextCarrier.setAddressUsedAtClient("127.0.0.1:8080");
+        contextCarrier.setParentEndpoint("/\u5e94\u7528");
+
+        String header = contextCarrier.serialize(ContextCarrier.HeaderVersion.v3);
+        ContextCarrier contextCarrier2 = new ContextCarrier().deserialize(header, ContextCarrier.HeaderVersion.v3);
+
+        Assert.assertTrue(contextCarrier2.isValid());
+        Assert.assertEquals(12, contextCarrier2.getSpanId());
+        Assert.assertEquals("/\u5e94\u7528", contextCarrier2.getParentEndpoint());
+        Assert.assertEquals("127.0.0.1:8080", contextCarrier2.getAddressUsedAtClient());
+    }
+
+    @Test
+    public void testDeserializeMalformedV3Header() {
+        String[] headers = {
+            "1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==",
+            "1-My40LjU=-MS4yLjM=-x-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=",
+            "1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgw*DA="
+        };
+        for (String header : headers) {
+            ContextCarrier contextCarrier = new ContextCarrier().deserialize(header, ContextCarrier.HeaderVersion.v3);
+            Assert.assertFalse(contextCarrier.isValid());
+        }
+    }
 }
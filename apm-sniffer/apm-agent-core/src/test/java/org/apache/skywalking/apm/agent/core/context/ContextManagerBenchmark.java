@@ -18,11 +18,18 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
@@ -34,6 +41,18 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class ContextManagerBenchmark {
+    /**
+     * The spans of a request in {@link #createFiftySpanRequest(Blackhole, TracingState)}, the entry span included.
+     */
+    private static final int REQUEST_SPAN_COUNT = 50;
+
+    @State(Scope.Benchmark)
+    public static class TracingState {
+        static {
+            ServiceManager.INSTANCE.boot();
+        }
+    }
+
     @Benchmark
     @Fork(value = 1, warmups = 1)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -50,6 +69,37 @@ public class ContextManagerBenchmark {
         bh.consume(Map.class.isAssignableFrom(HashMap.class));
     }
 
+    /**
+     * A request of a gateway, with 1 entry span, and 49 local and exit spans, each nested in a local span.
+     */
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void createFiftySpanRequest(Blackhole bh, TracingState state) {
+        AbstractSpan entrySpan = ContextManager.createEntrySpan("/gateway/orders/{id}", null);
+        entrySpan.setComponent(ComponentsDefine.SPRING_CLOUD_GATEWAY);
+        SpanLayer.asHttp(entrySpan);
+        Tags.URL.set(entrySpan, "http://127.0.0.1:8080/gateway/orders/1");
+        Tags.HTTP.METHOD.set(entrySpan, "GET");
+        for (int i = 1; i < REQUEST_SPAN_COUNT; i += 2) {
+            AbstractSpan localSpan = ContextManager.createLocalSpan("GatewayFilter/" + (i >> 1));
+            localSpan.tag("filter.order", "1");
+            if (i + 1 < REQUEST_SPAN_COUNT) {
+                AbstractSpan exitSpan = ContextManager.createExitSpan("/orders/{id}", "127.0.0.1:9090");
+                exitSpan.setComponent(ComponentsDefine.HTTPCLIENT);
+                SpanLayer.asHttp(exitSpan);
+                Tags.URL.set(exitSpan, "http://127.0.0.1:9090/orders/1");
+                Tags.HTTP_RESPONSE_STATUS_CODE.set(exitSpan, 200);
+                ContextManager.stopSpan();
+            }
+            ContextManager.stopSpan();
+        }
+        Tags.HTTP_RESPONSE_STATUS_CODE.set(entrySpan, 200);
+        ContextManager.stopSpan();
+        bh.consume(entrySpan);
+    }
+
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder().include(ContextManagerBenchmark.class.getSimpleName())
                 .addProfiler(GCProfiler.class)
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the sw8-correlation header propagation of every exit span, between encoding the whole map each time with
+ * split based parsing, and the cached header with index based parsing. Run with the {@link GCProfiler} to see the
+ * allocation per header.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CorrelationContextBenchmark {
+    private final Map<String, String> data = new ConcurrentHashMap<>();
+    private final CorrelationContext context = new CorrelationContext();
+    private String header;
+
+    @Setup
+    public void setup() {
+        data.put("tenant", "shop-eu-1");
+        data.put("scene", "checkout");
+        data.put("canary", "false");
+        data.forEach(context::put);
+        header = context.serialize();
+    }
+
+    @Benchmark
+    public String testInjectByStream(Blackhole blackhole) {
+        blackhole.consume(new ContextCarrier());
+        final Map<String, String> carrierData = new ConcurrentHashMap<>(data);
+        return carrierData.entrySet().stream()
+                          .map(entry -> Base64.encode(entry.getKey()) + ":" + Base64.encode(entry.getValue()))
+                          .collect(Collectors.joining(","));
+    }
+
+    @Benchmark
+    public String testInjectByCache() {
+        final ContextCarrier carrier = new ContextCarrier();
+        context.inject(carrier);
+        return carrier.getCorrelationContext().serialize();
+    }
+
+    @Benchmark
+    public Map<String, String> testExtractBySplit(Blackhole blackhole) {
+        blackhole.consume(new CorrelationContext());
+        final Map<String, String> carrierData = new ConcurrentHashMap<>();
+        for (String perData : header.split(",")) {
+            final String[] parts = perData.split(":");
+            if (parts.length != 2) {
+                continue;
+            }
+            carrierData.put(Base64.decode2UTFString(parts[0]), Base64.decode2UTFString(parts[1]));
+        }
+        return carrierData;
+    }
+
+    @Benchmark
+    public CorrelationContext testExtractByIndex() {
+        final CorrelationContext carrierContext = new CorrelationContext();
+        carrierContext.deserialize(header);
+        return carrierContext;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(CorrelationContextBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 2 iterations, 2 s each
+     * # Measurement: 3 iterations, 2 s each
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                                           Mode  Cnt     Score     Error  Units
+     * CorrelationContextBenchmark.testExtractByIndex                      avgt    3   522.690 ± 216.523  ns/op
+     * CorrelationContextBenchmark.testExtractByIndex:·gc.alloc.rate.norm  avgt    3   680.611 ±   0.113   B/op
+     * CorrelationContextBenchmark.testExtractBySplit                      avgt    3   938.637 ± 656.187  ns/op
+     * CorrelationContextBenchmark.testExtractBySplit:·gc.alloc.rate.norm  avgt    3  1857.636 ±   0.146   B/op
+     * CorrelationContextBenchmark.testInjectByCache                       avgt    3   436.426 ± 131.433  ns/op
+     * CorrelationContextBenchmark.testInjectByCache:·gc.alloc.rate.norm   avgt    3   384.351 ±   0.238   B/op
+     * CorrelationContextBenchmark.testInjectByStream                      avgt    3   717.485 ± 879.052  ns/op
+     * CorrelationContextBenchmark.testInjectByStream:·gc.alloc.rate.norm  avgt    3  1633.445 ±   0.227   B/op
+     */
+}
@@ -120,4 +120,45 @@ public class CorrelationContextTest {
         context.deserialize(null);
         Assert.assertNull(context.get("test1").orElse(null));
     }
+
+    @Test
+    public void testSerializeCache() {
+        CorrelationContext context = new CorrelationContext();
+        context.put("test1", "t1");
+        final String serialized = context.serialize();
+        Assert.assertSame(serialized, context.serialize());
+
+        // same value, no change
+        context.put("test1", "t1");
+        Assert.assertSame(serialized, context.serialize());
+
+        context.put("test1", "t1New");
+        Assert.assertEquals("dGVzdDE=:dDFOZXc=", context.serialize());
+
+        context.put("test1", null);
+        Assert.assertEquals("", context.serialize());
+    }
+
+    @Test
+    public void testInjectSerialized() {
+        CorrelationContext context = new CorrelationContext();
+        context.put("test1", "t1");
+        final String serialized = context.serialize();
+
+        ContextCarrier carrier = new ContextCarrier();
+        context.inject(carrier);
+        Assert.assertSame(serialized, carrier.getCorrelationContext().serialize());
+
+        carrier.getCorrelationContext().put("test2", "t2");
+        Assert.assertEquals("dGVzdDE=:dDE=,dGVzdDI=:dDI=", carrier.getCorrelationContext().serialize());
+        Assert.assertSame(serialized, context.serialize());
+    }
+
+    @Test
+    public void testDeserializeIllegalElements() {
+        CorrelationContext context = new CorrelationContext();
+        context.deserialize(",dGVzdDE=:dDE=:dDE=,:,dGVzdDI=:dDI=:");
+        Assert.assertFalse(context.get("test1").isPresent());
+        Assert.assertEquals("t2", context.get("test2").get());
+    }
 }
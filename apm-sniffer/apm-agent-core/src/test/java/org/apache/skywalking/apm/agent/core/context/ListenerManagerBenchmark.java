@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The finished segments of 4 threads notified to {@link #listenerCount} listeners, like the reporter, the meter and
+ * the plugin listeners registered together. Half of the listeners are not interested in the ignored segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class ListenerManagerBenchmark {
+    @Param({"1", "4", "8"})
+    private int listenerCount;
+
+    private TracingContextListener[] listeners;
+    private TraceSegment segment;
+    private TraceSegment ignoredSegment;
+
+    @Setup
+    public void setUp() {
+        listeners = new TracingContextListener[listenerCount];
+        for (int i = 0; i < listenerCount; i++) {
+            listeners[i] = new ReportListener(i % 2 == 0);
+            TracingContext.ListenerManager.add(listeners[i]);
+        }
+        segment = new TraceSegment();
+        ignoredSegment = new TraceSegment();
+        ignoredSegment.setIgnore(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (TracingContextListener listener : listeners) {
+            TracingContext.ListenerManager.remove(listener);
+        }
+    }
+
+    @Benchmark
+    public void notifyFinish() {
+        TracingContext.ListenerManager.notifyFinish(segment);
+    }
+
+    @Benchmark
+    public void notifyFinishIgnored() {
+        TracingContext.ListenerManager.notifyFinish(ignoredSegment);
+    }
+
+    private static class ReportListener implements TracingContextListener {
+        private final boolean interestedInIgnoredSegment;
+
+        private ReportListener(boolean interestedInIgnoredSegment) {
+            this.interestedInIgnoredSegment = interestedInIgnoredSegment;
+        }
+
+        @Override
+        public void afterFinished(TraceSegment traceSegment) {
+            Blackhole.consumeCPU(10);
+        }
+
+        @Override
+        public boolean isInterestedInIgnoredSegment() {
+            return interestedInIgnoredSegment;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(ListenerManagerBenchmark.class.getName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .addProfiler("gc")
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -18,6 +18,10 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SpanLimitWatcher;
@@ -80,4 +84,41 @@ public class TracingContextTest {
         }
     }
 
+    @Test
+    public void testIgnoredSegmentNotifiedToInterestedListeners() {
+        final List<TraceSegment> all = new ArrayList<>();
+        final List<TraceSegment> notIgnored = new ArrayList<>();
+        TracingContextListener allListener = all::add;
+        TracingContextListener notIgnoredListener = new TracingContextListener() {
+            @Override
+            public void afterFinished(TraceSegment traceSegment) {
+                notIgnored.add(traceSegment);
+            }
+
+            @Override
+            public boolean isInterestedInIgnoredSegment() {
+                return false;
+            }
+        };
+        TracingContext.ListenerManager.add(allListener);
+        TracingContext.ListenerManager.add(notIgnoredListener);
+        try {
+            final TraceSegment segment = new TraceSegment();
+            final TraceSegment ignoredSegment = new TraceSegment();
+            ignoredSegment.setIgnore(true);
+
+            TracingContext.ListenerManager.notifyFinish(segment);
+            TracingContext.ListenerManager.notifyFinish(ignoredSegment);
+
+            Assert.assertEquals(Arrays.asList(segment, ignoredSegment), all);
+            Assert.assertEquals(Collections.singletonList(segment), notIgnored);
+        } finally {
+            TracingContext.ListenerManager.remove(allListener);
+            TracingContext.ListenerManager.remove(notIgnoredListener);
+        }
+
+        TracingContext.ListenerManager.notifyFinish(new TraceSegment());
+        Assert.assertEquals(2, all.size());
+    }
+
 }
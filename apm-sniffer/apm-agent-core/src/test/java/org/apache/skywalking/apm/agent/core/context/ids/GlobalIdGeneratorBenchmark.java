@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the id generation between joining the parts into a string eagerly, and keeping the parts as primitives to
+ * render them later. Run with the {@link GCProfiler} to see the allocation per id.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GlobalIdGeneratorBenchmark {
+    private final String processId = UUID.randomUUID().toString().replaceAll("-", "");
+    private short threadSeq;
+
+    @Benchmark
+    public String testGenerateByJoin() {
+        return StringUtil.join(
+            '.',
+            processId,
+            String.valueOf(Thread.currentThread().getId()),
+            String.valueOf(System.currentTimeMillis() * 10000 + threadSeq++ % 10000)
+        );
+    }
+
+    /**
+     * The id of a segment, which is read when the segment is reported.
+     */
+    @Benchmark
+    public String testGenerateAndRender() {
+        return GlobalIdGenerator.generateId().toString();
+    }
+
+    /**
+     * The generated trace id of a segment, which is replaced by the propagated trace id and never read.
+     */
+    @Benchmark
+    public GlobalId testGenerateOnly() {
+        return GlobalIdGenerator.generateId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(GlobalIdGeneratorBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 2 iterations, 2 s each
+     * # Measurement: 3 iterations, 2 s each
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                                            Mode  Cnt    Score     Error  Units
+     * GlobalIdGeneratorBenchmark.testGenerateAndRender                     avgt    3  161.405 ± 323.746  ns/op
+     * GlobalIdGeneratorBenchmark.testGenerateAndRender:·gc.alloc.rate.norm avgt    3  256.227 ±   0.036   B/op
+     * GlobalIdGeneratorBenchmark.testGenerateByJoin                        avgt    3  166.988 ± 434.584  ns/op
+     * GlobalIdGeneratorBenchmark.testGenerateByJoin:·gc.alloc.rate.norm    avgt    3  312.276 ±   0.049   B/op
+     * GlobalIdGeneratorBenchmark.testGenerateOnly                          avgt    3   62.275 ±  35.486  ns/op
+     * GlobalIdGeneratorBenchmark.testGenerateOnly:·gc.alloc.rate.norm      avgt    3   32.030 ±   0.021   B/op
+     */
+}
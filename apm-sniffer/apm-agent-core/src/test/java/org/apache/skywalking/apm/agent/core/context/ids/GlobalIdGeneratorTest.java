@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GlobalIdGeneratorTest {
+
+    @Test
+    public void testGenerate() {
+        final String[] parts = GlobalIdGenerator.generate().split("\\.");
+        Assert.assertEquals(3, parts.length);
+        Assert.assertEquals(32, parts[0].length());
+        Assert.assertEquals(String.valueOf(Thread.currentThread().getId()), parts[1]);
+        Assert.assertTrue(Long.parseLong(parts[2]) > System.currentTimeMillis() / 1000 * 10000);
+    }
+
+    @Test
+    public void testRender() {
+        final String processId = GlobalIdGenerator.generate().split("\\.")[0];
+        Assert.assertEquals(processId + ".1.0", GlobalIdGenerator.render(1, 0));
+        Assert.assertEquals(processId + ".9.10", GlobalIdGenerator.render(9, 10));
+        Assert.assertEquals(
+            processId + "." + Long.MAX_VALUE + ".16903395478340001",
+            GlobalIdGenerator.render(Long.MAX_VALUE, 16903395478340001L)
+        );
+    }
+
+    @Test
+    public void testLazyTraceId() {
+        final GlobalId id = GlobalIdGenerator.generateId();
+        final String rendered = id.toString();
+        Assert.assertSame(rendered, id.toString());
+
+        final DistributedTraceId traceId = new NewDistributedTraceId();
+        Assert.assertEquals(new PropagatedTraceId(traceId.getId()), traceId);
+        Assert.assertEquals(new PropagatedTraceId(traceId.getId()).hashCode(), traceId.hashCode());
+        Assert.assertNotEquals(new NewDistributedTraceId(), traceId);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.util;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * An error storm, the same downstream timeout thrown by 8 threads through a Spring MVC stack of {@value #DEPTH}
+ * frames, wrapped by a service exception. Every conversion takes the new exceptions of the same stacks, like the ones
+ * thrown by the requests. {@link #cacheSize} 0 converts every stack without the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class ThrowableTransformerBenchmark {
+    private static final int DEPTH = 150;
+
+    private static final String[] SPRING_FRAMES = new String[] {
+        "org.springframework.web.servlet.FrameworkServlet#processRequest",
+        "org.springframework.web.servlet.DispatcherServlet#doService",
+        "org.springframework.web.servlet.DispatcherServlet#doDispatch",
+        "org.springframework.web.servlet.mvc.method.AbstractHandlerMethodAdapter#handle",
+        "org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter#invokeHandlerMethod",
+        "org.springframework.web.method.support.InvocableHandlerMethod#invokeForRequest",
+        "org.springframework.aop.framework.ReflectiveMethodInvocation#proceed",
+        "org.springframework.transaction.interceptor.TransactionInterceptor#invoke",
+        "org.springframework.cglib.proxy.MethodProxy#invoke",
+        "org.springframework.web.filter.OncePerRequestFilter#doFilter",
+        "org.apache.catalina.core.ApplicationFilterChain#internalDoFilter",
+        "org.apache.catalina.core.StandardWrapperValve#invoke"
+    };
+
+    @Param({"0", "256"})
+    private int cacheSize;
+
+    private StackTraceElement[] serviceStack;
+    private StackTraceElement[] timeoutStack;
+
+    @Setup
+    public void setUp() {
+        Config.Agent.STACK_TRACE_CACHE_SIZE = cacheSize;
+        ThrowableTransformer.INSTANCE.reset();
+
+        serviceStack = new StackTraceElement[DEPTH];
+        serviceStack[0] = new StackTraceElement("com.example.order.OrderService", "load", "OrderService.java", 87);
+        for (int i = 1; i < DEPTH; i++) {
+            final String[] frame = SPRING_FRAMES[i % SPRING_FRAMES.length].split("#");
+            serviceStack[i] = new StackTraceElement(
+                frame[0], frame[1], frame[0].substring(frame[0].lastIndexOf('.') + 1) + ".java", 100 + i);
+        }
+        timeoutStack = new StackTraceElement[DEPTH + 10];
+        for (int i = 0; i < 10; i++) {
+            timeoutStack[i] = new StackTraceElement(
+                "org.apache.http.impl.conn.PoolingHttpClientConnectionManager", "leaseConnection",
+                "PoolingHttpClientConnectionManager.java", 300 + i
+            );
+        }
+        System.arraycopy(serviceStack, 0, timeoutStack, 10, DEPTH);
+    }
+
+    @Benchmark
+    public void testConvert2String(Blackhole bh) {
+        final Throwable timeout = new StormException("Timeout waiting for connection from pool", null, timeoutStack);
+        final Throwable throwable = new StormException("Load order failed", timeout, serviceStack);
+        bh.consume(ThrowableTransformer.INSTANCE.convert2String(throwable, 4000));
+    }
+
+    private static class StormException extends RuntimeException {
+        private StormException(String message, Throwable cause, StackTraceElement[] stackTrace) {
+            super(message, cause);
+            setStackTrace(stackTrace.clone());
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(ThrowableTransformerBenchmark.class.getName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .addProfiler("gc")
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.util;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ThrowableTransformerTest {
+
+    @After
+    public void tearDown() {
+        Config.Agent.STACK_TRACE_CACHE_SIZE = 256;
+        Config.Agent.STACK_TRACE_DEDUPLICATE_INTERVAL = 0;
+        ThrowableTransformer.INSTANCE.reset();
+    }
+
+    @Test
+    public void testConvertTheSameAsWithoutCache() {
+        final Throwable[] throwables = new Throwable[] {
+            timeout("read timed out 1"),
+            timeout("read timed out 2"),
+            new IllegalStateException("wrapped", timeout("read timed out 3")),
+            new IllegalStateException("empty stack") {
+                @Override
+                public synchronized Throwable fillInStackTrace() {
+                    return this;
+                }
+            }
+        };
+        final int[] maxLengths = new int[] {0, 100, 500, 4000, Integer.MAX_VALUE};
+
+        Config.Agent.STACK_TRACE_CACHE_SIZE = 0;
+        ThrowableTransformer.INSTANCE.reset();
+        final String[][] expected = new String[throwables.length][maxLengths.length];
+        for (int i = 0; i < throwables.length; i++) {
+            for (int j = 0; j < maxLengths.length; j++) {
+                expected[i][j] = ThrowableTransformer.INSTANCE.convert2String(throwables[i], maxLengths[j]);
+            }
+        }
+
+        Config.Agent.STACK_TRACE_CACHE_SIZE = 256;
+        ThrowableTransformer.INSTANCE.reset();
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < throwables.length; i++) {
+                for (int j = 0; j < maxLengths.length; j++) {
+                    Assert.assertEquals(
+                        expected[i][j], ThrowableTransformer.INSTANCE.convert2String(throwables[i], maxLengths[j]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFingerprint() {
+        // thrown through the same code, with the different messages.
+        final Throwable[] throwables = new Throwable[2];
+        for (int i = 0; i < throwables.length; i++) {
+            throwables[i] = timeout("read timed out " + i);
+        }
+        Assert.assertEquals(
+            ThrowableTransformer.INSTANCE.fingerprint(throwables[0]),
+            ThrowableTransformer.INSTANCE.fingerprint(throwables[1])
+        );
+        Assert.assertNotEquals(
+            ThrowableTransformer.INSTANCE.fingerprint(throwables[0]),
+            ThrowableTransformer.INSTANCE.fingerprint(new IllegalStateException(throwables[0]))
+        );
+    }
+
+    @Test
+    public void testCountOccurrence() {
+        Config.Agent.STACK_TRACE_DEDUPLICATE_INTERVAL = 60;
+        final long fingerprint = ThrowableTransformer.INSTANCE.fingerprint(timeout("read timed out"));
+
+        Assert.assertEquals(0, ThrowableTransformer.INSTANCE.countOccurrence(fingerprint, 0));
+        Assert.assertEquals(1, ThrowableTransformer.INSTANCE.countOccurrence(fingerprint, 1000));
+        Assert.assertEquals(2, ThrowableTransformer.INSTANCE.countOccurrence(fingerprint, 59_999));
+        Assert.assertEquals(0, ThrowableTransformer.INSTANCE.countOccurrence(fingerprint, 60_000));
+        Assert.assertEquals(1, ThrowableTransformer.INSTANCE.countOccurrence(fingerprint, 60_001));
+    }
+
+    private static Throwable timeout(String message) {
+        return new RuntimeException(message);
+    }
+}
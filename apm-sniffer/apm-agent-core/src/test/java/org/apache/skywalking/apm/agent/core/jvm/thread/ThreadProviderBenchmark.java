@@ -23,11 +23,19 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 public class ThreadProviderBenchmark {
@@ -40,6 +48,80 @@ public class ThreadProviderBenchmark {
         bh.consume(ThreadProvider.INSTANCE.getThreadMetrics());
     }
 
+    @Benchmark
+    @Fork(value = 1)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @BenchmarkMode(Mode.Throughput)
+    public void getThreadMetricsOfManyThreads(ManyThreads threads, Blackhole bh) {
+        bh.consume(ThreadProvider.INSTANCE.getThreadMetrics(threads.sampleSize));
+    }
+
+    /**
+     * Park {@link #threadCount} extra threads in the waiting, timed waiting and blocked states.
+     */
+    @State(Scope.Benchmark)
+    public static class ManyThreads {
+        @Param({"200", "4000"})
+        private int threadCount;
+        @Param({"0", "256"})
+        private int sampleSize;
+
+        private final Object lock = new Object();
+        private final CountDownLatch stop = new CountDownLatch(1);
+        private final List<Thread> threads = new ArrayList<>();
+
+        @Setup
+        public void setUp() {
+            synchronized (lock) {
+                for (int i = 0; i < threadCount; i++) {
+                    Thread thread;
+                    switch (i % 3) {
+                        case 0:
+                            thread = new Thread(this::await);
+                            break;
+                        case 1:
+                            thread = new Thread(this::awaitTimed);
+                            break;
+                        default:
+                            thread = new Thread(this::lock);
+                            break;
+                    }
+                    thread.setDaemon(true);
+                    thread.start();
+                    threads.add(thread);
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws InterruptedException {
+            stop.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        private void await() {
+            try {
+                stop.await();
+            } catch (InterruptedException ignored) {
+            }
+        }
+
+        private void awaitTimed() {
+            try {
+                stop.await(1, TimeUnit.HOURS);
+            } catch (InterruptedException ignored) {
+            }
+        }
+
+        private void lock() {
+            synchronized (lock) {
+                await();
+            }
+        }
+    }
+
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder().include(ThreadProviderBenchmark.class.getSimpleName())
                 .build();
@@ -61,4 +143,18 @@ public class ThreadProviderBenchmark {
      * Benchmark                                  Mode  Cnt       Score      Error  Units
      * ThreadProviderBenchmark.getThreadMetrics  thrpt   25  247393.607 ± 2493.640  ops/s
      */
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 3 iterations, 5 s each
+     * # Measurement: 5 iterations, 5 s each
+     * # Benchmark mode: Throughput, ops/time
+     *
+     * Benchmark                                              (sampleSize)  (threadCount)   Mode  Cnt      Score     Error  Units
+     * ThreadProviderBenchmark.getThreadMetricsOfManyThreads             0            200  thrpt    5  12823.339 ± 483.187  ops/s
+     * ThreadProviderBenchmark.getThreadMetricsOfManyThreads             0           4000  thrpt    5    257.172 ±   6.642  ops/s
+     * ThreadProviderBenchmark.getThreadMetricsOfManyThreads           256            200  thrpt    5  12789.524 ± 294.725  ops/s
+     * ThreadProviderBenchmark.getThreadMetricsOfManyThreads           256           4000  thrpt    5   3205.206 ± 235.004  ops/s
+     */
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.jvm.thread;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.apm.network.language.agent.v3.Thread;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ThreadProviderTest {
+
+    @Test
+    public void testSampleAllThreads() {
+        long[] threadIds = threadIds(10);
+        Assert.assertSame(threadIds, ThreadProvider.INSTANCE.sample(threadIds, 0));
+        Assert.assertSame(threadIds, ThreadProvider.INSTANCE.sample(threadIds, 10));
+    }
+
+    @Test
+    public void testSampleRotatingOffset() {
+        // 3 threads spaced by 3 among 10, the first one starts at the offset 0, 1, 2 or 3
+        long[] threadIds = threadIds(10);
+        Set<Long> offsets = new HashSet<>();
+        long lastOffset = -1;
+        for (int i = 0; i < 8; i++) {
+            long[] sampled = ThreadProvider.INSTANCE.sample(threadIds, 3);
+            Assert.assertEquals(3, sampled.length);
+            Assert.assertEquals(sampled[0] + 3, sampled[1]);
+            Assert.assertEquals(sampled[1] + 3, sampled[2]);
+            Assert.assertTrue(sampled[2] < threadIds.length);
+            Assert.assertNotEquals(lastOffset, sampled[0]);
+            lastOffset = sampled[0];
+            offsets.add(sampled[0]);
+        }
+        Assert.assertEquals(4, offsets.size());
+    }
+
+    @Test
+    public void testExtrapolateSampledStates() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<java.lang.Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            java.lang.Thread thread = new java.lang.Thread(() -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException ignored) {
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        try {
+            for (int i = 0; i < 4; i++) {
+                Thread metrics = ThreadProvider.INSTANCE.getThreadMetrics(8);
+                int stateCount = metrics.getRunnableStateThreadCount() + metrics.getBlockedStateThreadCount()
+                    + metrics.getWaitingStateThreadCount() + metrics.getTimedWaitingStateThreadCount();
+                // each of the 4 extrapolated counts is rounded, and a few threads may start or stop meanwhile
+                Assert.assertEquals(metrics.getLiveCount(), stateCount, 4 + metrics.getLiveCount() / 10);
+            }
+        } finally {
+            latch.countDown();
+            for (java.lang.Thread thread : threads) {
+                thread.join();
+            }
+        }
+    }
+
+    private static long[] threadIds(int count) {
+        long[] threadIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            threadIds[i] = i;
+        }
+        return threadIds;
+    }
+}
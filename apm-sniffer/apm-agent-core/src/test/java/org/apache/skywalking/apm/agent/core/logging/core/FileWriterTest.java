@@ -24,13 +24,25 @@ import org.junit.Test;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.Constants;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class FileWriterTest {
 
@@ -73,6 +85,102 @@ public class FileWriterTest {
         assertEquals(3, pathArr.length);
     }
 
+    @Test
+    public void testCompressHistoryFile() throws IOException {
+        File dir = new File(Config.Logging.DIR);
+        dir.mkdirs();
+        File historyFile = new File(dir, "compress-test.log");
+        String content = "abcdefghij\n\u65e5\u5fd7\n";
+        try (OutputStream output = new FileOutputStream(historyFile)) {
+            output.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        FileWriter.compress(historyFile);
+
+        File compressedFile = new File(dir, "compress-test.log.gz");
+        assertFalse(historyFile.exists());
+        assertTrue(compressedFile.exists());
+        ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+        try (InputStream input = new GZIPInputStream(new FileInputStream(compressedFile))) {
+            byte[] buffer = new byte[1024];
+            int length;
+            while ((length = input.read(buffer)) > 0) {
+                uncompressed.write(buffer, 0, length);
+            }
+        }
+        assertEquals(content, new String(uncompressed.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSwitchFileByWrittenBytes() throws IOException {
+        final long maxFileSize = Config.Logging.MAX_FILE_SIZE;
+        final String dir = Config.Logging.DIR;
+        Config.Logging.DIR = dir + Constants.PATH_SEPARATOR + "switch-test";
+        try {
+            // 4 chars, but 12 bytes in UTF-8
+            final String message = "\u65e5\u5fd7\u65e5\u5fd7";
+            final int lineBytes = (message + Constants.LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8).length;
+            Config.Logging.MAX_FILE_SIZE = 2 * lineBytes;
+            final FileWriter writer = new FileWriter(false);
+            final File logFile = new File(Config.Logging.DIR, Config.Logging.FILE_NAME);
+
+            writer.write(message);
+            writer.write(message);
+            writer.flush(new ArrayList<>());
+            assertEquals(Config.Logging.MAX_FILE_SIZE, logFile.length());
+            assertEquals(0, historyFiles().length);
+
+            writer.write(message);
+            writer.flush(new ArrayList<>());
+            assertFalse(logFile.exists());
+            final File[] historyFiles = historyFiles();
+            assertEquals(1, historyFiles.length);
+            assertEquals(3 * lineBytes, historyFiles[0].length());
+        } finally {
+            Config.Logging.MAX_FILE_SIZE = maxFileSize;
+            Config.Logging.DIR = dir;
+        }
+    }
+
+    @Test
+    public void testWriteDroppedLines() throws IOException {
+        final long maxFileSize = Config.Logging.MAX_FILE_SIZE;
+        final String dir = Config.Logging.DIR;
+        Config.Logging.DIR = dir + Constants.PATH_SEPARATOR + "dropped-test";
+        try {
+            Config.Logging.MAX_FILE_SIZE = 1024 * 1024;
+            final FileWriter writer = new FileWriter(false);
+            for (int i = 0; i < 1024 + 5; i++) {
+                writer.write("log-" + i);
+            }
+            assertEquals(5, writer.getDroppedLines());
+
+            writer.flush(new ArrayList<>());
+            final List<String> lines = Files.readAllLines(
+                new File(Config.Logging.DIR, Config.Logging.FILE_NAME).toPath(), StandardCharsets.UTF_8);
+            assertEquals(1 + 1024, lines.size());
+            assertEquals("5 agent log lines were dropped, as the log queue was full.", lines.get(0));
+            assertEquals("log-0", lines.get(1));
+            assertEquals("log-1023", lines.get(1024));
+
+            // the dropped lines are written once
+            writer.write("log-1029");
+            writer.flush(new ArrayList<>());
+            assertEquals(5, writer.getDroppedLines());
+            assertEquals(1 + 1024 + 1, Files.readAllLines(
+                new File(Config.Logging.DIR, Config.Logging.FILE_NAME).toPath(), StandardCharsets.UTF_8).size());
+        } finally {
+            Config.Logging.MAX_FILE_SIZE = maxFileSize;
+            Config.Logging.DIR = dir;
+        }
+    }
+
+    private static File[] historyFiles() {
+        final File[] files = new File(Config.Logging.DIR).listFiles(
+            (dir, name) -> name.startsWith(Config.Logging.FILE_NAME + "."));
+        return files != null ? files : new File[0];
+    }
+
     @AfterClass
     public static void clear() {
         Config.Logging.MAX_FILE_SIZE = 300 * 1024 * 1024;
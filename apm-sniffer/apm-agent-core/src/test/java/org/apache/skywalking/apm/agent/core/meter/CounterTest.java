@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
 import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.network.language.agent.v3.Label;
@@ -85,6 +86,42 @@ public class CounterTest {
         validateMeterData("test", Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build()), -1d, counter.transform());
     }
 
+    @Test
+    public void testSkipUnchanged() {
+        Config.Meter.MAX_SKIPPED_REPORTS = 2;
+        try {
+            final List<Label> labels = Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build());
+            final Counter counter = MeterFactory.counter("test").tag("k1", "v1").build();
+            final Counter rateCounter = MeterFactory.counter("test_rate").tag("k1", "v1").mode(CounterMode.RATE).build();
+
+            validateMeterData("test", labels, 0d, counter.transform());
+            validateMeterData("test_rate", labels, 0d, rateCounter.transform());
+
+            counter.increment(1d);
+            rateCounter.increment(1d);
+            validateMeterData("test", labels, 1d, counter.transform());
+            validateMeterData("test_rate", labels, 1d, rateCounter.transform());
+
+            // skip twice at most, then report the unchanged value
+            Assert.assertNull(counter.transform());
+            Assert.assertNull(rateCounter.transform());
+            Assert.assertNull(counter.transform());
+            Assert.assertNull(rateCounter.transform());
+            validateMeterData("test", labels, 1d, counter.transform());
+            validateMeterData("test_rate", labels, 0d, rateCounter.transform());
+            Assert.assertNull(counter.transform());
+            Assert.assertNull(rateCounter.transform());
+
+            // the same increase of a rate counter is a change
+            rateCounter.increment(1d);
+            validateMeterData("test_rate", labels, 1d, rateCounter.transform());
+            rateCounter.increment(1d);
+            validateMeterData("test_rate", labels, 1d, rateCounter.transform());
+        } finally {
+            Config.Meter.MAX_SKIPPED_REPORTS = 0;
+        }
+    }
+
     /**
      * Check the single value message
      */
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Add the latencies in milliseconds, log-normally distributed around 20ms, into a histogram of the searched buckets
+ * and a histogram of the exponential buckets, which have the similar number of buckets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HistogramBenchmark {
+    private static final int VALUE_COUNT = 1 << 16;
+
+    private final double[] values = new double[VALUE_COUNT];
+    private Histogram searchedHistogram;
+    private Histogram exponentialHistogram;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            values[i] = Math.exp(Math.log(20) + random.nextGaussian());
+        }
+
+        final Histogram.Builder exponentialBuilder = new Histogram.Builder("exponential").exponentialSteps(1, 1000, 2);
+        exponentialHistogram = exponentialBuilder.create(exponentialBuilder.meterId);
+
+        final List<Double> steps = new ArrayList<>();
+        steps.add(0d);
+        for (double step = 1; step < 1000; step *= 1.2) {
+            steps.add(Math.floor(step * 10) / 10);
+        }
+        searchedHistogram = new Histogram(new MeterId("searched", MeterType.HISTOGRAM, new ArrayList<>()), steps);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        double next(double[] values) {
+            index = (index + 1) & (VALUE_COUNT - 1);
+            return values[index];
+        }
+    }
+
+    @Benchmark
+    public void testSearchedBuckets(Cursor cursor) {
+        searchedHistogram.addValue(cursor.next(values));
+    }
+
+    @Benchmark
+    public void testExponentialBuckets(Cursor cursor) {
+        exponentialHistogram.addValue(cursor.next(values));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void testSearchedBucketsWith4Threads(Cursor cursor) {
+        searchedHistogram.addValue(cursor.next(values));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void testExponentialBucketsWith4Threads(Cursor cursor) {
+        exponentialHistogram.addValue(cursor.next(values));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(HistogramBenchmark.class.getName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 3 iterations, 3 s each
+     * # Measurement: 5 iterations, 3 s each
+     * # Benchmark mode: Average time, time/op
+     * # 1 processor, so the threads don't run in parallel
+     *
+     * Benchmark                                              Mode  Cnt    Score   Error  Units
+     * HistogramBenchmark.testExponentialBuckets              avgt    5    6.924 ± 0.065  ns/op
+     * HistogramBenchmark.testExponentialBucketsWith4Threads  avgt    5   27.203 ± 0.239  ns/op
+     * HistogramBenchmark.testSearchedBuckets                 avgt    5   26.013 ± 0.795  ns/op
+     * HistogramBenchmark.testSearchedBucketsWith4Threads     avgt    5  113.291 ± 2.834  ns/op
+     */
+}
@@ -19,9 +19,11 @@
 package org.apache.skywalking.apm.agent.core.meter;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
 import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.network.language.agent.v3.Label;
@@ -80,6 +82,53 @@ public class HistogramTest {
         verifyHistogram("test", labels, Arrays.asList(1d, 2d, 5d), Arrays.asList(1L, 2L, 2L), histogram.transform());
     }
 
+    @Test
+    public void testExponentialBuckets() {
+        final Histogram histogram = MeterFactory.histogram("test").exponentialSteps(1d, 4d, 1).build();
+        histogram.addValue(-1);
+        histogram.addValue(0.5);
+        histogram.addValue(1);
+        histogram.addValue(1.49);
+        histogram.addValue(1.5);
+        histogram.addValue(2.9);
+        histogram.addValue(3);
+        histogram.addValue(100);
+        verifyHistogram("test", Collections.emptyList(), Arrays.asList(0d, 1d, 1.5d, 2d, 3d, 4d),
+                        Arrays.asList(1L, 2L, 1L, 1L, 1L, 1L), histogram.transform()
+        );
+
+        Assert.assertEquals(1, Histogram.exponentialPrecision(new double[] {0, 1, 1.5, 2, 3, 4}, 1));
+        Assert.assertEquals(0, Histogram.exponentialPrecision(new double[] {0.25, 0.5, 1, 2}, 0));
+        Assert.assertEquals(-1, Histogram.exponentialPrecision(new double[] {0, 1, 1.5, 2, 3, 4}, 0));
+        Assert.assertEquals(-1, Histogram.exponentialPrecision(new double[] {1, 2, 5, 10}, 0));
+    }
+
+    @Test
+    public void testSkipUnchanged() {
+        Config.Meter.MAX_SKIPPED_REPORTS = 1;
+        try {
+            final List<Label> labels = Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build());
+            final Histogram histogram = MeterFactory.histogram("test")
+                                                    .steps(Arrays.asList(2d, 5d))
+                                                    .tag("k1", "v1")
+                                                    .build();
+            histogram.addValue(3);
+            final MeterData.Builder first = histogram.transform();
+            verifyHistogram("test", labels, Arrays.asList(0d, 2d, 5d), Arrays.asList(0L, 1L, 0L), first);
+            Assert.assertNull(histogram.transform());
+
+            // the messages of the unchanged buckets are reused
+            histogram.addValue(7);
+            final MeterData.Builder second = histogram.transform();
+            verifyHistogram("test", labels, Arrays.asList(0d, 2d, 5d), Arrays.asList(0L, 1L, 1L), second);
+            Assert.assertSame(first.getHistogram().getValues(1), second.getHistogram().getValues(1));
+            Assert.assertNull(histogram.transform());
+            verifyHistogram("test", labels, Arrays.asList(0d, 2d, 5d), Arrays.asList(0L, 1L, 1L), histogram.transform());
+        } finally {
+            Config.Meter.MAX_SKIPPED_REPORTS = 0;
+        }
+    }
+
     /**
      * Check histogram message
      */
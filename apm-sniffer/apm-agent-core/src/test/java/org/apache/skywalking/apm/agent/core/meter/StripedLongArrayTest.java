@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StripedLongArrayTest {
+
+    @Test
+    public void testIncrement() throws InterruptedException {
+        final StripedLongArray counts = new StripedLongArray(3, 4);
+        final int threadCount = 8;
+        final int increments = 100000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int index = i % counts.length();
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < increments; j++) {
+                    counts.increment(index);
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertArrayEquals(new long[] {3L * increments, 3L * increments, 2L * increments}, counts.sum());
+        Assert.assertTrue(counts.stripeCount() <= 4);
+    }
+
+    @Test
+    public void testStripes() {
+        Assert.assertEquals(1, StripedLongArray.stripes(1));
+        Assert.assertEquals(2, StripedLongArray.stripes(2));
+        Assert.assertEquals(4, StripedLongArray.stripes(3));
+        Assert.assertEquals(8, StripedLongArray.stripes(8));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measure the wall time of loading the plugins at the startup, one by one, or on a fork-join pool. {@value
+ * #PLUGIN_COUNT} plugin define classes are generated into a plugin jar, and every invocation loads them by a new class
+ * loader, as the agent does only once in a JVM. The gain of the parallel loading depends on the available cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PluginBootstrapBenchmark {
+    private static final int PLUGIN_COUNT = 300;
+
+    @Param({
+        "1",
+        "4"
+    })
+    private int parallelism;
+
+    private Path folder;
+    private URL pluginJar;
+    private List<PluginDefine> pluginDefines;
+    private URLClassLoader classLoader;
+
+    @Setup
+    public void setUp() throws Exception {
+        folder = Files.createTempDirectory("plugin-bootstrap");
+        List<File> sources = new ArrayList<>();
+        StringBuilder pluginDef = new StringBuilder();
+        for (int i = 0; i < PLUGIN_COUNT; i++) {
+            File source = folder.resolve("src/org/example/plugin" + i + "/Define.java").toFile();
+            source.getParentFile().mkdirs();
+            Files.write(source.toPath(), defineSource(i).getBytes(StandardCharsets.UTF_8));
+            sources.add(source);
+            pluginDef.append("plugin-").append(i).append("=org.example.plugin").append(i).append(".Define\n");
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> arguments = new ArrayList<>();
+        arguments.add("-d");
+        arguments.add(folder.resolve("classes").toString());
+        arguments.add("-cp");
+        arguments.add(System.getProperty("java.class.path"));
+        sources.forEach(source -> arguments.add(source.getPath()));
+        folder.resolve("classes").toFile().mkdirs();
+        if (compiler.run(null, null, null, arguments.toArray(new String[0])) != 0) {
+            throw new IllegalStateException("Failed to compile the plugin define classes.");
+        }
+
+        File jar = folder.resolve("plugin.jar").toFile();
+        Path classes = folder.resolve("classes");
+        try (JarOutputStream output = new JarOutputStream(new FileOutputStream(jar));
+             Stream<Path> files = Files.walk(classes)) {
+            output.putNextEntry(new JarEntry("skywalking-plugin.def"));
+            output.write(pluginDef.toString().getBytes(StandardCharsets.UTF_8));
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                output.putNextEntry(new JarEntry(classes.relativize(file).toString().replace(File.separatorChar, '/')));
+                output.write(Files.readAllBytes(file));
+            }
+        }
+        pluginJar = jar.toURI().toURL();
+        try (InputStream input = new URL("jar:" + pluginJar + "!/skywalking-plugin.def").openStream()) {
+            pluginDefines = PluginCfg.parse(input);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void newClassLoader() {
+        classLoader = new URLClassLoader(new URL[] {pluginJar}, PluginBootstrapBenchmark.class.getClassLoader());
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeClassLoader() throws IOException {
+        classLoader.close();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public List<AbstractClassEnhancePluginDefine> testLoadPlugins() {
+        if (parallelism <= 1) {
+            return PluginBootstrap.loadPlugins(pluginDefines, classLoader, null);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return PluginBootstrap.loadPlugins(pluginDefines, classLoader, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String defineSource(int i) {
+        return "package org.example.plugin" + i + ";\n"
+            + "import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;\n"
+            + "import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;\n"
+            + "import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;\n"
+            + "import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;\n"
+            + "import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;\n"
+            + "public class Define extends ClassInstanceMethodsEnhancePluginDefine {\n"
+            + "    private static final String ENHANCE_CLASS = \"org.example.target" + i + ".Client\";\n"
+            + "    private static final String INTERCEPTOR_CLASS = \"org.example.plugin" + i + ".Interceptor\";\n"
+            + "    @Override\n"
+            + "    protected ClassMatch enhanceClass() {\n"
+            + "        return NameMatch.byName(ENHANCE_CLASS);\n"
+            + "    }\n"
+            + "    @Override\n"
+            + "    public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {\n"
+            + "        return new ConstructorInterceptPoint[0];\n"
+            + "    }\n"
+            + "    @Override\n"
+            + "    public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {\n"
+            + "        return new InstanceMethodsInterceptPoint[0];\n"
+            + "    }\n"
+            + "}\n";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(PluginBootstrapBenchmark.class.getName())
+                                          .forks(1)
+                                          .warmupIterations(10)
+                                          .measurementIterations(30)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import net.bytebuddy.description.NamedElement;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.pool.TypePool;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.core.LogLevel;
+import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ProtectiveShieldMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MethodAnnotationMatch.byMethodAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch.byMultiClassMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.NameMatch.byName;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+import static org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch.byRegexMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.logical.LogicalMatchOperation.and;
+import static org.apache.skywalking.apm.agent.core.plugin.match.logical.LogicalMatchOperation.or;
+
+/**
+ * Replay the loading of the first {@value #CLASS_COUNT} classes in the jars of the class path against a plugin set
+ * shaped like the bundled plugins, mostly name matches and hierarchy matches. Every class is described by a new type
+ * pool as the agent builder does for every transformation, so the super types are parsed again for every class unless
+ * the matcher avoids them. The linear match is the junction of all the plugin matchers before the {@link
+ * ClassMatchIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PluginFinderBenchmark {
+    private static final int CLASS_COUNT = 5000;
+    private static final String[] JDK_SUPER_TYPES = {
+        "java.lang.Runnable",
+        "java.util.concurrent.Callable",
+        "java.util.concurrent.Executor",
+        "java.sql.Driver",
+        "java.sql.Connection",
+        "java.net.URLStreamHandler"
+    };
+
+    private final List<String> classNames = new ArrayList<>();
+    private final ClassFileLocator classFileLocator = ClassFileLocator.ForClassLoader.ofSystemLoader();
+    private ElementMatcher<? super TypeDescription> linearMatch;
+    private ElementMatcher<? super TypeDescription> indexedMatch;
+
+    @Setup
+    public void setUp() throws IOException {
+        // The classes with unresolvable super types are logged by the ProtectiveShieldMatcher in debug level.
+        Config.Logging.LEVEL = LogLevel.INFO;
+        List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            plugins.add(new MatchPluginDefine(byName("org.example.plugin" + i + ".Client")));
+        }
+        for (int i = 0; i < 50; i++) {
+            plugins.add(new MatchPluginDefine(byMultiClassMatch(
+                "org.example.plugin" + i + ".Request", "org.example.plugin" + i + ".Response")));
+        }
+        for (int i = 0; i < 70; i++) {
+            plugins.add(new MatchPluginDefine(byHierarchyMatch("org.example.plugin" + i + ".Handler")));
+        }
+        for (String superType : JDK_SUPER_TYPES) {
+            plugins.add(new MatchPluginDefine(byHierarchyMatch(superType)));
+        }
+        for (int i = 0; i < 14; i++) {
+            plugins.add(new MatchPluginDefine(byClassAnnotationMatch("org.example.plugin" + i + ".Component")));
+        }
+        for (int i = 0; i < 6; i++) {
+            plugins.add(new MatchPluginDefine(byMethodAnnotationMatch("org.example.plugin" + i + ".Trace")));
+        }
+        plugins.add(new MatchPluginDefine(nameStartsWith("java.util.concurrent.ThreadPoolExecutor")));
+        plugins.add(new MatchPluginDefine(byRegexMatch("org\\.example\\..*Service.*")));
+        for (int i = 0; i < 10; i++) {
+            String className = "org.example.plugin" + i + ".Encoder";
+            plugins.add(new MatchPluginDefine(or(byHierarchyMatch(className), byMultiClassMatch(className))));
+        }
+        plugins.add(new MatchPluginDefine(and(nameStartsWith("org.example."), byHierarchyMatch("java.lang.Runnable"))));
+
+        linearMatch = buildLinearMatch(plugins);
+        indexedMatch = new PluginFinder(plugins).buildMatch();
+
+        for (String path : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (!path.endsWith(".jar")) {
+                continue;
+            }
+            try (JarFile jarFile = new JarFile(path)) {
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements() && classNames.size() < CLASS_COUNT) {
+                    String name = entries.nextElement().getName();
+                    if (name.endsWith(".class") && !name.endsWith("-info.class") && !name.startsWith("META-INF/")) {
+                        classNames.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int testLinearMatch() {
+        return replay(linearMatch);
+    }
+
+    @Benchmark
+    public int testIndexedMatch() {
+        return replay(indexedMatch);
+    }
+
+    private int replay(ElementMatcher<? super TypeDescription> matcher) {
+        int matched = 0;
+        for (String className : classNames) {
+            TypePool typePool = new TypePool.Default.WithLazyResolution(
+                new TypePool.CacheProvider.Simple(), classFileLocator, TypePool.Default.ReaderMode.FAST);
+            if (matcher.matches(typePool.describe(className).resolve())) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private static ElementMatcher<? super TypeDescription> buildLinearMatch(
+        List<AbstractClassEnhancePluginDefine> plugins) {
+        final List<String> names = new ArrayList<>();
+        for (AbstractClassEnhancePluginDefine plugin : plugins) {
+            if (plugin.enhanceClass() instanceof NameMatch) {
+                names.add(((NameMatch) plugin.enhanceClass()).getClassName());
+            }
+        }
+        ElementMatcher.Junction judge = new AbstractJunction<NamedElement>() {
+            @Override
+            public boolean matches(NamedElement target) {
+                return names.contains(target.getActualName());
+            }
+        };
+        for (AbstractClassEnhancePluginDefine plugin : plugins) {
+            ClassMatch match = plugin.enhanceClass();
+            if (match instanceof IndirectMatch) {
+                judge = judge.or(((IndirectMatch) match).buildJunction());
+            }
+        }
+        return new ProtectiveShieldMatcher(not(isInterface()).and(judge));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(PluginFinderBenchmark.class.getName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 3 iterations, 10 s each
+     * # Measurement: 5 iterations, 10 s each
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                               Mode  Cnt     Score     Error  Units
+     * PluginFinderBenchmark.testIndexedMatch  avgt    5   883.999 ± 115.735  ms/op
+     * PluginFinderBenchmark.testLinearMatch   avgt    5  1582.605 ± 295.264  ms/op
+     */
+
+    private static class MatchPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private MatchPluginDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MatchTestAnnotation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MethodAnnotationMatch.byMethodAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch.byMultiClassMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.NameMatch.byName;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+import static org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch.byRegexMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.logical.LogicalMatchOperation.and;
+import static org.apache.skywalking.apm.agent.core.plugin.match.logical.LogicalMatchOperation.or;
+
+public class PluginFinderTest {
+    private static final String TEST_CLASS = PluginFinderTest.class.getName();
+
+    private static final List<AbstractClassEnhancePluginDefine> PLUGINS = Arrays.asList(
+        new MatchPluginDefine(byName(TestTask.class.getName())),
+        new MatchPluginDefine(byMultiClassMatch(TestService.class.getName(), "java.lang.String")),
+        new MatchPluginDefine(nameStartsWith("java.util.concurrent.", TEST_CLASS + "$TestRe")),
+        new MatchPluginDefine(byRegexMatch(".*Service.*", "java\\.util\\.Array.*")),
+        new MatchPluginDefine(byHierarchyMatch(Runnable.class.getName())),
+        new MatchPluginDefine(byHierarchyMatch(TestTask.class.getName(), Serializable.class.getName())),
+        new MatchPluginDefine(byClassAnnotationMatch(MatchTestAnnotation.class.getName())),
+        new MatchPluginDefine(and(nameStartsWith(TEST_CLASS), byHierarchyMatch(Callable.class.getName()))),
+        new MatchPluginDefine(or(byHierarchyMatch(TestTask.class.getName()), byMultiClassMatch("java.lang.Thread"))),
+        new MatchPluginDefine(byMethodAnnotationMatch(MatchTestAnnotation.class.getName())),
+        new MatchPluginDefine(and(byHierarchyMatch(Runnable.class.getName()), byHierarchyMatch(Callable.class.getName())))
+    );
+
+    private static final List<Class<?>> TYPES = Arrays.asList(
+        Object.class, String.class, Thread.class, ArrayList.class, FutureTask.class, Runnable.class,
+        TestTask.class, TestSubTask.class, TestCallable.class, TestService.class, TestRepository.class,
+        TestMethodAnnotation.class, PluginFinderTest.class
+    );
+
+    @Test
+    public void testBuildMatch() {
+        PluginFinder pluginFinder = new PluginFinder(PLUGINS);
+        ElementMatcher<? super TypeDescription> matcher = pluginFinder.buildMatch();
+        ElementMatcher<? super TypeDescription> expected = buildLinearMatch();
+        // twice to go through the cached super types
+        for (int i = 0; i < 2; i++) {
+            for (Class<?> type : TYPES) {
+                TypeDescription typeDescription = TypeDescription.ForLoadedType.of(type);
+                Assert.assertEquals(type.getName(), expected.matches(typeDescription), matcher.matches(typeDescription));
+            }
+        }
+        Assert.assertFalse(matcher.matches(TypeDescription.ForLoadedType.of(Object.class)));
+        Assert.assertTrue(matcher.matches(TypeDescription.ForLoadedType.of(TestSubTask.class)));
+        Assert.assertTrue(matcher.matches(TypeDescription.ForLoadedType.of(TestCallable.class)));
+    }
+
+    @Test
+    public void testFind() {
+        PluginFinder pluginFinder = new PluginFinder(PLUGINS);
+        for (Class<?> type : TYPES) {
+            TypeDescription typeDescription = TypeDescription.ForLoadedType.of(type);
+            Assert.assertEquals(type.getName(), findLinear(typeDescription), pluginFinder.find(typeDescription));
+        }
+        Assert.assertEquals(
+            Arrays.asList(PLUGINS.get(4), PLUGINS.get(5), PLUGINS.get(8)),
+            pluginFinder.find(TypeDescription.ForLoadedType.of(TestSubTask.class))
+        );
+    }
+
+    @Test
+    public void testLiteralPrefix() {
+        Assert.assertEquals("", ClassMatchIndex.literalPrefix(".*Service.*"));
+        Assert.assertEquals("com.foo.", ClassMatchIndex.literalPrefix("com\\.foo\\..*"));
+        Assert.assertEquals("com.fo", ClassMatchIndex.literalPrefix("^com\\.foo?\\..*"));
+        Assert.assertEquals("com.f", ClassMatchIndex.literalPrefix("com\\.f+oo"));
+        Assert.assertEquals("com", ClassMatchIndex.literalPrefix("com[.]foo"));
+        Assert.assertEquals("", ClassMatchIndex.literalPrefix("com\\.foo|org\\.bar"));
+        Assert.assertEquals("", ClassMatchIndex.literalPrefix("\\Qcom.foo\\E.*"));
+    }
+
+    /**
+     * The matcher of all the plugins evaluated one by one, as it was before the {@link ClassMatchIndex}.
+     */
+    private static ElementMatcher<? super TypeDescription> buildLinearMatch() {
+        ElementMatcher.Junction<TypeDescription> judge = named(TestTask.class.getName());
+        for (AbstractClassEnhancePluginDefine define : PLUGINS) {
+            ClassMatch match = define.enhanceClass();
+            if (match instanceof IndirectMatch) {
+                judge = judge.or(((IndirectMatch) match).buildJunction());
+            }
+        }
+        return not(isInterface()).and(judge);
+    }
+
+    private static List<AbstractClassEnhancePluginDefine> findLinear(TypeDescription typeDescription) {
+        List<AbstractClassEnhancePluginDefine> matchedPlugins = new ArrayList<>();
+        if (typeDescription.getTypeName().equals(TestTask.class.getName())) {
+            matchedPlugins.add(PLUGINS.get(0));
+        }
+        for (AbstractClassEnhancePluginDefine define : PLUGINS) {
+            ClassMatch match = define.enhanceClass();
+            if (match instanceof IndirectMatch && ((IndirectMatch) match).isMatch(typeDescription)) {
+                matchedPlugins.add(define);
+            }
+        }
+        return matchedPlugins;
+    }
+
+    private static class MatchPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private MatchPluginDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+    }
+
+    public static class TestTask implements Runnable, Serializable {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static class TestSubTask extends TestTask {
+    }
+
+    public static class TestCallable implements Callable<Object> {
+        @Override
+        public Object call() {
+            return null;
+        }
+    }
+
+    public static class TestService {
+    }
+
+    @MatchTestAnnotation
+    public static class TestRepository {
+    }
+
+    public static class TestMethodAnnotation {
+        @MatchTestAnnotation
+        public void method() {
+        }
+    }
+}
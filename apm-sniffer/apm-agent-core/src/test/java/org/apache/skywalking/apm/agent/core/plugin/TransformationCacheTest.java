@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TransformationCacheTest {
+    private static final String CLASS_NAME = "org.example.Foo";
+    private static final byte[] CLASS_FILE = "class file of Foo".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TransformationCache cache = TransformationCache.INSTANCE;
+
+    @After
+    public void tearDown() {
+        cache.init(new File(folder.getRoot(), "transformation.cache"), 0);
+    }
+
+    @Test
+    public void testDigest() {
+        assertNotEquals(TransformationCache.digest(CLASS_FILE), TransformationCache.digest(new byte[] {1, 2, 3}));
+        assertEquals(TransformationCache.digest(CLASS_FILE), TransformationCache.digest(CLASS_FILE.clone()));
+    }
+
+    @Test
+    public void testIgnoreCachedClass() {
+        File cacheFile = new File(folder.getRoot(), "cache/transformation.cache");
+        cache.init(cacheFile, 1L);
+        assertFalse(transform(CLASS_NAME, CLASS_FILE, null));
+        cache.save();
+        assertTrue(cacheFile.exists());
+
+        cache.init(cacheFile, 1L);
+        assertTrue(transform(CLASS_NAME, CLASS_FILE, null));
+        // retransformation is never skipped
+        assertFalse(transform(CLASS_NAME, CLASS_FILE, Object.class));
+        // the class file is changed
+        assertFalse(transform(CLASS_NAME, "changed class file of Foo".getBytes(StandardCharsets.UTF_8), null));
+        assertFalse(transform("org.example.Bar", CLASS_FILE, null));
+    }
+
+    @Test
+    public void testDropExpiredCache() {
+        File cacheFile = new File(folder.getRoot(), "transformation.cache");
+        cache.init(cacheFile, 1L);
+        transform(CLASS_NAME, CLASS_FILE, null);
+        cache.save();
+
+        cache.init(cacheFile, 2L);
+        assertFalse(transform(CLASS_NAME, CLASS_FILE, null));
+    }
+
+    @Test
+    public void testNotCacheClassOfOtherClassLoader() throws Exception {
+        File cacheFile = new File(folder.getRoot(), "transformation.cache");
+        try (URLClassLoader webappClassLoader = new URLClassLoader(new URL[0])) {
+            cache.init(cacheFile, 1L);
+            transform(CLASS_NAME, CLASS_FILE, webappClassLoader, null);
+            transform("org.example.Bar", CLASS_FILE, ClassLoader.getSystemClassLoader(), null);
+            cache.save();
+
+            cache.init(cacheFile, 1L);
+            assertFalse(transform(CLASS_NAME, CLASS_FILE, webappClassLoader, null));
+            assertFalse(transform(CLASS_NAME, CLASS_FILE, null));
+            assertTrue(transform("org.example.Bar", CLASS_FILE, ClassLoader.getSystemClassLoader(), null));
+        }
+    }
+
+    private boolean transform(String name, byte[] classFile, Class<?> classBeingRedefined) {
+        return transform(name, classFile, null, classBeingRedefined);
+    }
+
+    /**
+     * Run the same steps of the cache as the agent builder, the class is ignored by all plugins.
+     *
+     * @return true if the class is ignored by the cache.
+     */
+    private boolean transform(String name, byte[] classFile, ClassLoader classLoader, Class<?> classBeingRedefined) {
+        AgentBuilder.Listener listener = cache.listener();
+        cache.classFileBufferStrategy().resolve(name, classFile, classLoader, null, null);
+        TypeDescription typeDescription = new TypeDescription.Latent(name, 0, null);
+        boolean ignored = cache.matches(typeDescription, classLoader, null, classBeingRedefined, null);
+        listener.onIgnored(typeDescription, classLoader, null, classBeingRedefined != null);
+        listener.onComplete(name, classLoader, null, classBeingRedefined != null);
+        return ignored;
+    }
+}
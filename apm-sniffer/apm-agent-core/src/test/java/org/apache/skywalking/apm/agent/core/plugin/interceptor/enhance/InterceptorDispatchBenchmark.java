@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the per-call cost of the interceptor dispatch, before and after caching the parameter types and the static
+ * interceptor instance. Run with the {@link GCProfiler} to see the allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterceptorDispatchBenchmark {
+    private final ParameterTypesCache parameterTypesCache = new ParameterTypesCache();
+    private final ClassLoader classLoader = InterceptorDispatchBenchmark.class.getClassLoader();
+    private final String interceptorClassName = "org.apache.skywalking.apm.plugin.jdbc.mysql.PreparedStatementExecuteMethodsInterceptor";
+    private volatile Object cachedInterceptor = new Object();
+    private Method method;
+    private Object[] allArguments;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        method = String.class.getMethod("regionMatches", boolean.class, int.class, String.class, int.class, int.class);
+        allArguments = new Object[] {true, 0, "other", 0, 5};
+    }
+
+    /**
+     * The dispatch before: the parameter types are cloned by before and after method, and the static interceptor is
+     * looked up by an instance key built on every call.
+     */
+    @Benchmark
+    public void testDispatchWithoutCache(Blackhole blackhole) {
+        String instanceKey = interceptorClassName + "_OF_" + classLoader.getClass()
+                                                                        .getName() + "@" + Integer.toHexString(
+            classLoader.hashCode());
+        blackhole.consume(instanceKey);
+        MethodInterceptResult result = new MethodInterceptResult();
+        blackhole.consume(result);
+        blackhole.consume(method.getParameterTypes());
+        blackhole.consume(allArguments);
+        blackhole.consume(method.getParameterTypes());
+    }
+
+    @Benchmark
+    public void testDispatchWithCache(Blackhole blackhole) {
+        blackhole.consume(cachedInterceptor);
+        Class<?>[] argumentsTypes = parameterTypesCache.get(method);
+        MethodInterceptResult result = new MethodInterceptResult();
+        blackhole.consume(result);
+        blackhole.consume(argumentsTypes);
+        blackhole.consume(allArguments);
+        blackhole.consume(argumentsTypes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(InterceptorDispatchBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 2 iterations, 2 s each
+     * # Measurement: 3 iterations, 2 s each
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                                               Mode  Cnt    Score     Error  Units
+     * InterceptorDispatchBenchmark.testDispatchWithCache                      avgt    3   18.244 ±  15.375  ns/op
+     * InterceptorDispatchBenchmark.testDispatchWithCache:·gc.alloc.rate.norm  avgt    3   24.021 ±   0.004   B/op
+     * InterceptorDispatchBenchmark.testDispatchWithoutCache                   avgt    3   78.343 ±  89.070  ns/op
+     * InterceptorDispatchBenchmark.testDispatchWithoutCache:·gc.alloc.rate.norm
+     *                                                                         avgt    3  320.285 ±   0.030   B/op
+     */
+}
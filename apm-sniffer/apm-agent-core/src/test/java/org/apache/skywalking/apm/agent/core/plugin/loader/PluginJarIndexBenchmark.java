@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the plugin loading at the startup, with {@value #JAR_COUNT} plugin jars of {@value #CLASS_COUNT} classes
+ * each, of which {@value #LOADED_CLASS_COUNT} classes per jar and the plugin definitions are loaded. The linear scan
+ * asks every jar for every class, and reads the class through the jar URL byte by byte, its jar URL cache is warm
+ * after the first invocation, which is in favor of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PluginJarIndexBenchmark {
+    private static final int JAR_COUNT = 150;
+    private static final int CLASS_COUNT = 40;
+    private static final int LOADED_CLASS_COUNT = 3;
+    private static final String PLUGIN_DEF = "skywalking-plugin.def";
+
+    private File folder;
+    private File cacheFile;
+    private final List<File> jarFiles = new ArrayList<>();
+    private final List<String> loadedClasses = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("plugin-jar-index").toFile();
+        Random random = new Random(0);
+        for (int i = 0; i < JAR_COUNT; i++) {
+            File file = new File(folder, "plugin-" + i + ".jar");
+            try (JarOutputStream output = new JarOutputStream(new FileOutputStream(file))) {
+                output.putNextEntry(new JarEntry(PLUGIN_DEF));
+                output.write(("plugin-" + i + "=org.example.plugin" + i + ".Define0").getBytes());
+                for (int j = 0; j < CLASS_COUNT; j++) {
+                    output.putNextEntry(new JarEntry("org/example/plugin" + i + "/Define" + j + ".class"));
+                    byte[] data = new byte[2048 + random.nextInt(4096)];
+                    random.nextBytes(data);
+                    output.write(data);
+                }
+            }
+            jarFiles.add(file);
+            for (int j = 0; j < LOADED_CLASS_COUNT; j++) {
+                loadedClasses.add("org/example/plugin" + i + "/Define" + j + ".class");
+            }
+        }
+
+        cacheFile = new File(folder, "classes.cache");
+        PluginJarIndex index = PluginJarIndex.build(jarFiles, cacheFile);
+        for (String path : loadedClasses) {
+            index.findClassBytes(path);
+        }
+        index.save();
+        index.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (File file : folder.listFiles()) {
+            file.delete();
+        }
+        folder.delete();
+    }
+
+    @Benchmark
+    public int testLinearScan() throws IOException {
+        List<JarFile> jars = new ArrayList<>(jarFiles.size());
+        for (File file : jarFiles) {
+            jars.add(new JarFile(file));
+        }
+        int size = 0;
+        for (JarFile jar : jars) {
+            if (jar.getJarEntry(PLUGIN_DEF) != null) {
+                size++;
+            }
+        }
+        for (String path : loadedClasses) {
+            for (int i = 0; i < jars.size(); i++) {
+                if (jars.get(i).getJarEntry(path) == null) {
+                    continue;
+                }
+                URL classFileUrl = new URL("jar:file:" + jarFiles.get(i).getAbsolutePath() + "!/" + path);
+                try (BufferedInputStream is = new BufferedInputStream(
+                    classFileUrl.openStream()); ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+                    int ch;
+                    while ((ch = is.read()) != -1) {
+                        baos.write(ch);
+                    }
+                    size += baos.toByteArray().length;
+                }
+                break;
+            }
+        }
+        for (JarFile jar : jars) {
+            jar.close();
+        }
+        return size;
+    }
+
+    @Benchmark
+    public int testIndex() {
+        return load(PluginJarIndex.build(jarFiles, null));
+    }
+
+    @Benchmark
+    public int testIndexFromCache() {
+        return load(PluginJarIndex.build(jarFiles, cacheFile));
+    }
+
+    private int load(PluginJarIndex index) {
+        int size = index.findJars(PLUGIN_DEF).size();
+        for (String path : loadedClasses) {
+            size += index.findClassBytes(path).length;
+        }
+        index.close();
+        return size;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(PluginJarIndexBenchmark.class.getName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 3 iterations, 10 s each
+     * # Measurement: 5 iterations, 10 s each
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                   Mode  Cnt    Score    Error  Units
+     * PluginJarIndexBenchmark.testIndex           avgt    5    7.475 ±  1.438  ms/op
+     * PluginJarIndexBenchmark.testIndexFromCache  avgt    5    3.177 ±  0.201  ms/op
+     * PluginJarIndexBenchmark.testLinearScan      avgt    5  115.828 ± 15.557  ms/op
+     */
+}
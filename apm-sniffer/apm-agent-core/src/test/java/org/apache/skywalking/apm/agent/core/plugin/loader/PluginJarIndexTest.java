@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PluginJarIndexTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File jar1;
+    private File jar2;
+    private PluginJarIndex index;
+
+    @Before
+    public void setUp() throws IOException {
+        jar1 = writeJar("plugin-1.jar", "org/example/A.class", "a1", "skywalking-plugin.def", "def1", "org/example/", "");
+        jar2 = writeJar("plugin-2.jar", "org/example/B.class", "b2", "skywalking-plugin.def", "def2");
+    }
+
+    @After
+    public void tearDown() {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    @Test
+    public void testFindEntries() throws IOException {
+        index = PluginJarIndex.build(Arrays.asList(jar1, jar2), null);
+
+        assertArrayEquals(bytes("a1"), index.findClassBytes("org/example/A.class"));
+        assertArrayEquals(bytes("b2"), index.findClassBytes("org/example/B.class"));
+        assertNull(index.findClassBytes("org/example/C.class"));
+
+        List<PluginJarIndex.Jar> jars = index.findJars("skywalking-plugin.def");
+        assertEquals(2, jars.size());
+        assertEquals("jar:file:" + jar1.getAbsolutePath() + "!/skywalking-plugin.def",
+                     jars.get(0).getURL("skywalking-plugin.def").toString());
+        assertEquals("jar:file:" + jar2.getAbsolutePath() + "!/skywalking-plugin.def",
+                     jars.get(1).getURL("skywalking-plugin.def").toString());
+        // the directory entry is found without the trailing slash, same as JarFile#getJarEntry
+        assertEquals(1, index.findJars("org/example").size());
+        assertTrue(index.findJars("org/other").isEmpty());
+    }
+
+    @Test
+    public void testReadFromCache() throws IOException {
+        File cacheFile = new File(folder.getRoot(), "cache/classes.cache");
+        index = PluginJarIndex.build(Arrays.asList(jar1, jar2), cacheFile);
+        index.findClassBytes("org/example/A.class");
+        index.save();
+        index.close();
+        assertTrue(cacheFile.exists());
+
+        index = PluginJarIndex.build(Arrays.asList(jar1, jar2), cacheFile);
+        assertArrayEquals(bytes("a1"), index.findClassBytes("org/example/A.class"));
+        assertArrayEquals(bytes("b2"), index.findClassBytes("org/example/B.class"));
+        assertEquals(2, index.findJars("skywalking-plugin.def").size());
+        assertEquals(1, index.findJars("org/example").size());
+        index.save();
+        index.close();
+
+        // the class loaded from the jar at the last startup is cached too
+        index = PluginJarIndex.build(Arrays.asList(jar1, jar2), cacheFile);
+        assertArrayEquals(bytes("b2"), index.findClassBytes("org/example/B.class"));
+    }
+
+    @Test
+    public void testRebuildExpiredCache() throws IOException {
+        File cacheFile = new File(folder.getRoot(), "classes.cache");
+        index = PluginJarIndex.build(Arrays.asList(jar1, jar2), cacheFile);
+        index.findClassBytes("org/example/A.class");
+        index.save();
+        index.close();
+
+        jar1 = writeJar("plugin-1.jar", "org/example/A.class", "a1-changed");
+        jar1.setLastModified(jar1.lastModified() + 1000);
+        index = PluginJarIndex.build(Arrays.asList(jar1, jar2), cacheFile);
+        assertArrayEquals(bytes("a1-changed"), index.findClassBytes("org/example/A.class"));
+        assertEquals(1, index.findJars("skywalking-plugin.def").size());
+        index.close();
+
+        index = PluginJarIndex.build(Arrays.asList(jar2), cacheFile);
+        assertNull(index.findClassBytes("org/example/A.class"));
+    }
+
+    private File writeJar(String name, String... entries) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        try (JarOutputStream output = new JarOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                output.putNextEntry(new JarEntry(entries[i]));
+                output.write(bytes(entries[i + 1]));
+                output.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare a round of the thread dumps of a profile task, with the profiled threads at the max parallel count of the
+ * default settings, 5 endpoints and 5 sub-tasks each. The stacks share the bottom frames of a web container, and
+ * walk through {@value #TOP_FRAME_COUNT} of the different business frames on the top. The frames of every dump are
+ * new objects, like the ones returned by {@link Thread#getStackTrace()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StackFrameDictionaryBenchmark {
+    private static final int THREAD_COUNT = 5 * (5 + 1);
+    private static final int DUMP_COUNT = 16;
+    private static final int TOP_FRAME_COUNT = 2000;
+    private static final int TOP_DEPTH = 40;
+
+    @Param({"100", "500"})
+    private int depth;
+
+    private final List<StackTraceElement[][]> dumps = new ArrayList<>();
+    private int round;
+    private StackFrameDictionary dictionary;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        String[] classNames = new String[depth + TOP_FRAME_COUNT];
+        for (int i = 0; i < classNames.length; i++) {
+            classNames[i] = "org.example.framework" + i % 50 + ".Component" + i;
+        }
+        for (int i = 0; i < DUMP_COUNT; i++) {
+            StackTraceElement[][] threads = new StackTraceElement[THREAD_COUNT][];
+            for (int j = 0; j < THREAD_COUNT; j++) {
+                StackTraceElement[] stack = new StackTraceElement[depth];
+                for (int k = 0; k < depth; k++) {
+                    int frame = k < TOP_DEPTH ? depth + random.nextInt(TOP_FRAME_COUNT) : depth - k;
+                    stack[k] = new StackTraceElement(classNames[frame], "invoke", "Component.java", frame % 300);
+                }
+                threads[j] = stack;
+            }
+            dumps.add(threads);
+        }
+        dictionary = new StackFrameDictionary(8192);
+        for (StackTraceElement[][] threads : dumps) {
+            for (StackTraceElement[] stack : threads) {
+                dictionary.lookup(copy(stack), depth);
+            }
+        }
+    }
+
+    private static StackTraceElement[] copy(StackTraceElement[] stack) {
+        StackTraceElement[] copy = new StackTraceElement[stack.length];
+        for (int i = 0; i < stack.length; i++) {
+            copy[i] = new StackTraceElement(
+                stack[i].getClassName(), stack[i].getMethodName(), stack[i].getFileName(), stack[i].getLineNumber());
+        }
+        return copy;
+    }
+
+    @Benchmark
+    public void testSignatures(Blackhole bh) {
+        for (StackTraceElement[] stack : dumps.get(round++ % DUMP_COUNT)) {
+            final ArrayList<String> stackList = new ArrayList<>(depth);
+            for (int i = depth - 1; i >= 0; i--) {
+                StackTraceElement element = stack[i];
+                stackList.add(element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber());
+            }
+            bh.consume(stackList);
+        }
+    }
+
+    @Benchmark
+    public void testDictionary(Blackhole bh) {
+        for (StackTraceElement[] stack : dumps.get(round++ % DUMP_COUNT)) {
+            bh.consume(dictionary.lookup(stack, depth));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(StackFrameDictionaryBenchmark.class.getName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .addProfiler("gc")
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 3 iterations, 3 s each
+     * # Measurement: 5 iterations, 3 s each
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                                        (depth)  Mode  Cnt        Score    Error  Units
+     * StackFrameDictionaryBenchmark.testDictionary                         100  avgt    5       44.946 ±  1.478  us/op
+     * StackFrameDictionaryBenchmark.testDictionary:·gc.alloc.rate.norm     100  avgt    5    12491.464 ±  1.513  B/op
+     * StackFrameDictionaryBenchmark.testDictionary                         500  avgt    5      207.387 ±  8.407  us/op
+     * StackFrameDictionaryBenchmark.testDictionary:·gc.alloc.rate.norm     500  avgt    5    60536.053 ±  5.789  B/op
+     * StackFrameDictionaryBenchmark.testSignatures                         100  avgt    5       47.528 ±  1.636  us/op
+     * StackFrameDictionaryBenchmark.testSignatures:·gc.alloc.rate.norm     100  avgt    5   277438.894 ±  2.758  B/op
+     * StackFrameDictionaryBenchmark.testSignatures                         500  avgt    5      223.668 ± 26.641  us/op
+     * StackFrameDictionaryBenchmark.testSignatures:·gc.alloc.rate.norm     500  avgt    5  1382389.394 ± 12.004  B/op
+     */
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StackFrameDictionaryTest {
+
+    @Test
+    public void testLookup() {
+        StackFrameDictionary dictionary = new StackFrameDictionary(16);
+        StackTraceElement[] stackTrace = {
+            frame("Service", "call", 30),
+            frame("Controller", "handle", 20),
+            frame("Servlet", "service", 10)
+        };
+
+        String[] stack = dictionary.lookup(stackTrace, 3);
+        Assert.assertArrayEquals(new String[] {
+            "org.example.Servlet.service:10",
+            "org.example.Controller.handle:20",
+            "org.example.Service.call:30"
+        }, stack);
+
+        // the same frames of the next dump are not equal by reference
+        StackTraceElement[] nextStackTrace = {
+            frame("Service", "call", 31),
+            frame("Controller", "handle", 20),
+            frame("Servlet", "service", 10)
+        };
+        String[] nextStack = dictionary.lookup(nextStackTrace, 2);
+        Assert.assertEquals(2, nextStack.length);
+        Assert.assertSame(stack[1], nextStack[0]);
+        Assert.assertEquals("org.example.Service.call:31", nextStack[1]);
+        Assert.assertEquals(4, dictionary.size());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyDumped() {
+        StackFrameDictionary dictionary = new StackFrameDictionary(2);
+        String first = dictionary.lookup(frame("First", "call", 1));
+        String second = dictionary.lookup(frame("Second", "call", 2));
+        Assert.assertSame(first, dictionary.lookup(frame("First", "call", 1)));
+
+        Assert.assertEquals("org.example.Third.call:3", dictionary.lookup(frame("Third", "call", 3)));
+        Assert.assertEquals(2, dictionary.size());
+        Assert.assertSame(first, dictionary.lookup(frame("First", "call", 1)));
+        // the evicted frame is built again
+        Assert.assertNotSame(second, dictionary.lookup(frame("Second", "call", 2)));
+    }
+
+    @Test
+    public void testLookupStackDeeperThanCapacity() {
+        StackFrameDictionary dictionary = new StackFrameDictionary(2);
+        StackTraceElement[] stackTrace = {
+            frame("Service", "call", 30),
+            frame("Controller", "handle", 20),
+            frame("Servlet", "service", 10)
+        };
+
+        // the evicted frames don't change the signatures already looked up for the same dump
+        Assert.assertArrayEquals(new String[] {
+            "org.example.Servlet.service:10",
+            "org.example.Controller.handle:20",
+            "org.example.Service.call:30"
+        }, dictionary.lookup(stackTrace, 3));
+        Assert.assertEquals(2, dictionary.size());
+    }
+
+    private static StackTraceElement frame(String className, String methodName, int lineNumber) {
+        return new StackTraceElement("org.example." + className, methodName, className + ".java", lineNumber);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.Drainable;
+import io.grpc.MethodDescriptor;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.EntrySpan;
+import org.apache.skywalking.apm.agent.core.context.trace.ExitSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.LocalSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.util.ThrowableTransformer;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare sending a finished segment to gRPC through the built {@link SegmentObject} and through the {@link
+ * TraceSegmentMarshaller}. The size of a finished span is cached when it is serialized, so every round finishes a new
+ * segment, and {@link #testFinishSegment} is the baseline of both. Each span has 3 tags, and every 10th exit span
+ * logs an exception.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TraceSegmentMarshallerBenchmark {
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Param({"20", "200"})
+    private int spanCount;
+
+    private final MethodDescriptor.Marshaller<SegmentObject> builderMarshaller =
+        TraceSegmentReportServiceGrpc.getCollectMethod().getRequestMarshaller();
+    private final TraceSegmentMarshaller segmentMarshaller = new TraceSegmentMarshaller();
+    private final Map<String, String> errorLog = new HashMap<>();
+
+    @Setup
+    public void setUp() {
+        Config.Agent.SERVICE_NAME = "benchmark-service";
+        Config.Agent.INSTANCE_NAME = "benchmark-instance@127.0.0.1";
+        final RuntimeException exception = new RuntimeException("Read timed out");
+        errorLog.put("event", "error");
+        errorLog.put("error.kind", exception.getClass().getName());
+        errorLog.put("message", exception.getMessage());
+        errorLog.put("stack", ThrowableTransformer.INSTANCE.convert2String(exception, 4000));
+    }
+
+    private TraceSegment finishSegment() {
+        final TraceSegment segment = new TraceSegment();
+        final EntrySpan entrySpan = new EntrySpan(0, -1, "/api/orders/{id}", null);
+        entrySpan.start();
+        entrySpan.setComponent(ComponentsDefine.TOMCAT);
+        SpanLayer.asHttp(entrySpan);
+        Tags.URL.set(entrySpan, "http://127.0.0.1:8080/api/orders/1");
+        Tags.HTTP.METHOD.set(entrySpan, "GET");
+        Tags.HTTP_RESPONSE_STATUS_CODE.set(entrySpan, 200);
+        for (int i = 1; i < spanCount; i++) {
+            final AbstractTracingSpan span;
+            if (i % 2 == 0) {
+                span = new ExitSpan(i, 0, "Mysql/JDBC/PreparedStatement/executeQuery", "127.0.0.1:3306", null);
+                span.start();
+                span.setComponent(ComponentsDefine.MYSQL_JDBC_DRIVER);
+                SpanLayer.asDB(span);
+                Tags.DB_TYPE.set(span, "Mysql");
+                Tags.DB_INSTANCE.set(span, "orders");
+                Tags.DB_STATEMENT.set(span, "SELECT id, status, amount FROM t_order WHERE id = ?");
+                if (i % 20 == 0) {
+                    span.errorOccurred();
+                    span.log(System.currentTimeMillis(), errorLog);
+                }
+            } else {
+                span = new LocalSpan(i, 0, "OrderService.load", null);
+                span.start();
+                span.tag("order.id", String.valueOf(i));
+                span.tag("order.region", "east");
+                span.tag("order.cache", "miss");
+            }
+            span.finish(segment);
+        }
+        entrySpan.finish(segment);
+        return segment.finish(false);
+    }
+
+    @Benchmark
+    public void testFinishSegment(Blackhole bh) {
+        bh.consume(finishSegment());
+    }
+
+    @Benchmark
+    public void testTransform() throws IOException {
+        ((Drainable) builderMarshaller.stream(finishSegment().transform())).drainTo(DISCARD);
+    }
+
+    @Benchmark
+    public void testMarshaller() throws IOException {
+        ((Drainable) segmentMarshaller.stream(finishSegment())).drainTo(DISCARD);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(TraceSegmentMarshallerBenchmark.class.getName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .addProfiler("gc")
+                                          .build();
+        new Runner(opt).run();
+    }
+}
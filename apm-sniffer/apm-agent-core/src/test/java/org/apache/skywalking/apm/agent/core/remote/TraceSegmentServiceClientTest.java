@@ -26,10 +26,12 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
 import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.agent.core.test.tools.SegmentStorage;
@@ -50,6 +52,7 @@ import org.junit.runner.RunWith;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
 import static org.mockito.Mockito.spy;
 
 @RunWith(TracingSegmentRunner.class)
@@ -67,9 +70,13 @@ public class TraceSegmentServiceClientTest {
     private TraceSegmentServiceClient serviceClient = new TraceSegmentServiceClient();
     private List<SegmentObject> upstreamSegments;
 
+    private int openedStreams;
+    private int completedStreams;
+
     private TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase serviceImplBase = new TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase() {
         @Override
         public StreamObserver<SegmentObject> collect(final StreamObserver<Commands> responseObserver) {
+            openedStreams++;
             return new StreamObserver<SegmentObject>() {
                 @Override
                 public void onNext(SegmentObject value) {
@@ -82,6 +89,7 @@ public class TraceSegmentServiceClientTest {
 
                 @Override
                 public void onCompleted() {
+                    completedStreams++;
                     responseObserver.onNext(Commands.getDefaultInstance());
                     responseObserver.onCompleted();
                 }
@@ -115,6 +123,8 @@ public class TraceSegmentServiceClientTest {
         status.set(serviceClient, GRPCChannelStatus.CONNECTED);
 
         upstreamSegments = new ArrayList<>();
+        openedStreams = 0;
+        completedStreams = 0;
     }
 
     @Test
@@ -141,6 +151,58 @@ public class TraceSegmentServiceClientTest {
         assertThat(spanObject.getParentSpanId(), is(-1));
     }
 
+    @Test
+    public void testSendTraceSegmentsThroughLongLivedStream() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Collector.SEGMENT_STREAM_MAX_AGE = 60;
+        try {
+            for (int i = 0; i < 3; i++) {
+                AbstractSpan entrySpan = ContextManager.createEntrySpan("/testEntry" + i, null);
+                entrySpan.setComponent(ComponentsDefine.TOMCAT);
+                ContextManager.stopSpan();
+
+                serviceClient.consume(storage.getTraceSegments());
+                storage.getTraceSegments().clear();
+            }
+
+            assertThat(upstreamSegments.size(), is(3));
+            assertThat(openedStreams, is(1));
+            assertThat(completedStreams, is(0));
+
+            serviceClient.onExit();
+            assertThat(completedStreams, is(1));
+        } finally {
+            Config.Collector.SEGMENT_STREAM_MAX_AGE = 0;
+        }
+    }
+
+    @Test
+    public void testWriteTraceSegmentTheSameAsTransform() {
+        ContextCarrier contextCarrier = new ContextCarrier().deserialize(
+            "1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=",
+            ContextCarrier.HeaderVersion.v3
+        );
+        AbstractSpan entrySpan = ContextManager.createEntrySpan("/testEntry", contextCarrier);
+        entrySpan.setComponent(ComponentsDefine.TOMCAT);
+        Tags.HTTP.METHOD.set(entrySpan, "GET");
+        Tags.URL.set(entrySpan, "127.0.0.1:8080");
+        SpanLayer.asHttp(entrySpan);
+
+        AbstractSpan localSpan = ContextManager.createLocalSpan("/testLocal");
+        localSpan.tag(Tags.ofKey("empty"), "");
+        ContextManager.stopSpan();
+
+        AbstractSpan exitSpan = ContextManager.createExitSpan("/testExit", new ContextCarrier(), "127.0.0.1:12800");
+        exitSpan.setComponent(ComponentsDefine.HTTPCLIENT);
+        exitSpan.log(new RuntimeException("exception"));
+        ContextManager.stopSpan();
+        ContextManager.stopSpan();
+
+        TraceSegment segment = storage.getTraceSegments().get(0);
+        assertArrayEquals(segment.transform().toByteArray(), segment.toByteArray());
+        assertThat(segment.getSerializedSize(), is(segment.transform().getSerializedSize()));
+    }
+
     @Test
     public void testSendTraceSegmentWithException() throws InvalidProtocolBufferException, IllegalAccessException, NoSuchFieldException {
         grpcServerRule.getServiceRegistry().addService(serviceImplBase);
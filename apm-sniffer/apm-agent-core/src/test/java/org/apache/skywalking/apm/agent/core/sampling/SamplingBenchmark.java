@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the sampling decision of 8 threads, between the CAS on one shared counter and the striped window. The
+ * budget of the window is large enough not to be exhausted in an iteration, to measure the contention of the threads
+ * while traces are still being sampled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class SamplingBenchmark {
+    @Param({"1000000000"})
+    private int limit;
+
+    private AtomicInteger samplingFactorHolder;
+    private StripedSamplingWindow window;
+    private SamplingTokenBucket bucket;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        samplingFactorHolder = new AtomicInteger(0);
+        window = new StripedSamplingWindow(8);
+        bucket = new SamplingTokenBucket();
+    }
+
+    @Benchmark
+    public boolean testSharedCounter() {
+        int factor = samplingFactorHolder.get();
+        if (factor < limit) {
+            return samplingFactorHolder.compareAndSet(factor, factor + 1);
+        } else {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean testStripedWindow() {
+        return window.tryAcquire(limit);
+    }
+
+    @Benchmark
+    public boolean testTokenBucket() {
+        return bucket.tryAcquire(limit);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(SamplingBenchmark.class.getName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
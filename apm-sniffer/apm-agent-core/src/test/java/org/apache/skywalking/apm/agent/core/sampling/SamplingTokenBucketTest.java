@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SamplingTokenBucketTest {
+
+    @Test
+    public void testSampleEvenly() {
+        final SamplingTokenBucket bucket = new SamplingTokenBucket();
+        final long start = System.nanoTime();
+        // 3 traces per 3 seconds, 1 trace per second without burst.
+        Assert.assertTrue(bucket.tryAcquire(3, start));
+        Assert.assertFalse(bucket.tryAcquire(3, start));
+        Assert.assertFalse(bucket.tryAcquire(3, start + TimeUnit.MILLISECONDS.toNanos(999)));
+        Assert.assertTrue(bucket.tryAcquire(3, start + TimeUnit.SECONDS.toNanos(1)));
+        Assert.assertFalse(bucket.tryAcquire(3, start + TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    public void testBurst() {
+        final SamplingTokenBucket bucket = new SamplingTokenBucket();
+        final long start = System.nanoTime();
+        // 300 traces per 3 seconds, the tokens of 100ms could be taken at once.
+        int sampled = 0;
+        for (int i = 0; i < 100; i++) {
+            if (bucket.tryAcquire(300, start)) {
+                sampled++;
+            }
+        }
+        Assert.assertEquals(10, sampled);
+
+        // evenly sampled in the window.
+        sampled = 0;
+        for (long millis = 1; millis <= 3000; millis++) {
+            if (bucket.tryAcquire(300, start + TimeUnit.MILLISECONDS.toNanos(millis))) {
+                sampled++;
+            }
+        }
+        Assert.assertEquals(300, sampled);
+    }
+
+    @Test
+    public void testForceAcquireBlocksOneWindowAtMost() {
+        final SamplingTokenBucket bucket = new SamplingTokenBucket();
+        final long start = System.nanoTime();
+        // a burst of 10000 propagated traces, on the budget of 3 traces per 3 seconds.
+        for (int i = 0; i < 10000; i++) {
+            bucket.forceAcquire(3, start);
+        }
+        Assert.assertFalse(bucket.tryAcquire(3, start + TimeUnit.MILLISECONDS.toNanos(2999)));
+        Assert.assertTrue(bucket.tryAcquire(3, start + TimeUnit.SECONDS.toNanos(3)));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StripedSamplingWindowTest {
+
+    @Test
+    public void testSampleNPerWindow() {
+        final StripedSamplingWindow window = new StripedSamplingWindow(4);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(window.tryAcquire(100));
+        }
+        Assert.assertFalse(window.tryAcquire(100));
+
+        window.rotate();
+        Assert.assertTrue(window.tryAcquire(100));
+    }
+
+    @Test
+    public void testForceAcquire() {
+        final StripedSamplingWindow window = new StripedSamplingWindow(4);
+        window.forceAcquire(2);
+        window.forceAcquire(2);
+        Assert.assertFalse(window.tryAcquire(2));
+
+        // the limit could be increased in the runtime.
+        Assert.assertTrue(window.tryAcquire(3));
+    }
+
+    @Test
+    public void testSampleNPerWindowConcurrently() throws InterruptedException {
+        final int threads = 8;
+        final int limit = 1000;
+        final StripedSamplingWindow window = new StripedSamplingWindow(threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch latch = new CountDownLatch(threads);
+        final AtomicInteger sampled = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < limit; j++) {
+                    if (window.tryAcquire(limit)) {
+                        sampled.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            });
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // All the budget is taken, including the remaining slices of the stripes, but never more.
+        Assert.assertEquals(limit, sampled.get());
+        Assert.assertFalse(window.tryAcquire(limit));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.context.ids.PropagatedTraceId;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentRef;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TailSamplingBufferTest {
+    private static final long NOW = 10_000;
+
+    private final List<TraceSegment> reported = new ArrayList<>();
+
+    @Test
+    public void testKeepSlowAndErrorSegments() {
+        final TailSamplingBuffer buffer = new TailSamplingBuffer(1000, 1024, false, () -> false);
+        final TraceSegment fast = segment("trace-1", 10, false, null);
+        final TraceSegment slow = segment("trace-2", 1000, false, null);
+        final TraceSegment error = segment("trace-3", 10, true, null);
+
+        buffer.finish(fast, NOW, reported::add);
+        buffer.finish(slow, NOW, reported::add);
+        buffer.finish(error, NOW, reported::add);
+
+        Assert.assertEquals(Arrays.asList(slow, error), reported);
+    }
+
+    @Test
+    public void testKeepSegmentsSampledByBaseRate() {
+        final TailSamplingBuffer buffer = new TailSamplingBuffer(1000, 1024, false, () -> true);
+        final TraceSegment fast = segment("trace-1", 10, false, null);
+
+        buffer.finish(fast, NOW, reported::add);
+
+        Assert.assertEquals(Collections.singletonList(fast), reported);
+    }
+
+    @Test
+    public void testDecidePropagatedSegments() {
+        final TailSamplingBuffer buffer = new TailSamplingBuffer(1000, 1024, false, () -> false);
+        final TraceSegment propagated = segment("trace-1", 10, false, TraceSegmentRef.SegmentRefType.CROSS_PROCESS);
+        final TraceSegment child = segment("trace-1", 10, false, TraceSegmentRef.SegmentRefType.CROSS_THREAD);
+        final TraceSegment slowPropagated = segment(
+            "trace-2", 1000, false, TraceSegmentRef.SegmentRefType.CROSS_PROCESS);
+
+        buffer.finish(propagated, NOW, reported::add);
+        buffer.finish(child, NOW, reported::add);
+        buffer.finish(slowPropagated, NOW, reported::add);
+
+        Assert.assertEquals(Collections.singletonList(slowPropagated), reported);
+    }
+
+    @Test
+    public void testKeepPropagatedSegments() {
+        final TailSamplingBuffer buffer = new TailSamplingBuffer(1000, 1024, true, () -> false);
+        final TraceSegment propagated = segment("trace-1", 10, false, TraceSegmentRef.SegmentRefType.CROSS_PROCESS);
+        final TraceSegment child = segment("trace-1", 10, false, TraceSegmentRef.SegmentRefType.CROSS_THREAD);
+
+        buffer.finish(propagated, NOW, reported::add);
+        buffer.finish(child, NOW, reported::add);
+
+        Assert.assertEquals(Arrays.asList(propagated, child), reported);
+    }
+
+    @Test
+    public void testDecideContinuedSegmentsByTheirTrace() {
+        final TailSamplingBuffer buffer = new TailSamplingBuffer(1000, 1024, false, () -> false);
+        final TraceSegment child = segment("trace-1", 10, false, TraceSegmentRef.SegmentRefType.CROSS_THREAD);
+        final TraceSegment parent = segment("trace-1", 2000, false, null);
+        final TraceSegment lateChild = segment("trace-1", 10, false, TraceSegmentRef.SegmentRefType.CROSS_THREAD);
+
+        buffer.finish(child, NOW, reported::add);
+        Assert.assertTrue(reported.isEmpty());
+        Assert.assertEquals(100, buffer.getBufferedBytes());
+
+        buffer.finish(parent, NOW, reported::add);
+        buffer.finish(lateChild, NOW, reported::add);
+        Assert.assertEquals(Arrays.asList(child, parent, lateChild), reported);
+        Assert.assertEquals(0, buffer.getBufferedBytes());
+
+        final TraceSegment droppedChild = segment("trace-2", 10, false, TraceSegmentRef.SegmentRefType.CROSS_THREAD);
+        final TraceSegment droppedParent = segment("trace-2", 10, false, null);
+        final TraceSegment errorChild = segment("trace-2", 10, true, TraceSegmentRef.SegmentRefType.CROSS_THREAD);
+        reported.clear();
+        buffer.finish(droppedChild, NOW, reported::add);
+        buffer.finish(droppedParent, NOW, reported::add);
+        buffer.finish(errorChild, NOW, reported::add);
+        Assert.assertEquals(Collections.singletonList(errorChild), reported);
+        Assert.assertEquals(0, buffer.getBufferedBytes());
+    }
+
+    @Test
+    public void testDropEarliestBufferedTraceWhenFull() {
+        final TailSamplingBuffer buffer = new TailSamplingBuffer(1000, 250, false, () -> false, 1);
+        for (int i = 0; i < 3; i++) {
+            buffer.finish(
+                segment("trace-" + i, 10, false, TraceSegmentRef.SegmentRefType.CROSS_THREAD), NOW, reported::add);
+        }
+        Assert.assertEquals(200, buffer.getBufferedBytes());
+
+        buffer.finish(segment("trace-0", 2000, false, null), NOW, reported::add);
+        Assert.assertEquals(1, reported.size());
+        buffer.finish(segment("trace-2", 2000, false, null), NOW, reported::add);
+        Assert.assertEquals(3, reported.size());
+        Assert.assertEquals(100, buffer.getBufferedBytes());
+    }
+
+    @Test
+    public void testKeepExpiredBufferedSegments() {
+        final TailSamplingBuffer buffer = new TailSamplingBuffer(1000, 1024, false, () -> false, 1);
+        final TraceSegment child = segment("trace-1", 10, false, TraceSegmentRef.SegmentRefType.CROSS_THREAD);
+
+        buffer.finish(child, NOW, reported::add);
+        buffer.finish(segment("trace-2", 0, false, null), NOW + 989, reported::add);
+        Assert.assertTrue(reported.isEmpty());
+
+        buffer.finish(segment("trace-3", 0, false, null), NOW + 990, reported::add);
+        Assert.assertEquals(Collections.singletonList(child), reported);
+        Assert.assertEquals(0, buffer.getBufferedBytes());
+
+        final TraceSegment lateChild = segment("trace-1", 0, false, TraceSegmentRef.SegmentRefType.CROSS_THREAD);
+        buffer.finish(lateChild, NOW + 990, reported::add);
+        Assert.assertEquals(Arrays.asList(child, lateChild), reported);
+    }
+
+    @Test
+    public void testDropChildOfDroppedTraceAfterManyDecisions() {
+        final TailSamplingBuffer buffer = new TailSamplingBuffer(1000, 1024, false, () -> false, 1);
+        buffer.finish(segment("trace-0", 0, false, null), NOW, reported::add);
+        // the decisions of a busy service in the latency threshold
+        for (int i = 1; i <= 5000; i++) {
+            buffer.finish(segment("trace-" + i, 0, false, null), NOW + i / 10, reported::add);
+        }
+
+        // the child finishing later follows the dropped decision, rather than being buffered and kept as an orphan
+        final TraceSegment child = segment("trace-0", 0, false, TraceSegmentRef.SegmentRefType.CROSS_THREAD);
+        buffer.finish(child, NOW + 999, reported::add);
+        Assert.assertEquals(0, buffer.getBufferedBytes());
+        Assert.assertTrue(reported.isEmpty());
+    }
+
+    private static TraceSegment segment(String traceId, long latency, boolean error,
+                                        TraceSegmentRef.SegmentRefType refType) {
+        final TraceSegment segment = mock(TraceSegment.class);
+        when(segment.getRelatedGlobalTrace()).thenReturn(new PropagatedTraceId(traceId));
+        when(segment.createTime()).thenReturn(NOW - latency);
+        when(segment.hasErrorSpan()).thenReturn(error);
+        when(segment.getSerializedSize()).thenReturn(100);
+        if (refType != null) {
+            final TraceSegmentRef ref = mock(TraceSegmentRef.class);
+            when(ref.getType()).thenReturn(refType);
+            when(segment.getRef()).thenReturn(ref);
+        }
+        return segment;
+    }
+}
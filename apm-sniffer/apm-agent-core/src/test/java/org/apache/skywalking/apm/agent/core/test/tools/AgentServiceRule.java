@@ -54,8 +54,7 @@ public class AgentServiceRule extends ExternalResource {
 
             Field listeners = TracingContext.ListenerManager.class.getDeclaredField("LISTENERS");
             listeners.setAccessible(true);
-            listeners.set(TracingContext.ListenerManager.class,
-                new LinkedList<TracingContextListener>());
+            listeners.set(TracingContext.ListenerManager.class, new TracingContextListener[0]);
 
             listeners = IgnoredTracerContext.ListenerManager.class.getDeclaredField("LISTENERS");
             listeners.setAccessible(true);
@@ -65,7 +64,7 @@ public class AgentServiceRule extends ExternalResource {
             listeners =
                 TracingContext.TracingThreadListenerManager.class.getDeclaredField("LISTENERS");
             listeners.setAccessible(true);
-            listeners.set(TracingContext.TracingThreadListenerManager.class, new LinkedList<TracingThreadListener>());
+            listeners.set(TracingContext.TracingThreadListenerManager.class, new TracingThreadListener[0]);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
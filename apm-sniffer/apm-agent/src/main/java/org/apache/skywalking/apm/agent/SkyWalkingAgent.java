@@ -54,9 +54,11 @@ import org.apache.skywalking.apm.agent.core.plugin.InstrumentDebuggingClass;
 import org.apache.skywalking.apm.agent.core.plugin.PluginBootstrap;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
+import org.apache.skywalking.apm.agent.core.plugin.TransformationCache;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.BootstrapInstrumentBoost;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.DelegateNamingResolver;
 import org.apache.skywalking.apm.agent.core.plugin.jdk9module.JDK9ModuleExporter;
+import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
 
 import static net.bytebuddy.matcher.ElementMatchers.nameContains;
 import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
@@ -115,12 +117,22 @@ public class SkyWalkingAgent {
 
         Runtime.getRuntime()
                .addShutdownHook(new Thread(ServiceManager.INSTANCE::shutdown, "skywalking service shutdown thread"));
+
+        AgentClassLoader.saveClassCache();
+        // the plugin classes loaded after the startup, such as the interceptors, are saved at the shutdown.
+        Runtime.getRuntime()
+               .addShutdownHook(new Thread(AgentClassLoader::saveClassCache, "skywalking class cache thread"));
+
+        if (TransformationCache.INSTANCE.isEnabled()) {
+            Runtime.getRuntime()
+                   .addShutdownHook(new Thread(TransformationCache.INSTANCE::save, "skywalking transformation cache thread"));
+        }
     }
 
     static void installClassTransformer(Instrumentation instrumentation, PluginFinder pluginFinder) throws Exception {
         LOGGER.info("Skywalking agent begin to install transformer ...");
 
-        AgentBuilder agentBuilder = newAgentBuilder().ignore(
+        ElementMatcher.Junction<TypeDescription> ignoredTypes =
             nameStartsWith("net.bytebuddy.")
                 .or(nameStartsWith("org.slf4j."))
                 .or(nameStartsWith("org.groovy."))
@@ -130,7 +142,18 @@ public class SkyWalkingAgent {
                 .or(nameStartsWith("sun.reflect"))
                 .or(nameStartsWith("sun.nio.cs"))
                 .or(allSkyWalkingAgentExcludeToolkit())
-                .or(ElementMatchers.isSynthetic()));
+                .or(ElementMatchers.isSynthetic());
+
+        AgentBuilder agentBuilder;
+        TransformationCache.INSTANCE.init();
+        if (TransformationCache.INSTANCE.isEnabled()) {
+            agentBuilder = newAgentBuilder().with(TransformationCache.INSTANCE.classFileBufferStrategy())
+                                            .with(TransformationCache.INSTANCE.listener())
+                                            .ignore(TransformationCache.INSTANCE)
+                                            .or(ignoredTypes);
+        } else {
+            agentBuilder = newAgentBuilder().ignore(ignoredTypes);
+        }
 
         JDK9ModuleExporter.EdgeClasses edgeClasses = new JDK9ModuleExporter.EdgeClasses();
         try {
@@ -42,7 +42,7 @@ public class AgentServiceRule extends ExternalResource {
             FieldSetter.setValue(
                 IgnoredTracerContext.ListenerManager.class, "LISTENERS", new ArrayList<TracingContextListener>());
             FieldSetter.setValue(
-                TracingContext.ListenerManager.class, "LISTENERS", new ArrayList<TracingContextListener>());
+                TracingContext.ListenerManager.class, "LISTENERS", new TracingContextListener[0]);
             ServiceManager.INSTANCE.shutdown();
         } catch (Exception e) {
         }
@@ -26,6 +26,7 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfig;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfigInitializer;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathPatterns;
 import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
 import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
 import org.apache.skywalking.apm.util.StringUtil;
@@ -36,6 +37,10 @@ public class TraceIgnoreExtendService extends SamplingService {
     private static final String PATTERN_SEPARATOR = ",";
     private TracePathMatcher pathMatcher = new FastPathMatcher();
     private volatile String[] patterns = new String[] {};
+    /**
+     * The {@link #patterns} compiled, it is compiled again if the patterns are changed.
+     */
+    private volatile CompiledPathPatterns compiledPatterns = CompiledPathPatterns.compile(patterns, pathMatcher);
     private TraceIgnorePatternWatcher traceIgnorePatternWatcher;
 
     @Override
@@ -70,13 +75,15 @@ public class TraceIgnoreExtendService extends SamplingService {
 
     @Override
     public boolean trySampling(final String operationName) {
-        if (patterns.length > 0) {
-            for (String pattern : patterns) {
-                if (pathMatcher.match(pattern, operationName)) {
-                    LOGGER.debug("operationName : " + operationName + " Ignore tracking");
-                    return false;
-                }
-            }
+        CompiledPathPatterns compiled = compiledPatterns;
+        final String[] currentPatterns = patterns;
+        if (compiled.getPatterns() != currentPatterns) {
+            compiled = CompiledPathPatterns.compile(currentPatterns, pathMatcher);
+            compiledPatterns = compiled;
+        }
+        if (compiled.match(operationName)) {
+            LOGGER.debug("operationName : {} Ignore tracking", operationName);
+            return false;
         }
         return super.trySampling(operationName);
     }
@@ -92,5 +99,6 @@ public class TraceIgnoreExtendService extends SamplingService {
         } else {
             patterns = new String[] {};
         }
+        compiledPatterns = CompiledPathPatterns.compile(patterns, pathMatcher);
     }
 }
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The ignore path patterns compiled into a trie of their literal prefixes, which are the chars before the first
+ * wildcard. Matching walks the trie along the path once, only the patterns whose literal prefix is a prefix of the path
+ * are checked by the {@link TracePathMatcher}, and the patterns without wildcard are matched by reaching the end of the
+ * path at their node.
+ * <p>
+ * The verdicts of the recent paths are cached in a fixed size table indexed by the hash of the path, as the same
+ * operation names come again and again.
+ */
+public final class CompiledPathPatterns {
+    private static final int CACHE_SIZE = 1024;
+
+    private final String[] patterns;
+    private final TracePathMatcher matcher;
+    private final Node root;
+    private final Verdict[] verdicts = new Verdict[CACHE_SIZE];
+
+    private CompiledPathPatterns(String[] patterns, TracePathMatcher matcher, Node root) {
+        this.patterns = patterns;
+        this.matcher = matcher;
+        this.root = root;
+    }
+
+    public static CompiledPathPatterns compile(String[] patterns, TracePathMatcher matcher) {
+        final Builder root = new Builder();
+        for (String pattern : patterns) {
+            int literalLength = 0;
+            while (literalLength < pattern.length() && !isWildcard(pattern.charAt(literalLength))) {
+                literalLength++;
+            }
+            Builder node = root;
+            for (int i = 0; i < literalLength; i++) {
+                node = node.children.computeIfAbsent(pattern.charAt(i), c -> new Builder());
+            }
+            if (literalLength == pattern.length()) {
+                node.terminal = true;
+            } else {
+                node.wildcardPatterns.add(pattern);
+            }
+        }
+        return new CompiledPathPatterns(patterns, matcher, root.build());
+    }
+
+    /**
+     * @return the patterns compiled from.
+     */
+    public String[] getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * @return true if the path matches any of the patterns.
+     */
+    public boolean match(String path) {
+        if (patterns.length == 0) {
+            return false;
+        }
+        final int index = path.hashCode() & (CACHE_SIZE - 1);
+        final Verdict verdict = verdicts[index];
+        if (verdict != null && verdict.path.equals(path)) {
+            return verdict.matched;
+        }
+        final boolean matched = matchTrie(path);
+        // Racy publication is fine, the verdict is immutable and recomputing it is harmless.
+        verdicts[index] = new Verdict(path, matched);
+        return matched;
+    }
+
+    private boolean matchTrie(String path) {
+        Node node = root;
+        int position = 0;
+        while (true) {
+            for (String pattern : node.wildcardPatterns) {
+                if (matcher.match(pattern, path)) {
+                    return true;
+                }
+            }
+            if (position == path.length()) {
+                return node.terminal;
+            }
+            node = node.child(path.charAt(position++));
+            if (node == null) {
+                return false;
+            }
+        }
+    }
+
+    private static boolean isWildcard(char c) {
+        return c == '*' || c == '?';
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final String[] wildcardPatterns;
+        private final boolean terminal;
+
+        private Node(char[] keys, Node[] children, String[] wildcardPatterns, boolean terminal) {
+            this.keys = keys;
+            this.children = children;
+            this.wildcardPatterns = wildcardPatterns;
+            this.terminal = terminal;
+        }
+
+        private Node child(char c) {
+            final int index = Arrays.binarySearch(keys, c);
+            return index < 0 ? null : children[index];
+        }
+    }
+
+    private static final class Builder {
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+        private final List<String> wildcardPatterns = new ArrayList<>();
+        private boolean terminal;
+
+        private Node build() {
+            final char[] keys = new char[children.size()];
+            final Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+            return new Node(keys, nodes, wildcardPatterns.toArray(new String[0]), terminal);
+        }
+    }
+
+    private static final class Verdict {
+        private final String path;
+        private final boolean matched;
+
+        private Verdict(String path, boolean matched) {
+            this.path = path;
+            this.matched = matched;
+        }
+    }
+}
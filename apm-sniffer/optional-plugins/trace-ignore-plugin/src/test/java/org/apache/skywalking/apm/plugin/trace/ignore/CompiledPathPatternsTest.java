@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import java.util.Random;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathPatterns;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledPathPatternsTest {
+    private final TracePathMatcher pathMatcher = new FastPathMatcher();
+
+    @Test
+    public void testMatch() {
+        CompiledPathPatterns patterns = CompiledPathPatterns.compile(
+            new String[] {"/eureka/**", "/health", "/static/*.js", "/api/?/status", "**/ping"}, pathMatcher);
+        Assert.assertTrue(patterns.match("/eureka/apps"));
+        Assert.assertTrue(patterns.match("/health"));
+        Assert.assertFalse(patterns.match("/health/check"));
+        Assert.assertFalse(patterns.match("/heal"));
+        Assert.assertTrue(patterns.match("/static/app.js"));
+        Assert.assertFalse(patterns.match("/static/js/app.js"));
+        Assert.assertTrue(patterns.match("/api/1/status"));
+        Assert.assertFalse(patterns.match("/api/12/status"));
+        Assert.assertTrue(patterns.match("/any/path/ping"));
+        Assert.assertFalse(patterns.match("/consul/apps"));
+        // cached verdicts
+        Assert.assertTrue(patterns.match("/eureka/apps"));
+        Assert.assertFalse(patterns.match("/consul/apps"));
+
+        Assert.assertFalse(CompiledPathPatterns.compile(new String[] {}, pathMatcher).match("/health"));
+    }
+
+    @Test
+    public void testSameAsMatchingOneByOne() {
+        final Random random = new Random(7);
+        final String[] parts = {"/", "a", "b", "ab", "*", "**", "?", "."};
+        for (int round = 0; round < 200; round++) {
+            final String[] patterns = new String[1 + random.nextInt(8)];
+            for (int i = 0; i < patterns.length; i++) {
+                patterns[i] = randomText(random, parts, 6);
+            }
+            final CompiledPathPatterns compiled = CompiledPathPatterns.compile(patterns, pathMatcher);
+            for (int i = 0; i < 200; i++) {
+                final String path = randomText(random, new String[] {"/", "a", "b", "ab", "."}, 8);
+                boolean expected = false;
+                for (String pattern : patterns) {
+                    expected |= pathMatcher.match(pattern, path);
+                }
+                Assert.assertEquals(String.join(",", patterns) + " " + path, expected, compiled.match(path));
+            }
+        }
+    }
+
+    private static String randomText(Random random, String[] parts, int maxParts) {
+        final StringBuilder text = new StringBuilder();
+        final int count = random.nextInt(maxParts + 1);
+        for (int i = 0; i < count; i++) {
+            text.append(parts[random.nextInt(parts.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathPatterns;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare matching an operation name, which is not ignored, against 150 ignore patterns one by one and through the
+ * {@link CompiledPathPatterns}, with and without the verdict cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TraceIgnoreBenchmark {
+    private final TracePathMatcher pathMatcher = new FastPathMatcher();
+    private String[] patterns;
+    private CompiledPathPatterns compiledPatterns;
+    private String[] operationNames;
+    private int next;
+
+    @Setup
+    public void setup() {
+        patterns = new String[150];
+        for (int i = 0; i < 50; i++) {
+            patterns[i * 3] = "/health/check" + i;
+            patterns[i * 3 + 1] = "/static/v" + i + "/**";
+            patterns[i * 3 + 2] = "/assets/*/img" + i + ".png";
+        }
+        compiledPatterns = CompiledPathPatterns.compile(patterns, pathMatcher);
+        operationNames = new String[4096];
+        for (int i = 0; i < operationNames.length; i++) {
+            operationNames[i] = "/api/orders/" + i + "/items";
+        }
+    }
+
+    @Benchmark
+    public boolean testMatchOneByOne() {
+        final String operationName = "/api/orders/1/items";
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, operationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean testMatchCompiledWithCache() {
+        return compiledPatterns.match("/api/orders/1/items");
+    }
+
+    @Benchmark
+    public boolean testMatchCompiledWithoutCache() {
+        // More distinct operation names than the cache size.
+        return compiledPatterns.match(operationNames[next++ & (operationNames.length - 1)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(TraceIgnoreBenchmark.class.getName())
+                                          .forks(1)
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 2 iterations, 2 s each
+     * # Measurement: 3 iterations, 2 s each
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                           Mode  Cnt     Score     Error  Units
+     * TraceIgnoreBenchmark.testMatchCompiledWithCache     avgt    3     6.401 ±   3.453  ns/op
+     * TraceIgnoreBenchmark.testMatchCompiledWithoutCache  avgt    3    38.518 ±  53.642  ns/op
+     * TraceIgnoreBenchmark.testMatchOneByOne              avgt    3  1020.391 ± 915.604  ns/op
+     */
+}
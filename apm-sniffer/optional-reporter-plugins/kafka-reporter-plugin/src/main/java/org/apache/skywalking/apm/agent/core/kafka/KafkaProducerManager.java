@@ -29,7 +29,6 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -41,9 +40,9 @@ import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.BytesSerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.apache.kafka.common.utils.Bytes;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.kafka.KafkaReporterPluginConfig.Plugin.Kafka;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
@@ -72,9 +71,8 @@ public class KafkaProducerManager implements BootService, Runnable {
 
     @Override
     public void boot() {
-        bootProducerFuture = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("kafkaProducerInitThread")
-        ).scheduleAtFixedRate(new RunnableWithExceptionProtection(
+        bootProducerFuture = AgentScheduler.INSTANCE.scheduleAtFixedRate(
+                "kafkaProducerInitThread", new RunnableWithExceptionProtection(
                 this,
                 t -> LOGGER.error("unexpected exception.", t)
         ), 0, 120, TimeUnit.SECONDS);
@@ -19,15 +19,14 @@
 package org.apache.skywalking.apm.agent.core.kafka;
 
 import java.util.List;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.utils.Bytes;
+import org.apache.skywalking.apm.agent.core.boot.AgentScheduler;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.OverrideImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -70,9 +69,8 @@ public class KafkaServiceManagementServiceClient implements BootService, Runnabl
 
     @Override
     public void boot() {
-        heartbeatFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("ServiceManagementClientKafkaProducer")
-        ).scheduleAtFixedRate(new RunnableWithExceptionProtection(
+        heartbeatFuture = AgentScheduler.INSTANCE.scheduleAtFixedRate(
+            "ServiceManagementClientKafkaProducer", new RunnableWithExceptionProtection(
             this,
             t -> LOGGER.error("unexpected exception.", t)
         ), 0, Config.Collector.HEARTBEAT_PERIOD, TimeUnit.SECONDS);
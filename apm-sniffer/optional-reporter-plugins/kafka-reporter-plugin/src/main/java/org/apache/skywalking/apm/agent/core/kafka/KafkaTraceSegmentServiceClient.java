@@ -36,7 +36,6 @@ import org.apache.skywalking.apm.agent.core.remote.TraceSegmentServiceClient;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
-import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SIZE;
@@ -88,11 +87,10 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
             return;
         }
         data.forEach(traceSegment -> {
-            SegmentObject upstreamSegment = traceSegment.transform();
             ProducerRecord<String, Bytes> record = new ProducerRecord<>(
                 topic,
-                upstreamSegment.getTraceSegmentId(),
-                Bytes.wrap(upstreamSegment.toByteArray())
+                traceSegment.getTraceSegmentId(),
+                Bytes.wrap(traceSegment.toByteArray())
             );
             producer.send(record, (m, e) -> {
                 if (Objects.nonNull(e)) {
@@ -117,14 +115,14 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
         if (LOGGER.isDebugEnable()) {
             LOGGER.debug("Trace segment reporting, traceId: {}", traceSegment.getTraceSegmentId());
         }
-
-        if (traceSegment.isIgnore()) {
-            LOGGER.debug("Trace[TraceId={}] is ignored.", traceSegment.getTraceSegmentId());
-            return;
-        }
         carrier.produce(traceSegment);
     }
 
+    @Override
+    public boolean isInterestedInIgnoredSegment() {
+        return false;
+    }
+
     @Override
     public void onStatusChanged(KafkaConnectionStatus status) {
         if (status == KafkaConnectionStatus.CONNECTED) {